@@ -123,6 +123,93 @@ CREATE TABLE IF NOT EXISTS `role_permission` (
   KEY `idx_permission_id` (`permission_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色权限关联表';
 
+-- 初始化接口权限数据（与Controller上 @RequirePermissions 的编码对应，路径为不含 /api 前缀的接口映射）
+-- 可重复执行：按权限编码插入，已存在的编码只更新名称和路径；已有数据库可单独执行本段和下一段
+INSERT INTO `permission` (`name`, `code`, `type`, `parent_id`, `path`, `sort`, `create_time`, `update_time`, `create_by`, `update_by`, `deleted`, `version`) VALUES
+('创建权限', 'PERMISSION_CREATE', 3, 0, '/permission/create', 1, NOW(), NOW(), 'system', 'system', 0, 1),
+('查询权限', 'PERMISSION_QUERY', 3, 0, '/permission/**', 2, NOW(), NOW(), 'system', 'system', 0, 1),
+('分配权限', 'PERMISSION_ASSIGN', 3, 0, '/permission/assign', 3, NOW(), NOW(), 'system', 'system', 0, 1),
+('删除权限', 'PERMISSION_DELETE', 3, 0, '/permission/{id}', 4, NOW(), NOW(), 'system', 'system', 0, 1),
+('创建角色', 'ROLE_CREATE', 3, 0, '/role/create', 5, NOW(), NOW(), 'system', 'system', 0, 1),
+('查询用户', 'USER_QUERY', 3, 0, '/user/admin/list', 6, NOW(), NOW(), 'system', 'system', 0, 1),
+('导出用户', 'USER_EXPORT', 3, 0, '/user/admin/export', 7, NOW(), NOW(), 'system', 'system', 0, 1),
+('修改用户状态', 'USER_STATUS_UPDATE', 3, 0, '/user/admin/{userId}/*', 8, NOW(), NOW(), 'system', 'system', 0, 1),
+('删除用户', 'USER_DELETE', 3, 0, '/user/admin/{userId}', 9, NOW(), NOW(), 'system', 'system', 0, 1)
+ON DUPLICATE KEY UPDATE `name` = VALUES(`name`), `path` = VALUES(`path`), `update_time` = NOW();
+
+-- 为管理员角色分配全部接口权限，按编码查找角色和权限，可重复执行，已取消的分配会被恢复
+-- 管理员角色在权限校验时始终拥有全部权限，这里的分配只用于权限查询结果的展示
+INSERT INTO `role_permission` (`role_id`, `permission_id`, `create_time`, `update_time`, `create_by`, `update_by`, `deleted`, `version`)
+SELECT r.`id`, p.`id`, NOW(), NOW(), 'system', 'system', 0, 1
+FROM `role` r
+JOIN `permission` p ON p.`code` IN ('PERMISSION_CREATE', 'PERMISSION_QUERY', 'PERMISSION_ASSIGN', 'PERMISSION_DELETE', 'ROLE_CREATE', 'USER_QUERY', 'USER_EXPORT', 'USER_STATUS_UPDATE', 'USER_DELETE') AND p.`deleted` = 0
+WHERE r.`code` = 'ADMIN' AND r.`deleted` = 0
+ON DUPLICATE KEY UPDATE `deleted` = 0, `update_time` = NOW();
+
+-- 邮件发送队列表
+CREATE TABLE IF NOT EXISTS `email_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `tracking_id` varchar(64) NOT NULL COMMENT '发送跟踪ID',
+  `biz_type` varchar(50) DEFAULT NULL COMMENT '业务类型',
+  `biz_key` varchar(100) DEFAULT NULL COMMENT '业务标识',
+  `from_address` varchar(100) DEFAULT NULL COMMENT '发件人邮箱，为空时使用系统默认发件人',
+  `to_address` varchar(500) NOT NULL COMMENT '收件人邮箱，多个以逗号分隔',
+  `subject` varchar(255) NOT NULL COMMENT '邮件主题',
+  `content` mediumtext NOT NULL COMMENT '邮件内容，发送成功或最终失败后清空',
+  `html` tinyint NOT NULL DEFAULT 1 COMMENT '是否为HTML格式：0-否，1-是',
+  `status` tinyint NOT NULL DEFAULT 0 COMMENT '发送状态：0-待发送，1-发送中，2-已发送，3-发送失败',
+  `retry_count` int NOT NULL DEFAULT 0 COMMENT '已失败次数',
+  `next_retry_time` datetime NOT NULL COMMENT '下次可发送时间',
+  `claim_token` varchar(64) DEFAULT NULL COMMENT '领取批次标识',
+  `last_error` varchar(500) DEFAULT NULL COMMENT '最近一次失败原因',
+  `sent_time` datetime DEFAULT NULL COMMENT '发送成功时间',
+  `create_time` datetime NOT NULL COMMENT '创建时间',
+  `update_time` datetime NOT NULL COMMENT '更新时间',
+  `create_by` varchar(50) NOT NULL COMMENT '创建人',
+  `update_by` varchar(50) NOT NULL COMMENT '更新人',
+  `deleted` tinyint NOT NULL DEFAULT 0 COMMENT '是否删除：0-未删除，1-已删除',
+  `version` int NOT NULL DEFAULT 1 COMMENT '版本号',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_tracking_id` (`tracking_id`),
+  KEY `idx_status_next_retry_time` (`status`, `next_retry_time`),
+  KEY `idx_claim_token` (`claim_token`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='邮件发送队列表';
+
+-- 文件内容索引表
+CREATE TABLE IF NOT EXISTS `file_object` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `sha256` char(64) NOT NULL COMMENT '文件内容SHA-256（十六进制小写）',
+  `directory` varchar(150) NOT NULL DEFAULT '' COMMENT '上传时指定的目录，未指定时为空字符串，去重只在同一目录内进行',
+  `object_name` varchar(255) NOT NULL COMMENT 'MinIO对象名称',
+  `file_size` bigint NOT NULL COMMENT '文件大小（字节）',
+  `content_type` varchar(100) DEFAULT NULL COMMENT '文件类型',
+  `ref_count` int NOT NULL DEFAULT 1 COMMENT '引用次数，与文件引用表中的记录数一致，降为0时删除对象和本记录',
+  `create_time` datetime NOT NULL COMMENT '创建时间',
+  `update_time` datetime NOT NULL COMMENT '更新时间',
+  `create_by` varchar(50) NOT NULL COMMENT '创建人',
+  `update_by` varchar(50) NOT NULL COMMENT '更新人',
+  `deleted` tinyint NOT NULL DEFAULT 0 COMMENT '是否删除：0-未删除，1-已删除',
+  `version` int NOT NULL DEFAULT 1 COMMENT '版本号',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_sha256_directory` (`sha256`, `directory`),
+  UNIQUE KEY `uk_object_name` (`object_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文件内容索引表';
+
+-- 文件引用表
+CREATE TABLE IF NOT EXISTS `file_reference` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `file_object_id` bigint NOT NULL COMMENT '文件内容索引ID',
+  `user_id` bigint NOT NULL DEFAULT 0 COMMENT '上传用户ID，0表示匿名上传',
+  `create_time` datetime NOT NULL COMMENT '创建时间',
+  `update_time` datetime NOT NULL COMMENT '更新时间',
+  `create_by` varchar(50) NOT NULL COMMENT '创建人',
+  `update_by` varchar(50) NOT NULL COMMENT '更新人',
+  `deleted` tinyint NOT NULL DEFAULT 0 COMMENT '是否删除：0-未删除，1-已删除',
+  `version` int NOT NULL DEFAULT 1 COMMENT '版本号',
+  PRIMARY KEY (`id`),
+  KEY `idx_file_object_user` (`file_object_id`, `user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文件引用表';
+
 -- 添加外键约束
 ALTER TABLE `user` 
   ADD CONSTRAINT `fk_user_role` FOREIGN KEY (`role_id`) REFERENCES `role` (`id`) ON DELETE RESTRICT ON UPDATE CASCADE,
@@ -0,0 +1,66 @@
+package com.xiaoyan.projectskeleton.common.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 接口限流注解
+ * 标记在Controller方法上，按指定维度在滑动时间窗口内限制请求次数，可重复标记以组合多个维度
+ * 超出限制时抛出 TOO_MANY_REQUESTS 业务异常
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(RateLimits.class)
+public @interface RateLimit {
+    /**
+     * 限流维度
+     */
+    KeyType key() default KeyType.IP;
+    
+    /**
+     * 维度为PARAM时的请求参数名，或维度为BODY时的请求体属性名
+     */
+    String param() default "";
+    
+    /**
+     * 时间窗口内允许的最大请求次数
+     */
+    int limit();
+    
+    /**
+     * 时间窗口（秒）
+     */
+    long window();
+    
+    /**
+     * 限流规则名称，默认为 类名.方法名，名称相同的规则共享计数
+     */
+    String name() default "";
+    
+    /**
+     * 超出限制时的提示信息
+     */
+    String message() default "请求过于频繁，请稍后再试";
+    
+    /**
+     * 限流维度枚举
+     */
+    enum KeyType {
+        /**
+         * 客户端IP
+         */
+        IP,
+        /**
+         * 当前登录用户，未登录时按客户端IP
+         */
+        USER,
+        /**
+         * 请求参数（查询参数或表单参数）
+         */
+        PARAM,
+        /**
+         * 请求体（JSON）中的属性
+         */
+        BODY
+    }
+}
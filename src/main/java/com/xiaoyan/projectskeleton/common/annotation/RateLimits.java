@@ -0,0 +1,17 @@
+package com.xiaoyan.projectskeleton.common.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 接口限流注解容器
+ * 同一方法上标记多个 @RateLimit 时由编译器自动生成，无需直接使用
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimits {
+    /**
+     * 限流规则列表
+     */
+    RateLimit[] value();
+}
@@ -0,0 +1,25 @@
+package com.xiaoyan.projectskeleton.common.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 需要权限注解
+ * 标记在Controller方法或类上，表示该接口需要拥有指定权限编码（通常为接口类型权限）才能访问
+ * 标记了该注解的接口隐含需要登录
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequirePermissions {
+    /**
+     * 需要的权限编码列表，对应 permission 表的 code 字段
+     */
+    String[] value();
+    
+    /**
+     * 逻辑类型
+     * 默认为AND，表示需要同时拥有所有权限才能访问
+     * 设置为OR时，表示拥有任一权限即可访问
+     */
+    RequireRoles.Logical logical() default RequireRoles.Logical.AND;
+}
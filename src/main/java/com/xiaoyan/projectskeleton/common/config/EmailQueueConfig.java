@@ -0,0 +1,49 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 邮件发送队列配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "email.queue")
+public class EmailQueueConfig {
+    
+    /**
+     * 发送线程数
+     */
+    private Integer workers = 2;
+    
+    /**
+     * 每批领取的邮件数，同一批邮件复用一个SMTP连接发送
+     */
+    private Integer batchSize = 20;
+    
+    /**
+     * 轮询间隔（毫秒），用于发送到期的重试邮件
+     */
+    private Long pollInterval = 5000L;
+    
+    /**
+     * 最大发送次数，超过后标记为发送失败
+     */
+    private Integer maxAttempts = 5;
+    
+    /**
+     * 首次重试延迟（秒），之后每次翻倍
+     */
+    private Long retryBaseDelay = 30L;
+    
+    /**
+     * 最大重试延迟（秒）
+     */
+    private Long retryMaxDelay = 1800L;
+    
+    /**
+     * 发送超时时间（秒），超过该时间仍处于发送中的邮件会被重新发送
+     */
+    private Long sendingTimeout = 600L;
+}
@@ -0,0 +1,53 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文件下载配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.download")
+public class FileDownloadConfig {
+    
+    /**
+     * 文件访问URL前缀，设置后公开前缀下对象的URL经由下载接口访问（如 http://localhost:8080/api/public/file/download），
+     * 存储桶可不再公开；为空时返回MinIO公共访问URL
+     */
+    private String urlPrefix = "";
+    
+    /**
+     * 允许免登录下载的对象前缀，其他对象只能经由需要登录的下载接口或预签名地址访问
+     */
+    private List<String> publicPrefixes = new ArrayList<>(List.of("avatars/", "public/"));
+    
+    /**
+     * 是否启用本地磁盘缓存
+     */
+    private Boolean cacheEnabled = true;
+    
+    /**
+     * 本地磁盘缓存目录，缓存文件保存在其中的 objects 子目录，启动时只清除该子目录中的缓存文件
+     */
+    private String cacheDirectory = System.getProperty("java.io.tmpdir") + "/file-download-cache";
+    
+    /**
+     * 本地磁盘缓存总大小上限（字节），超出时淘汰最久未访问的文件
+     */
+    private Long cacheMaxSize = 1024L * 1024 * 1024;
+    
+    /**
+     * 允许缓存的单个文件大小上限（字节），更大的文件直接从MinIO转发
+     */
+    private Long cacheMaxObjectSize = 16L * 1024 * 1024;
+    
+    /**
+     * 响应头 Cache-Control 的 max-age（秒），小于等于0时不设置
+     */
+    private Long cacheControlMaxAge = 86400L;
+}
@@ -0,0 +1,53 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 孤儿对象清理配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.orphan-cleanup")
+public class FileOrphanCleanupConfig {
+    
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = true;
+    
+    /**
+     * 扫描的对象前缀；只能配置其中对象全部由用户头像或文件索引引用的前缀，
+     * 分片上传、预签名直传和旧版上传的对象未登记引用，所在前缀不能配置
+     */
+    private List<String> prefixes = new ArrayList<>(List.of("avatars/"));
+    
+    /**
+     * 执行间隔（秒），所有节点合计每个间隔执行一次
+     */
+    private Long intervalSeconds = 600L;
+    
+    /**
+     * 每次执行扫描的对象数，下次从上次结束的位置继续
+     */
+    private Integer pageSize = 1000;
+    
+    /**
+     * 对象最后修改后经过该时长（秒）才可能被清理，避免删除刚上传、尚未登记引用的对象
+     */
+    private Long minAgeSeconds = 86400L;
+    
+    /**
+     * 每批删除的对象数
+     */
+    private Integer deleteBatchSize = 100;
+    
+    /**
+     * 两批删除之间的间隔（毫秒）
+     */
+    private Long deleteBatchIntervalMillis = 1000L;
+}
@@ -0,0 +1,55 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 上传准入配置类
+ * 客户端指登录用户，未登录时为客户端IP
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.upload-admission")
+public class FileUploadAdmissionConfig {
+    
+    /**
+     * 同时进行的上传请求数上限（所有客户端合计）
+     */
+    private Integer maxConcurrent = 16;
+    
+    /**
+     * 同时进行的上传请求字节数上限（所有客户端合计，按 Content-Length 计算）
+     */
+    private Long maxBytes = 512L * 1024 * 1024;
+    
+    /**
+     * 单个客户端同时进行的上传请求数上限
+     */
+    private Integer maxConcurrentPerClient = 2;
+    
+    /**
+     * 单个客户端同时进行的上传请求字节数上限
+     */
+    private Long maxBytesPerClient = 200L * 1024 * 1024;
+    
+    /**
+     * 排队等待的上传请求数上限（所有客户端合计），超出时直接拒绝
+     */
+    private Integer maxQueued = 64;
+    
+    /**
+     * 单个客户端排队等待的上传请求数上限，超出时直接拒绝
+     */
+    private Integer maxQueuedPerClient = 4;
+    
+    /**
+     * 排队等待的最长时间（毫秒），超时后拒绝
+     */
+    private Long queueTimeoutMillis = 10000L;
+    
+    /**
+     * 上传请求的超时时间（毫秒），包括排队和上传
+     */
+    private Long timeoutMillis = 600000L;
+}
@@ -0,0 +1,44 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文件上传配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.upload")
+public class FileUploadConfig {
+    
+    /**
+     * 批量上传时同时上传到MinIO的最大文件数（所有请求共享）
+     */
+    private Integer concurrency = 4;
+    
+    /**
+     * 等待上传的文件队列长度，队列已满时由请求线程自己上传
+     */
+    private Integer queueCapacity = 64;
+    
+    /**
+     * 分片上传的分片大小（字节），不小于5MB（S3限制）；文件过大时自动增大，使分片数不超过10000
+     */
+    private Long partSize = 8L * 1024 * 1024;
+    
+    /**
+     * 分片上传允许的最大文件大小（字节）
+     */
+    private Long maxFileSize = 5L * 1024 * 1024 * 1024;
+    
+    /**
+     * 分片上传会话有效期（秒），每上传一个分片重新计时
+     */
+    private Long sessionExpireSeconds = 86400L;
+
+    /**
+     * 预签名上传/下载地址有效期（秒）
+     */
+    private Long presignExpireSeconds = 900L;
+}
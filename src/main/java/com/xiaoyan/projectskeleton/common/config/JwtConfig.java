@@ -31,4 +31,14 @@ public class JwtConfig {
      * Token签发者
      */
     private String issuer = "project-skeleton";
+    
+    /**
+     * 是否启用已校验AccessToken的本地缓存
+     */
+    private Boolean tokenCacheEnabled = true;
+    
+    /**
+     * AccessToken本地缓存最大条目数
+     */
+    private Integer tokenCacheMaxSize = 10000;
 } 
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.xiaoyan.projectskeleton.common.config;
 
+import com.xiaoyan.projectskeleton.common.util.MinioMultipartClient;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -51,4 +53,15 @@ public class MinioConfig {
             throw new RuntimeException("初始化MinIO客户端失败: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 分片上传客户端，用于可续传的分片上传
+     */
+    @Bean
+    public MinioMultipartClient minioMultipartClient() {
+        return new MinioMultipartClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build());
+    }
+}
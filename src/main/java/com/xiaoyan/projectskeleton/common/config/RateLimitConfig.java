@@ -0,0 +1,35 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 限流配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+    
+    /**
+     * 是否启用限流
+     */
+    private Boolean enabled = true;
+    
+    /**
+     * 本地令牌桶容量相对于规则上限的倍数
+     * 本地令牌桶只用于在访问Redis前拦截明显的洪泛请求，容量应大于规则上限，避免多节点部署时误拦截
+     */
+    private Integer localBurstMultiplier = 2;
+    
+    /**
+     * 本地令牌桶最大数量，超出时先清理已回满的令牌桶
+     */
+    private Integer localMaxBuckets = 10000;
+    
+    /**
+     * 是否信任X-Forwarded-For请求头，仅在服务部署于可信反向代理之后时开启
+     */
+    private Boolean trustForwardedFor = false;
+}
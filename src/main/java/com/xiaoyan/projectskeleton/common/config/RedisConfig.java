@@ -5,51 +5,127 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.xiaoyan.projectskeleton.common.util.CompactRedisSerializer;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailDeliveryStatusDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedUploadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadPartDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.role.RoleDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis配置类
- * 主要配置RedisTemplate的序列化方式
+ * 主要配置RedisTemplate的序列化方式：值使用紧凑格式（CompactRedisSerializer），读取时兼容旧的JSON格式
  */
 @Configuration
 public class RedisConfig {
     
+    /**
+     * 配置Lettuce连接工厂的管道写出策略
+     * 管道中的命令在关闭管道时一次性写出，使批量命令只需一次网络写入（默认每条命令单独写出）；
+     * Spring Boot 只提供客户端配置的定制器，写出策略属于连接工厂，因此在工厂初始化前统一设置，
+     * 对所有使用该工厂的组件生效，与是否创建 RedisTemplate 无关
+     *
+     * @return 连接工厂后置处理器
+     */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
+    public static BeanPostProcessor lettucePipeliningFlushPolicyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LettuceConnectionFactory lettuceConnectionFactory) {
+                    lettuceConnectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.flushOnClose());
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory,
+                                                       RedisSerializerConfig redisSerializerConfig) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory);
 
-        // 设置objectMapper:转换java对象的时候使用
-        ObjectMapper objectMapper = new ObjectMapper();
-        // 设置所有访问权限以及所有的实际类型都可序列化和反序列化
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        // 指定序列化输入的类型，类必须是非final修饰的
-        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, 
-                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.WRAPPER_ARRAY);
-        
-        // 创建JSON序列化器
-        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = 
-                new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+
+        // 紧凑格式序列化器，读取时兼容旧的JSON格式
+        RedisSerializer<Object> valueSerializer = redisValueSerializer(redisSerializerConfig);
         
         // 创建String序列化器
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
         // 设置key/value的序列化方式
         template.setKeySerializer(stringRedisSerializer);
-        template.setValueSerializer(jackson2JsonRedisSerializer);
+        template.setValueSerializer(valueSerializer);
         
         // 设置hash key/value的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        template.setHashValueSerializer(valueSerializer);
         
         // 初始化RedisTemplate
         template.afterPropertiesSet();
         
         return template;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 创建Redis值序列化器
+     * 缓存的DTO需在此注册类型编号，编号写入缓存数据，一经使用不能修改或复用
+     *
+     * @param redisSerializerConfig 序列化配置
+     * @return 值序列化器
+     */
+    public static CompactRedisSerializer redisValueSerializer(RedisSerializerConfig redisSerializerConfig) {
+        return CompactRedisSerializer.builder(legacyJsonSerializer())
+                .writeMode(redisSerializerConfig.getWriteMode())
+                .compressThreshold(redisSerializerConfig.getCompressThreshold())
+                .register(1, UserProfileDTO.class)
+                .register(2, PermissionDTO.class)
+                .register(3, RoleDTO.class)
+                .register(4, EmailDeliveryStatusDTO.class)
+                .register(5, UploadSessionDTO.class)
+                .register(6, UploadPartDTO.class)
+                .register(7, PresignedUploadDTO.class)
+                .build();
+    }
+    
+    /**
+     * 旧格式的JSON序列化器（带默认类型信息），用于读取旧数据和写入未注册的类型
+     *
+     * @return JSON序列化器
+     */
+    private static Jackson2JsonRedisSerializer<Object> legacyJsonSerializer() {
+        // 设置objectMapper:转换java对象的时候使用
+        ObjectMapper objectMapper = new ObjectMapper();
+        // 设置所有访问权限以及所有的实际类型都可序列化和反序列化
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        // 指定序列化输入的类型，类必须是非final修饰的
+        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, 
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.WRAPPER_ARRAY);
+        
+        // 创建JSON序列化器
+        return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+    }
+    
+    /**
+     * Redis消息监听容器，用于订阅跨节点的缓存失效通知
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+}
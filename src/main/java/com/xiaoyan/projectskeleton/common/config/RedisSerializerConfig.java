@@ -0,0 +1,26 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import com.xiaoyan.projectskeleton.common.util.CompactRedisSerializer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Redis值序列化配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "redis.serializer")
+public class RedisSerializerConfig {
+    
+    /**
+     * 写入格式，读取始终兼容新旧两种格式
+     * 已有集群升级时，先以LEGACY部署全部节点，再切换为COMPACT
+     */
+    private CompactRedisSerializer.WriteMode writeMode = CompactRedisSerializer.WriteMode.COMPACT;
+    
+    /**
+     * 压缩阈值（字节），字符串和DTO达到该大小时尝试压缩，小于等于0表示不压缩
+     */
+    private Integer compressThreshold = 1024;
+}
@@ -0,0 +1,42 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 用户头像处理配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user.avatar")
+public class UserAvatarConfig {
+    
+    /**
+     * 生成的缩略图边长（像素），缩略图为正方形JPEG；修改后只影响之后上传的头像，已上传的头像仍返回其原有的缩略图
+     */
+    private List<Integer> sizes = Arrays.asList(48, 128, 512);
+    
+    /**
+     * 缩略图JPEG压缩质量，取值 (0, 1]
+     */
+    private Float quality = 0.85f;
+    
+    /**
+     * 允许的最大像素数（宽 × 高），解码前根据图片头信息检查，防止超大图片占满内存
+     */
+    private Long maxPixels = 50_000_000L;
+    
+    /**
+     * 同时处理头像的最大线程数（所有请求共享）
+     */
+    private Integer concurrency = 2;
+    
+    /**
+     * 等待处理的头像队列长度，队列已满时拒绝上传
+     */
+    private Integer queueCapacity = 32;
+}
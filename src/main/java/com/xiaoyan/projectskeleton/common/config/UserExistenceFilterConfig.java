@@ -0,0 +1,34 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户名/邮箱存在性过滤器配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user.existence-filter")
+public class UserExistenceFilterConfig {
+    
+    /**
+     * 是否启用过滤器，关闭后每次检查都查询数据库
+     */
+    private Boolean enabled = true;
+    
+    /**
+     * 预计用户数，实际用户数更多时按实际用户数的2倍分配
+     */
+    private Long expectedInsertions = 1000000L;
+    
+    /**
+     * 期望的误判率，误判时回退到数据库查询
+     */
+    private Double falsePositiveRate = 0.01;
+    
+    /**
+     * 定期从数据库重建过滤器的间隔（分钟），用于清除已删除的用户并补上漏收的注册通知，小于等于0表示不重建
+     */
+    private Long rebuildIntervalMinutes = 60L;
+}
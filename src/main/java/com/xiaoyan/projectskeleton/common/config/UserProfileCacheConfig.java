@@ -0,0 +1,34 @@
+package com.xiaoyan.projectskeleton.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户资料缓存配置类
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user.profile-cache")
+public class UserProfileCacheConfig {
+    
+    /**
+     * 是否启用用户资料缓存
+     */
+    private Boolean enabled = true;
+    
+    /**
+     * 本地缓存最大条目数
+     */
+    private Integer localMaxSize = 10000;
+    
+    /**
+     * 本地缓存有效期（秒），作为漏收失效通知时的兜底，不宜过长
+     */
+    private Long localExpireSeconds = 60L;
+    
+    /**
+     * Redis缓存有效期（秒）
+     */
+    private Long redisExpireSeconds = 1800L;
+}
@@ -1,6 +1,7 @@
 package com.xiaoyan.projectskeleton.common.config;
 
 import com.xiaoyan.projectskeleton.common.interceptor.AuthInterceptor;
+import com.xiaoyan.projectskeleton.common.interceptor.RateLimitInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -15,6 +16,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final AuthInterceptor authInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
     
     /**
      * 配置接口统一前缀
@@ -44,5 +46,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         "/api/user/password/reset",      // 验证验证码并重置密码接口
                         "/api/public/**"            // 公共接口，不需要登录即可访问
                 );
+        
+        // 添加限流拦截器，位于认证拦截器之后，以便按用户限流
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/api/**");
     }
 } 
\ No newline at end of file
@@ -26,6 +26,11 @@ public class UserContext {
      */
     private String roleCode;
     
+    /**
+     * 当前AccessToken的过期时间（毫秒时间戳）
+     */
+    private Long tokenExpireTime;
+    
     /**
      * 线程本地变量，用于存储当前登录用户信息
      */
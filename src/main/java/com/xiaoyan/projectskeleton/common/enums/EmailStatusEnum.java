@@ -0,0 +1,61 @@
+package com.xiaoyan.projectskeleton.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 邮件发送状态枚举类
+ * 对应邮件发送队列表中的发送状态
+ */
+@Getter
+public enum EmailStatusEnum {
+    
+    /**
+     * 待发送（包括等待重试）
+     */
+    PENDING(0, "待发送"),
+    
+    /**
+     * 已被发送线程领取，正在发送
+     */
+    SENDING(1, "发送中"),
+    
+    /**
+     * 已发送
+     */
+    SENT(2, "已发送"),
+    
+    /**
+     * 重试次数用尽，发送失败
+     */
+    FAILED(3, "发送失败");
+    
+    /**
+     * 状态ID
+     */
+    private final int id;
+    
+    /**
+     * 状态名称
+     */
+    private final String name;
+    
+    EmailStatusEnum(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+    
+    /**
+     * 根据ID获取枚举值
+     *
+     * @param id 状态ID
+     * @return 枚举值
+     */
+    public static EmailStatusEnum getById(int id) {
+        for (EmailStatusEnum statusEnum : values()) {
+            if (statusEnum.getId() == id) {
+                return statusEnum;
+            }
+        }
+        return null;
+    }
+}
@@ -2,6 +2,9 @@ package com.xiaoyan.projectskeleton.common.enums;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 角色枚举类
  * 对应数据库中的角色编码
@@ -29,6 +32,17 @@ public enum RoleEnum {
      */
     private final String name;
     
+    /**
+     * 角色编码到枚举值的映射，避免每次查找都遍历 values()
+     */
+    private static final Map<String, RoleEnum> CODE_MAP = new HashMap<>();
+    
+    static {
+        for (RoleEnum roleEnum : values()) {
+            CODE_MAP.put(roleEnum.getCode(), roleEnum);
+        }
+    }
+    
     /**
      * 构造方法
      *
@@ -47,11 +61,27 @@ public enum RoleEnum {
      * @return 枚举值
      */
     public static RoleEnum getByCode(String code) {
-        for (RoleEnum roleEnum : values()) {
-            if (roleEnum.getCode().equals(code)) {
-                return roleEnum;
-            }
-        }
-        return null;
+        return code == null ? null : CODE_MAP.get(code);
+    }
+    
+    /**
+     * 获取角色对应的位掩码
+     * 每个角色占用一位，用于以位运算判断角色集合
+     *
+     * @return 位掩码
+     */
+    public long getMask() {
+        return 1L << ordinal();
+    }
+    
+    /**
+     * 根据角色编码获取位掩码
+     *
+     * @param code 角色编码
+     * @return 位掩码，编码不存在时返回0
+     */
+    public static long maskOf(String code) {
+        RoleEnum roleEnum = getByCode(code);
+        return roleEnum == null ? 0L : roleEnum.getMask();
     }
 } 
\ No newline at end of file
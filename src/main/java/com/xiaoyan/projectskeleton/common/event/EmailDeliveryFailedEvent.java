@@ -0,0 +1,40 @@
+package com.xiaoyan.projectskeleton.common.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 邮件最终发送失败事件
+ * 重试次数用尽后发布，业务方可据此回滚依赖该邮件的状态
+ */
+@Getter
+public class EmailDeliveryFailedEvent extends ApplicationEvent {
+    
+    /**
+     * 发送跟踪ID
+     */
+    private final String trackingId;
+    
+    /**
+     * 业务类型
+     */
+    private final String bizType;
+    
+    /**
+     * 业务标识
+     */
+    private final String bizKey;
+    
+    /**
+     * 失败原因
+     */
+    private final String error;
+    
+    public EmailDeliveryFailedEvent(Object source, String trackingId, String bizType, String bizKey, String error) {
+        super(source);
+        this.trackingId = trackingId;
+        this.bizType = bizType;
+        this.bizKey = bizKey;
+        this.error = error;
+    }
+}
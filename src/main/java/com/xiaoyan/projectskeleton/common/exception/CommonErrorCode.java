@@ -33,6 +33,11 @@ public enum CommonErrorCode implements ErrorCode {
      */
     NOT_FOUND(404, "资源不存在"),
 
+    /**
+     * 请求过于频繁
+     */
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后再试"),
+
     /**
      * 服务器内部错误
      */
@@ -27,7 +27,12 @@ public enum EmailErrorCode implements ErrorCode {
     /**
      * 邮件配置错误
      */
-    EMAIL_CONFIG_ERROR(50004, "邮件配置错误");
+    EMAIL_CONFIG_ERROR(50004, "邮件配置错误"),
+
+    /**
+     * 邮件发送记录不存在
+     */
+    EMAIL_DELIVERY_NOT_EXISTS(50005, "邮件发送记录不存在");
 
     /**
      * 错误码
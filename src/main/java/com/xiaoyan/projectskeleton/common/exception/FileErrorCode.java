@@ -36,7 +36,27 @@ public enum FileErrorCode implements ErrorCode {
     /**
      * 文件删除失败
      */
-    FILE_DELETE_FAILED(50006, "文件删除失败");
+    FILE_DELETE_FAILED(50006, "文件删除失败"),
+
+    /**
+     * 上传会话不存在或已过期
+     */
+    UPLOAD_SESSION_NOT_EXIST(50007, "上传会话不存在或已过期"),
+
+    /**
+     * 分片序号或大小不正确
+     */
+    UPLOAD_PART_INVALID(50008, "分片序号或大小不正确"),
+
+    /**
+     * 分片未全部上传
+     */
+    UPLOAD_PARTS_INCOMPLETE(50009, "分片未全部上传"),
+
+    /**
+     * 上传的文件大小与声明不一致
+     */
+    UPLOAD_SIZE_MISMATCH(50010, "上传的文件大小与声明不一致");
 
     private final Integer code;
     private final String message;
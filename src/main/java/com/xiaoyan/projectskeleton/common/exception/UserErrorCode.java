@@ -102,7 +102,12 @@ public enum UserErrorCode implements ErrorCode {
     /**
      * 头像格式不支持
      */
-    AVATAR_FORMAT_NOT_SUPPORTED(10019, "头像格式不支持，请上传图片文件");
+    AVATAR_FORMAT_NOT_SUPPORTED(10019, "头像格式不支持，请上传图片文件"),
+    
+    /**
+     * 头像图片尺寸过大
+     */
+    AVATAR_IMAGE_TOO_LARGE(10020, "头像图片尺寸过大");
 
     /**
      * 错误码
@@ -1,12 +1,12 @@
 package com.xiaoyan.projectskeleton.common.interceptor;
 
-import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
-import com.xiaoyan.projectskeleton.common.annotation.RequireRoles;
 import com.xiaoyan.projectskeleton.common.context.UserContext;
-import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
 import com.xiaoyan.projectskeleton.common.exception.BusinessException;
 import com.xiaoyan.projectskeleton.common.exception.CommonErrorCode;
+import com.xiaoyan.projectskeleton.common.util.AccessTokenCache;
 import com.xiaoyan.projectskeleton.common.util.JwtUtils;
+import com.xiaoyan.projectskeleton.service.permission.PermissionSnapshotService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -14,21 +14,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
-
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 /**
  * 认证拦截器
- * 用于处理Token和注解
+ * 用于处理Token和注解，注解信息由 EndpointSecurityRegistry 在启动时预先解析
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class AuthInterceptor implements HandlerInterceptor {
+public class AuthInterceptor implements AsyncHandlerInterceptor {
 
     private final JwtUtils jwtUtils;
+    private final AccessTokenCache accessTokenCache;
+    private final EndpointSecurityRegistry securityRegistry;
+    private final PermissionSnapshotService permissionSnapshotService;
     
     /**
      * 请求头中的Token字段名
@@ -47,83 +47,46 @@ public class AuthInterceptor implements HandlerInterceptor {
             return true;
         }
         
-        HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
+        // 异步处理完成后的再次分派只写出结果，首次分派时已认证；长时间上传期间Token可能已过期
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        
+        // 获取启动时预先计算的接口安全描述
+        EndpointSecurityDescriptor descriptor = securityRegistry.get((HandlerMethod) handler);
         
         // 尝试获取Token
         String token = getTokenFromRequest(request);
         
-        // 检查方法上是否有@RequireLogin注解
-        RequireLogin methodLogin = method.getAnnotation(RequireLogin.class);
-        // 检查类上是否有@RequireLogin注解
-        RequireLogin classLogin = handlerMethod.getBeanType().getAnnotation(RequireLogin.class);
-        
-        // 判断是否需要登录
-        boolean requireLogin = (methodLogin != null && methodLogin.value()) || 
-                              (classLogin != null && classLogin.value() && methodLogin == null);
-        
-        if (requireLogin) {
+        if (descriptor.isRequireLogin()) {
             // 需要登录但没有Token
             if (!StringUtils.hasText(token)) {
                 throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "请先登录");
             }
             
-            // 验证Token
-            if (!jwtUtils.validateAccessToken(token)) {
-                throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "Token已过期或无效");
-            }
-            
-            // 解析Token，获取用户信息
-            Long userId = jwtUtils.getUserIdFromAccessToken(token);
-            String username = jwtUtils.getUsernameFromAccessToken(token);
-            String roleCode = jwtUtils.getRoleFromAccessToken(token);
-            
-            // 设置用户上下文
-            UserContext userContext = new UserContext()
-                    .setUserId(userId)
-                    .setUsername(username)
-                    .setRoleCode(roleCode);
+            // 验证并解析Token（优先命中缓存，未命中时仅一次签名校验），设置用户上下文
+            UserContext userContext = resolveUserContext(token);
             UserContext.setCurrentUser(userContext);
             
-            // 检查方法上是否有@RequireRoles注解
-            RequireRoles methodRoles = method.getAnnotation(RequireRoles.class);
-            // 检查类上是否有@RequireRoles注解
-            RequireRoles classRoles = handlerMethod.getBeanType().getAnnotation(RequireRoles.class);
-            
-            // 获取角色要求
-            RequireRoles requireRoles = methodRoles != null ? methodRoles : classRoles;
+            // 验证角色
+            if (!descriptor.isRoleAllowed(userContext.getRoleCode())) {
+                throw new BusinessException(CommonErrorCode.FORBIDDEN, "权限不足");
+            }
             
-            // 如果有角色要求，则验证角色
-            if (requireRoles != null && requireRoles.value().length > 0) {
-                boolean hasRole = false;
-                
-                if (requireRoles.logical() == RequireRoles.Logical.OR) {
-                    // 满足任一角色即可
-                    hasRole = Arrays.stream(requireRoles.value())
-                            .anyMatch(role -> role.getCode().equals(roleCode));
-                } else {
-                    // 必须满足所有角色（实际上多角色AND逻辑很少用到）
-                    hasRole = Arrays.stream(requireRoles.value())
-                            .allMatch(role -> role.getCode().equals(roleCode));
-                }
-                
-                if (!hasRole) {
-                    throw new BusinessException(CommonErrorCode.FORBIDDEN, "权限不足");
-                }
+            // 验证权限编码（基于内存中的角色权限快照，不访问数据库）
+            if (descriptor.hasPermissionRequirement() && !permissionSnapshotService.hasPermissions(
+                    userContext.getRoleCode(), descriptor.getPermissionCodes(), descriptor.isRequireAllPermissions())) {
+                throw new BusinessException(CommonErrorCode.FORBIDDEN, "权限不足");
             }
         } else {
             // 不需要登录，但如果有Token，也尝试解析
-            if (StringUtils.hasText(token) && jwtUtils.validateAccessToken(token)) {
-                Long userId = jwtUtils.getUserIdFromAccessToken(token);
-                String username = jwtUtils.getUsernameFromAccessToken(token);
-                String roleCode = jwtUtils.getRoleFromAccessToken(token);
-                
-                // 设置用户上下文
-                UserContext userContext = new UserContext()
-                        .setUserId(userId)
-                        .setUsername(username)
-                        .setRoleCode(roleCode);
-                UserContext.setCurrentUser(userContext);
+            if (StringUtils.hasText(token)) {
+                try {
+                    UserContext.setCurrentUser(resolveUserContext(token));
+                } catch (BusinessException e) {
+                    // 可选登录的接口中，无效Token按匿名访问处理
+                    log.debug("可选Token解析失败: {}", e.getMessage());
+                }
             }
         }
         
@@ -135,6 +98,28 @@ public class AuthInterceptor implements HandlerInterceptor {
         // 清除用户上下文
         UserContext.clear();
     }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 开始异步处理时不会调用 afterCompletion，请求线程归还前同样清除用户上下文
+        UserContext.clear();
+    }
+    
+    /**
+     * 解析AccessToken对应的用户上下文
+     * 先查询已校验Token缓存，未命中时再进行签名校验并写入缓存
+     *
+     * @param token AccessToken
+     * @return 用户上下文
+     */
+    private UserContext resolveUserContext(String token) {
+        UserContext userContext = accessTokenCache.get(token);
+        if (userContext == null) {
+            userContext = jwtUtils.verifyAccessToken(token);
+            accessTokenCache.put(token, userContext);
+        }
+        return userContext;
+    }
     
     /**
      * 从请求头中获取Token
@@ -0,0 +1,126 @@
+package com.xiaoyan.projectskeleton.common.interceptor;
+
+import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
+import com.xiaoyan.projectskeleton.common.annotation.RequirePermissions;
+import com.xiaoyan.projectskeleton.common.annotation.RequireRoles;
+import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
+import lombok.Getter;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+
+/**
+ * 接口安全描述
+ * 启动时根据 @RequireLogin、@RequireRoles、@RequirePermissions 注解预先计算，运行期不可变，
+ * 请求时只需一次位运算即可完成角色判断。
+ */
+@Getter
+public final class EndpointSecurityDescriptor {
+
+    /**
+     * 是否需要登录
+     */
+    private final boolean requireLogin;
+
+    /**
+     * 允许访问的角色位掩码，0表示不限制角色
+     */
+    private final long roleMask;
+
+    /**
+     * 是否要求同时满足所有角色
+     */
+    private final boolean requireAllRoles;
+
+    /**
+     * 需要的权限编码，空数组表示不限制权限
+     */
+    private final String[] permissionCodes;
+
+    /**
+     * 是否要求同时拥有所有权限
+     */
+    private final boolean requireAllPermissions;
+
+    private EndpointSecurityDescriptor(boolean requireLogin, long roleMask, boolean requireAllRoles,
+                                       String[] permissionCodes, boolean requireAllPermissions) {
+        this.requireLogin = requireLogin;
+        this.roleMask = roleMask;
+        this.requireAllRoles = requireAllRoles;
+        this.permissionCodes = permissionCodes;
+        this.requireAllPermissions = requireAllPermissions;
+    }
+
+    /**
+     * 根据处理器方法上的注解构建安全描述
+     * 方法上的注解优先于类上的注解
+     *
+     * @param handlerMethod 处理器方法
+     * @return 安全描述
+     */
+    public static EndpointSecurityDescriptor of(HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        Class<?> beanType = handlerMethod.getBeanType();
+
+        // 判断是否需要登录
+        RequireLogin methodLogin = method.getAnnotation(RequireLogin.class);
+        RequireLogin classLogin = beanType.getAnnotation(RequireLogin.class);
+        boolean requireLogin = (methodLogin != null && methodLogin.value()) ||
+                (classLogin != null && classLogin.value() && methodLogin == null);
+
+        // 计算角色要求
+        RequireRoles methodRoles = method.getAnnotation(RequireRoles.class);
+        RequireRoles requireRoles = methodRoles != null ? methodRoles : beanType.getAnnotation(RequireRoles.class);
+        long roleMask = 0L;
+        boolean requireAllRoles = false;
+        if (requireRoles != null) {
+            for (RoleEnum role : requireRoles.value()) {
+                roleMask |= role.getMask();
+            }
+            requireAllRoles = requireRoles.logical() == RequireRoles.Logical.AND;
+        }
+
+        // 计算权限要求，声明了权限要求的接口隐含需要登录
+        RequirePermissions methodPermissions = method.getAnnotation(RequirePermissions.class);
+        RequirePermissions requirePermissions = methodPermissions != null ?
+                methodPermissions : beanType.getAnnotation(RequirePermissions.class);
+        String[] permissionCodes = new String[0];
+        boolean requireAllPermissions = true;
+        if (requirePermissions != null && requirePermissions.value().length > 0) {
+            permissionCodes = requirePermissions.value().clone();
+            requireAllPermissions = requirePermissions.logical() == RequireRoles.Logical.AND;
+            requireLogin = true;
+        }
+
+        return new EndpointSecurityDescriptor(requireLogin, roleMask, requireAllRoles,
+                permissionCodes, requireAllPermissions);
+    }
+
+    /**
+     * 是否声明了权限要求
+     *
+     * @return 是否需要校验权限
+     */
+    public boolean hasPermissionRequirement() {
+        return permissionCodes.length > 0;
+    }
+
+    /**
+     * 判断角色是否满足要求
+     *
+     * @param roleCode 当前用户角色编码
+     * @return 是否满足
+     */
+    public boolean isRoleAllowed(String roleCode) {
+        if (roleMask == 0L) {
+            return true;
+        }
+        long userMask = RoleEnum.maskOf(roleCode);
+        if (requireAllRoles) {
+            // 必须满足所有角色（用户只有一个角色，因此只有要求恰好为该角色时才满足）
+            return userMask != 0L && (roleMask & ~userMask) == 0L;
+        }
+        // 满足任一角色即可
+        return (roleMask & userMask) != 0L;
+    }
+}
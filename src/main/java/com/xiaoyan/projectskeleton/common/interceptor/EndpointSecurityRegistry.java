@@ -0,0 +1,60 @@
+package com.xiaoyan.projectskeleton.common.interceptor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口安全描述注册表
+ * 应用启动完成后扫描所有 RequestMappingHandlerMapping 中的处理器方法，
+ * 为每个接口预先计算安全描述，请求时只需一次Map查找，不再进行反射注解读取。
+ */
+@Slf4j
+@Component
+public class EndpointSecurityRegistry {
+
+    /**
+     * 处理器方法 -> 安全描述
+     */
+    private final Map<Method, EndpointSecurityDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * 容器刷新完成后扫描全部接口
+     *
+     * @param event 容器刷新事件
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        Map<String, RequestMappingHandlerMapping> mappings =
+                event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class);
+        for (RequestMappingHandlerMapping mapping : mappings.values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                descriptors.put(handlerMethod.getMethod(), EndpointSecurityDescriptor.of(handlerMethod));
+            }
+        }
+        log.info("接口安全描述注册完成，共 {} 个接口", descriptors.size());
+    }
+
+    /**
+     * 获取处理器方法对应的安全描述
+     * 未在启动时注册的处理器方法（如运行期动态注册的接口）会在首次访问时计算并缓存
+     *
+     * @param handlerMethod 处理器方法
+     * @return 安全描述
+     */
+    public EndpointSecurityDescriptor get(HandlerMethod handlerMethod) {
+        EndpointSecurityDescriptor descriptor = descriptors.get(handlerMethod.getMethod());
+        if (descriptor == null) {
+            descriptor = descriptors.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> EndpointSecurityDescriptor.of(handlerMethod));
+        }
+        return descriptor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.xiaoyan.projectskeleton.common.interceptor;
+
+import com.xiaoyan.projectskeleton.common.annotation.RateLimit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * 请求体限流处理
+ * 处理 @RateLimit 中按请求体属性限流的规则，在请求体反序列化完成后、参数校验之前执行
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class RateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        Method method = methodParameter.getMethod();
+        if (method == null) {
+            return false;
+        }
+        for (RateLimit rule : rateLimitInterceptor.getRules(method)) {
+            if (rule.key() == RateLimit.KeyType.BODY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Method method = parameter.getMethod();
+        for (RateLimit rule : rateLimitInterceptor.getRules(method)) {
+            if (rule.key() == RateLimit.KeyType.BODY) {
+                Object value = PropertyAccessorFactory.forBeanPropertyAccess(body).getPropertyValue(rule.param());
+                rateLimitInterceptor.check(method, rule, value != null ? value.toString() : null);
+            }
+        }
+        return body;
+    }
+}
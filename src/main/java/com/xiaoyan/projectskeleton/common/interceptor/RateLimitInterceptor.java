@@ -0,0 +1,98 @@
+package com.xiaoyan.projectskeleton.common.interceptor;
+
+import com.xiaoyan.projectskeleton.common.annotation.RateLimit;
+import com.xiaoyan.projectskeleton.common.config.RateLimitConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.CommonErrorCode;
+import com.xiaoyan.projectskeleton.common.util.IpUtils;
+import com.xiaoyan.projectskeleton.common.util.RateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 限流拦截器
+ * 处理 @RateLimit 中按IP、用户、请求参数限流的规则；按请求体属性限流的规则在请求体读取后由 RateLimitBodyAdvice 处理
+ * 需注册在认证拦截器之后，以便按用户限流时能获取到当前用户
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitConfig rateLimitConfig;
+
+    /**
+     * 处理器方法 -> 限流规则，首次访问时解析注解并缓存
+     */
+    private final Map<Method, RateLimit[]> rules = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步处理完成后的再次分派已在首次分派时计数
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Method method = ((HandlerMethod) handler).getMethod();
+        for (RateLimit rule : getRules(method)) {
+            switch (rule.key()) {
+                case IP:
+                    check(method, rule, IpUtils.getClientIp(request, rateLimitConfig.getTrustForwardedFor()));
+                    break;
+                case USER:
+                    UserContext userContext = UserContext.getCurrentUser();
+                    check(method, rule, userContext != null ?
+                            "u" + userContext.getUserId() : IpUtils.getClientIp(request, rateLimitConfig.getTrustForwardedFor()));
+                    break;
+                case PARAM:
+                    check(method, rule, request.getParameter(rule.param()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取方法上声明的限流规则
+     *
+     * @param method 处理器方法
+     * @return 限流规则，未声明时为空数组
+     */
+    public RateLimit[] getRules(Method method) {
+        return rules.computeIfAbsent(method, m -> m.getAnnotationsByType(RateLimit.class));
+    }
+
+    /**
+     * 按规则校验一次请求，超出限制时抛出异常
+     * 维度值为空时不计数，由参数校验拦截
+     *
+     * @param method 处理器方法
+     * @param rule   限流规则
+     * @param value  维度值
+     */
+    public void check(Method method, RateLimit rule, String value) {
+        if (!StringUtils.hasText(value)) {
+            return;
+        }
+        String name = StringUtils.hasText(rule.name()) ? rule.name() :
+                method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        String key = name + ":" + rule.key().name().toLowerCase(Locale.ROOT) + ":" +
+                value.trim().toLowerCase(Locale.ROOT);
+        if (!rateLimiter.tryAcquire(key, rule.limit(), rule.window() * 1000)) {
+            throw new BusinessException(CommonErrorCode.TOO_MANY_REQUESTS, rule.message());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import com.xiaoyan.projectskeleton.common.config.JwtConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已校验AccessToken本地缓存
+ * 客户端在Token过期前会反复携带同一个AccessToken，缓存其校验结果后，
+ * 命中时可跳过签名校验、Base64解码和JSON解析。
+ *
+ * 1. 以Token的SHA-256摘要为键，避免在内存中保存原始Token
+ * 2. 条目在Token的exp时间点失效，不会延长Token的有效期
+ * 3. 条目数有上限，超出时先清理过期条目，仍超出则随机淘汰一部分
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccessTokenCache {
+
+    private final JwtConfig jwtConfig;
+
+    /**
+     * 摘要 -> 缓存条目
+     */
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 命中次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 未命中次数
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 每个线程复用一个摘要实例
+     */
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+
+    /**
+     * 获取已校验的用户上下文
+     *
+     * @param token AccessToken
+     * @return 用户上下文副本，未命中或已过期时返回null
+     */
+    public UserContext get(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (entry.expireTime <= System.currentTimeMillis()) {
+            cache.remove(key, entry);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        // 返回副本，避免请求之间共享可变对象
+        return copyOf(entry.userContext);
+    }
+
+    /**
+     * 缓存已校验的用户上下文
+     *
+     * @param token       AccessToken
+     * @param userContext 校验通过后解析出的用户上下文，需包含Token过期时间
+     */
+    public void put(String token, UserContext userContext) {
+        if (!isEnabled() || userContext.getTokenExpireTime() == null
+                || userContext.getTokenExpireTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (cache.size() >= jwtConfig.getTokenCacheMaxSize()) {
+            evict();
+        }
+        cache.put(digest(token), new Entry(copyOf(userContext), userContext.getTokenExpireTime()));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取当前缓存条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 淘汰缓存条目
+     * 先清理已过期的条目，若仍达到上限，再淘汰约十分之一的条目
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(entry -> entry.expireTime <= now);
+        int maxSize = jwtConfig.getTokenCacheMaxSize();
+        if (cache.size() < maxSize) {
+            return;
+        }
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<String, Entry>> iterator = cache.entrySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        log.debug("AccessToken缓存达到上限 {}，已淘汰部分条目", maxSize);
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(jwtConfig.getTokenCacheEnabled()) && jwtConfig.getTokenCacheMaxSize() > 0;
+    }
+
+    private static UserContext copyOf(UserContext userContext) {
+        return new UserContext()
+                .setUserId(userContext.getUserId())
+                .setUsername(userContext.getUsername())
+                .setRoleCode(userContext.getRoleCode())
+                .setTokenExpireTime(userContext.getTokenExpireTime());
+    }
+
+    private String digest(String token) {
+        byte[] hash = DIGEST.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        private final UserContext userContext;
+        private final long expireTime;
+
+        private Entry(UserContext userContext, long expireTime) {
+            this.userContext = userContext;
+            this.expireTime = expireTime;
+        }
+    }
+}
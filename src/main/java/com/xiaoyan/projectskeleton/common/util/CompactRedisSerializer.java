@@ -0,0 +1,370 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 紧凑格式的Redis值序列化器
+ * 替代带默认类型信息的Jackson序列化，缓存值不再携带完整类名和JSON类型包装：
+ * 1. 字符串、布尔、byte[]使用1字节标记 + 原始内容
+ * 2. 整数直接写为十进制文本，与INCR/DECR兼容
+ * 3. 注册过的DTO使用 标记 + 类型编号 + 不带类型信息的JSON
+ * 4. 字符串和DTO超过阈值时使用Deflate压缩，压缩后不更小则保留原文
+ * 5. 其他类型（浮点数、集合、Map、未注册的对象）仍使用旧格式，浮点数在旧格式中本就是不带类型信息的数字文本
+ *
+ * 读取时同时兼容两种格式：紧凑格式以 0xC1 开头（该字节不会出现在UTF-8文本中，因此不会与JSON混淆），
+ * 其余数据按旧格式解析。写入格式由 WriteMode 决定，灰度迁移时先以 LEGACY 模式部署全部节点，
+ * 再切换为 COMPACT，避免旧节点读到无法识别的新格式。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 紧凑格式的首字节
+     */
+    static final byte MAGIC = (byte) 0xC1;
+
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_FALSE = 3;
+    private static final byte TAG_BYTES = 4;
+    private static final byte TAG_OBJECT = 5;
+
+    /**
+     * 标记字节的最高位表示内容已压缩
+     */
+    private static final int FLAG_COMPRESSED = 0x80;
+
+    /**
+     * 写入格式
+     */
+    public enum WriteMode {
+        /**
+         * 全部使用旧格式写入，用于迁移的第一阶段
+         */
+        LEGACY,
+        /**
+         * 使用紧凑格式写入
+         */
+        COMPACT
+    }
+
+    private final RedisSerializer<Object> legacySerializer;
+    private final WriteMode writeMode;
+    private final int compressThreshold;
+    private final Map<Class<?>, Integer> typeIds;
+    private final Map<Integer, Class<?>> typesById;
+    private final ObjectMapper objectMapper;
+
+    private CompactRedisSerializer(Builder builder) {
+        this.legacySerializer = builder.legacySerializer;
+        this.writeMode = builder.writeMode;
+        this.compressThreshold = builder.compressThreshold;
+        this.typeIds = Map.copyOf(builder.typeIds);
+        Map<Integer, Class<?>> byId = new HashMap<>();
+        builder.typeIds.forEach((type, id) -> byId.put(id, type));
+        this.typesById = Map.copyOf(byId);
+
+        // DTO内容不带类型信息，只按字段读写；忽略未知字段，新节点增加字段后旧节点仍可读取
+        this.objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * 创建构建器
+     *
+     * @param legacySerializer 旧格式序列化器，用于读取旧数据和写入不支持的类型
+     * @return 构建器
+     */
+    public static Builder builder(RedisSerializer<Object> legacySerializer) {
+        return new Builder(legacySerializer);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || writeMode == WriteMode.LEGACY) {
+            return legacySerializer.serialize(value);
+        }
+        if (value instanceof String) {
+            return withTag(TAG_STRING, ((String) value).getBytes(StandardCharsets.UTF_8), true);
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            // 十进制文本：旧格式同样按数字解析，且可直接被INCR/DECR操作
+            return Long.toString(((Number) value).longValue()).getBytes(StandardCharsets.US_ASCII);
+        }
+        if (value instanceof Boolean) {
+            return new byte[]{MAGIC, (Boolean) value ? TAG_TRUE : TAG_FALSE};
+        }
+        if (value instanceof byte[]) {
+            return withTag(TAG_BYTES, (byte[]) value, true);
+        }
+        Integer typeId = typeIds.get(value.getClass());
+        if (typeId != null) {
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+                writeVarInt(out, typeId);
+                objectMapper.writeValue(out, value);
+                return withTag(TAG_OBJECT, out.toByteArray(), true);
+            } catch (IOException e) {
+                throw new SerializationException("序列化缓存对象失败：" + value.getClass().getName(), e);
+            }
+        }
+        return legacySerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            Object number = parseInteger(bytes);
+            return number != null ? number : legacySerializer.deserialize(bytes);
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("紧凑格式数据不完整");
+        }
+        int tag = bytes[1] & 0xFF;
+        byte[] body = (tag & FLAG_COMPRESSED) != 0 ? inflate(bytes) : null;
+        int offset = body != null ? 0 : 2;
+        if (body == null) {
+            body = bytes;
+        }
+        int length = body.length - offset;
+        switch (tag & ~FLAG_COMPRESSED) {
+            case TAG_STRING:
+                return new String(body, offset, length, StandardCharsets.UTF_8);
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_BYTES:
+                byte[] copy = new byte[length];
+                System.arraycopy(body, offset, copy, 0, length);
+                return copy;
+            case TAG_OBJECT:
+                return readObject(body, offset);
+            default:
+                throw new SerializationException("未知的紧凑格式标记：" + tag);
+        }
+    }
+
+    private Object readObject(byte[] body, int offset) {
+        int typeId = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = body[offset++];
+            typeId |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        Class<?> type = typesById.get(typeId);
+        if (type == null) {
+            throw new SerializationException("未注册的缓存类型编号：" + typeId);
+        }
+        try {
+            return objectMapper.readValue(body, offset, body.length - offset, type);
+        } catch (IOException e) {
+            throw new SerializationException("反序列化缓存对象失败：" + type.getName(), e);
+        }
+    }
+
+    /**
+     * 写入标记和内容，内容超过阈值时尝试压缩
+     * 压缩格式：MAGIC、标记|压缩位、原始长度（变长整数）、压缩内容
+     */
+    private byte[] withTag(byte tag, byte[] content, boolean compressible) {
+        if (compressible && compressThreshold > 0 && content.length >= compressThreshold) {
+            byte[] compressed = deflate(content);
+            if (compressed != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length + 8);
+                out.write(MAGIC);
+                out.write(tag | FLAG_COMPRESSED);
+                writeVarInt(out, content.length);
+                out.write(compressed, 0, compressed.length);
+                return out.toByteArray();
+            }
+        }
+        byte[] result = new byte[content.length + 2];
+        result[0] = MAGIC;
+        result[1] = tag;
+        System.arraycopy(content, 0, result, 2, content.length);
+        return result;
+    }
+
+    /**
+     * 压缩内容，压缩后不小于原文的90%时返回null
+     */
+    private static byte[] deflate(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[content.length * 9 / 10];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        int offset = 2;
+        int originalLength = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[offset++];
+            originalLength |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] result = new byte[originalLength];
+            int length = 0;
+            while (length < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(result, length, originalLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != originalLength) {
+                throw new SerializationException("压缩数据不完整");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("解压缓存数据失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 整数快速解析
+     * 十进制整数文本（紧凑格式写入的整数或INCR产生的值）无需经过JSON解析，返回类型与旧格式一致：
+     * int范围内为Integer，否则为Long；超出long范围时返回null，交给旧格式解析
+     */
+    static Object parseInteger(byte[] bytes) {
+        int length = bytes.length;
+        if (length > 20) {
+            return null;
+        }
+        int start = bytes[0] == '-' ? 1 : 0;
+        if (start == length || (bytes[start] == '0' && length - start > 1)) {
+            return null;
+        }
+        // 按负数累加，long的最小值也能解析
+        long value = 0;
+        try {
+            for (int i = start; i < length; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return null;
+                }
+                value = Math.subtractExact(Math.multiplyExact(value, 10), digit);
+            }
+            if (start == 0) {
+                value = Math.negateExact(value);
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * 紧凑格式序列化器构建器
+     */
+    public static final class Builder {
+        private final RedisSerializer<Object> legacySerializer;
+        private WriteMode writeMode = WriteMode.COMPACT;
+        private int compressThreshold = 1024;
+        private final Map<Class<?>, Integer> typeIds = new HashMap<>();
+
+        private Builder(RedisSerializer<Object> legacySerializer) {
+            this.legacySerializer = legacySerializer;
+        }
+
+        /**
+         * 设置写入格式
+         *
+         * @param writeMode 写入格式
+         * @return 构建器
+         */
+        public Builder writeMode(WriteMode writeMode) {
+            this.writeMode = writeMode;
+            return this;
+        }
+
+        /**
+         * 设置压缩阈值
+         *
+         * @param compressThreshold 内容达到该字节数时尝试压缩，小于等于0表示不压缩
+         * @return 构建器
+         */
+        public Builder compressThreshold(int compressThreshold) {
+            this.compressThreshold = compressThreshold;
+            return this;
+        }
+
+        /**
+         * 注册DTO类型
+         * 类型编号会写入缓存数据，一经使用不能修改或分配给其他类型
+         *
+         * @param typeId 类型编号，必须为正数
+         * @param type   DTO类型
+         * @return 构建器
+         */
+        public Builder register(int typeId, Class<?> type) {
+            if (typeId <= 0) {
+                throw new IllegalArgumentException("类型编号必须为正数：" + typeId);
+            }
+            if (typeIds.containsValue(typeId) || typeIds.containsKey(type)) {
+                throw new IllegalArgumentException("类型编号或类型重复注册：" + typeId + " " + type.getName());
+            }
+            typeIds.put(type, typeId);
+            return this;
+        }
+
+        public CompactRedisSerializer build() {
+            return new CompactRedisSerializer(this);
+        }
+    }
+}
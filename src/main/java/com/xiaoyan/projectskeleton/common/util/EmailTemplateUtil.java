@@ -1,63 +1,152 @@
 package com.xiaoyan.projectskeleton.common.util;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.StringUtils;
 
 /**
  * 邮件模板工具类
  * 提供常用HTML邮件模板
+ *
+ * 所有模板在类加载时预编译为 {@link HtmlTemplate}，渲染时不再重复拼接页面框架和样式；
+ * 用户名、原因、验证码等参数均经过HTML转义，正文等HTML片段参数按原样写出。
  */
 public class EmailTemplateUtil {
     
+    /**
+     * 页面框架模板
+     */
+    private static final HtmlTemplate LAYOUT = HtmlTemplate.compile(
+            "<!DOCTYPE html>"
+            + "<html>"
+            + "<head>"
+            + "<meta charset=\"UTF-8\">"
+            + "<title>${title}</title>"
+            + "<style>"
+            + "body { font-family: Arial, sans-serif; margin: 0; padding: 20px; color: #333; }"
+            + ".container { max-width: 600px; margin: 0 auto; background-color: #fff; border: 1px solid #e4e4e4; border-radius: 5px; padding: 20px; }"
+            + ".header { text-align: center; padding: 10px; border-bottom: 1px solid #e4e4e4; margin-bottom: 20px; }"
+            + ".content { line-height: 1.6; }"
+            + ".footer { text-align: center; padding-top: 20px; border-top: 1px solid #e4e4e4; margin-top: 20px; font-size: 12px; color: #777; }"
+            + "</style>"
+            + "</head>"
+            + "<body>"
+            + "<div class=\"container\">"
+            + "<div class=\"header\"><h2>${title}</h2></div>"
+            + "<div class=\"content\">${raw:content}</div>"
+            + "<div class=\"footer\">${footer}</div>"
+            + "</div>"
+            + "</body>"
+            + "</html>",
+            "title", "content", "footer");
+    
+    /**
+     * 通知正文模板
+     */
+    private static final HtmlTemplate NOTIFICATION = HtmlTemplate.compile(
+            "<p>尊敬的用户：</p>"
+            + "<p>${message}</p>"
+            + "<p>此致，<br/>系统团队</p>",
+            "message");
+    
+    /**
+     * 验证码正文模板
+     */
+    private static final HtmlTemplate VERIFICATION_CODE = HtmlTemplate.compile(
+            "<p>尊敬的用户：</p>"
+            + "<p>您的验证码为：</p>"
+            + "<p style=\"font-size: 24px; font-weight: bold; color: #333; text-align: center; padding: 15px; background-color: #f7f7f7; border-radius: 5px; letter-spacing: 5px;\">"
+            + "${code}"
+            + "</p>"
+            + "<p>验证码有效期为${validTime}，请勿将验证码泄露给他人。</p>"
+            + "<p>如非本人操作，请忽略此邮件。</p>",
+            "code", "validTime");
+    
+    /**
+     * 带按钮的正文模板
+     */
+    private static final HtmlTemplate BUTTON = HtmlTemplate.compile(
+            "${raw:content}"
+            + "<div style=\"text-align: center; margin: 30px 0;\">"
+            + "<a href=\"${url:buttonUrl}\" style=\"display: inline-block; padding: 10px 20px; background-color: #007bff; color: #fff; text-decoration: none; border-radius: 4px; font-weight: bold;\">"
+            + "${buttonText}"
+            + "</a>"
+            + "</div>",
+            "content", "buttonUrl", "buttonText");
+    
+    /**
+     * 封禁通知正文模板
+     */
+    private static final HtmlTemplate BAN_NOTIFICATION = HtmlTemplate.compile(
+            "<p>尊敬的 <strong>${username}</strong>：</p>"
+            + "<p>很遗憾地通知您，您的账号已被封禁。</p>"
+            + "<div style=\"margin: 20px 0; padding: 15px; background-color: #f8f9fa; border-left: 4px solid #dc3545; border-radius: 3px;\">"
+            + "<p><strong>封禁原因：</strong></p>"
+            + "<p>${reason}</p>"
+            + "</div>"
+            + "<p>如果您对此有任何疑问，或认为这是一个错误，请联系我们的客服团队。</p>"
+            + "${raw:contact}"
+            + "<p>此致，<br/>系统管理团队</p>",
+            "username", "reason", "contact");
+    
+    /**
+     * 封禁通知中的联系邮箱片段
+     */
+    private static final HtmlTemplate CONTACT_EMAIL = HtmlTemplate.compile(
+            "<p>联系邮箱：<a href=\"mailto:${attr:email}\">${email}</a></p>",
+            "email");
+    
+    /**
+     * 修改密码验证码正文模板
+     */
+    private static final HtmlTemplate PASSWORD_RESET_CODE = HtmlTemplate.compile(
+            "<p>尊敬的 <strong>${username}</strong>：</p>"
+            + "<p>您正在进行密码修改操作，请使用以下验证码完成验证：</p>"
+            + "<p style=\"font-size: 24px; font-weight: bold; color: #333; text-align: center; padding: 15px; background-color: #f7f7f7; border-radius: 5px; letter-spacing: 5px;\">"
+            + "${code}"
+            + "</p>"
+            + "<p>验证码有效期为<strong>${validTime}</strong>，请勿将验证码泄露给他人。</p>"
+            + "<p>如非本人操作，请立即修改密码或联系客服。</p>"
+            + "<div style=\"margin: 20px 0; padding: 15px; background-color: #f8f9fa; border-left: 4px solid #ffc107; border-radius: 3px;\">"
+            + "<p><strong>安全提示：</strong></p>"
+            + "<p>1. 请勿将验证码告知他人，包括自称客服人员。</p>"
+            + "<p>2. 系统不会要求您提供任何个人敏感信息。</p>"
+            + "<p>3. 建议定期修改密码并使用复杂密码。</p>"
+            + "</div>",
+            "username", "code", "validTime");
+    
+    /**
+     * processTemplate 编译结果缓存的最大条目数
+     */
+    private static final int MAX_CACHED_TEMPLATES = 256;
+    
+    /**
+     * processTemplate 编译结果缓存
+     */
+    private static final Map<String, HtmlTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+    
     /**
      * 生成一个简单的HTML邮件模板
      * 
-     * @param title    标题
-     * @param content  正文内容
-     * @param footer   页脚
+     * @param title    标题（纯文本，会被转义）
+     * @param content  正文内容（HTML片段，原样写出）
+     * @param footer   页脚（纯文本，会被转义）
      * @return HTML字符串
      */
     public static String getSimpleTemplate(String title, String content, String footer) {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>")
-            .append("<html>")
-            .append("<head>")
-            .append("<meta charset=\"UTF-8\">")
-            .append("<title>").append(title).append("</title>")
-            .append("<style>")
-            .append("body { font-family: Arial, sans-serif; margin: 0; padding: 20px; color: #333; }")
-            .append(".container { max-width: 600px; margin: 0 auto; background-color: #fff; border: 1px solid #e4e4e4; border-radius: 5px; padding: 20px; }")
-            .append(".header { text-align: center; padding: 10px; border-bottom: 1px solid #e4e4e4; margin-bottom: 20px; }")
-            .append(".content { line-height: 1.6; }")
-            .append(".footer { text-align: center; padding-top: 20px; border-top: 1px solid #e4e4e4; margin-top: 20px; font-size: 12px; color: #777; }")
-            .append("</style>")
-            .append("</head>")
-            .append("<body>")
-            .append("<div class=\"container\">")
-            .append("<div class=\"header\"><h2>").append(title).append("</h2></div>")
-            .append("<div class=\"content\">").append(content).append("</div>")
-            .append("<div class=\"footer\">").append(footer).append("</div>")
-            .append("</div>")
-            .append("</body>")
-            .append("</html>");
-        return html.toString();
+        return LAYOUT.render(title, content, footer);
     }
     
     /**
      * 生成通知邮件模板
      * 
      * @param title    通知标题
-     * @param message  通知内容
+     * @param message  通知内容（纯文本，会被转义）
      * @param footer   页脚
      * @return HTML字符串
      */
     public static String getNotificationTemplate(String title, String message, String footer) {
-        StringBuilder content = new StringBuilder();
-        content.append("<p>尊敬的用户：</p>")
-               .append("<p>").append(message).append("</p>")
-               .append("<p>此致，<br/>系统团队</p>");
-        
-        return getSimpleTemplate(title, content.toString(), footer);
+        return LAYOUT.render(title, NOTIFICATION.bind(message), footer);
     }
     
     /**
@@ -69,54 +158,40 @@ public class EmailTemplateUtil {
      * @return HTML字符串
      */
     public static String getVerificationCodeTemplate(String code, String validTime, String footer) {
-        StringBuilder content = new StringBuilder();
-        content.append("<p>尊敬的用户：</p>")
-               .append("<p>您的验证码为：</p>")
-               .append("<p style=\"font-size: 24px; font-weight: bold; color: #333; text-align: center; padding: 15px; background-color: #f7f7f7; border-radius: 5px; letter-spacing: 5px;\">")
-               .append(code)
-               .append("</p>")
-               .append("<p>验证码有效期为").append(validTime).append("，请勿将验证码泄露给他人。</p>")
-               .append("<p>如非本人操作，请忽略此邮件。</p>");
-        
-        return getSimpleTemplate("验证码", content.toString(), footer);
+        return LAYOUT.render("验证码", VERIFICATION_CODE.bind(code, validTime), footer);
     }
     
     /**
      * 生成带按钮的HTML邮件模板
      * 
      * @param title      标题
-     * @param content    正文内容
+     * @param content    正文内容（HTML片段，原样写出）
      * @param buttonText 按钮文字
-     * @param buttonUrl  按钮链接
+     * @param buttonUrl  按钮链接，仅允许 http、https、mailto 和站内相对路径
      * @param footer     页脚
      * @return HTML字符串
      */
     public static String getButtonTemplate(String title, String content, String buttonText, String buttonUrl, String footer) {
-        StringBuilder html = new StringBuilder(content);
-        html.append("<div style=\"text-align: center; margin: 30px 0;\">")
-            .append("<a href=\"").append(buttonUrl).append("\" style=\"display: inline-block; padding: 10px 20px; background-color: #007bff; color: #fff; text-decoration: none; border-radius: 4px; font-weight: bold;\">")
-            .append(buttonText)
-            .append("</a>")
-            .append("</div>");
-        
-        return getSimpleTemplate(title, html.toString(), footer);
+        return LAYOUT.render(title, BUTTON.bind(content, buttonUrl, buttonText), footer);
     }
     
     /**
      * 根据模板和参数生成HTML内容
+     * 模板编译结果会被缓存；参数值默认进行HTML转义，使用 ${raw:paramName} 可原样写出
      * 
      * @param template  HTML模板，参数使用 ${paramName} 表示
      * @param params    参数映射
-     * @return 替换参数后的HTML内容
+     * @return 替换参数后的HTML内容，缺少的参数保留占位符原文
      */
     public static String processTemplate(String template, Map<String, String> params) {
-        String result = template;
-        if (params != null && !params.isEmpty()) {
-            for (Map.Entry<String, String> entry : params.entrySet()) {
-                result = result.replace("${" + entry.getKey() + "}", entry.getValue());
+        HtmlTemplate compiled = TEMPLATE_CACHE.get(template);
+        if (compiled == null) {
+            compiled = HtmlTemplate.compile(template);
+            if (TEMPLATE_CACHE.size() < MAX_CACHED_TEMPLATES) {
+                TEMPLATE_CACHE.putIfAbsent(template, compiled);
             }
         }
-        return result;
+        return compiled.render(params);
     }
     
     /**
@@ -129,28 +204,9 @@ public class EmailTemplateUtil {
      * @return HTML字符串
      */
     public static String getBanNotificationTemplate(String username, String reason, String contactEmail, String footer) {
-        StringBuilder content = new StringBuilder();
-        content.append("<p>尊敬的 <strong>").append(username).append("</strong>：</p>")
-               .append("<p>很遗憾地通知您，您的账号已被封禁。</p>")
-               .append("<div style=\"margin: 20px 0; padding: 15px; background-color: #f8f9fa; border-left: 4px solid #dc3545; border-radius: 3px;\">")
-               .append("<p><strong>封禁原因：</strong></p>");
-        
-        if (StringUtils.isNotBlank(reason)) {
-            content.append("<p>").append(reason).append("</p>");
-        } else {
-            content.append("<p>违反了平台使用规定。</p>");
-        }
-        
-        content.append("</div>")
-               .append("<p>如果您对此有任何疑问，或认为这是一个错误，请联系我们的客服团队。</p>");
-               
-        if (StringUtils.isNotBlank(contactEmail)) {
-            content.append("<p>联系邮箱：<a href=\"mailto:").append(contactEmail).append("\">").append(contactEmail).append("</a></p>");
-        }
-        
-        content.append("<p>此致，<br/>系统管理团队</p>");
-        
-        return getSimpleTemplate("账号封禁通知", content.toString(), footer);
+        String banReason = StringUtils.isNotBlank(reason) ? reason : "违反了平台使用规定。";
+        Object contact = StringUtils.isNotBlank(contactEmail) ? CONTACT_EMAIL.bind(contactEmail) : null;
+        return LAYOUT.render("账号封禁通知", BAN_NOTIFICATION.bind(username, banReason, contact), footer);
     }
     
     /**
@@ -163,21 +219,6 @@ public class EmailTemplateUtil {
      * @return HTML字符串
      */
     public static String getPasswordResetCodeTemplate(String username, String code, String validTime, String footer) {
-        StringBuilder content = new StringBuilder();
-        content.append("<p>尊敬的 <strong>").append(username).append("</strong>：</p>")
-               .append("<p>您正在进行密码修改操作，请使用以下验证码完成验证：</p>")
-               .append("<p style=\"font-size: 24px; font-weight: bold; color: #333; text-align: center; padding: 15px; background-color: #f7f7f7; border-radius: 5px; letter-spacing: 5px;\">")
-               .append(code)
-               .append("</p>")
-               .append("<p>验证码有效期为<strong>").append(validTime).append("</strong>，请勿将验证码泄露给他人。</p>")
-               .append("<p>如非本人操作，请立即修改密码或联系客服。</p>")
-               .append("<div style=\"margin: 20px 0; padding: 15px; background-color: #f8f9fa; border-left: 4px solid #ffc107; border-radius: 3px;\">")
-               .append("<p><strong>安全提示：</strong></p>")
-               .append("<p>1. 请勿将验证码告知他人，包括自称客服人员。</p>")
-               .append("<p>2. 系统不会要求您提供任何个人敏感信息。</p>")
-               .append("<p>3. 建议定期修改密码并使用复杂密码。</p>")
-               .append("</div>");
-        
-        return getSimpleTemplate("密码修改验证", content.toString(), footer);
+        return LAYOUT.render("密码修改验证", PASSWORD_RESET_CODE.bind(username, code, validTime), footer);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,353 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 预编译HTML模板
+ * 模板只在编译时解析一次，得到"文本段 + 占位符"交替的片段列表，渲染时按顺序写出，不再做字符串查找和替换。
+ *
+ * 占位符语法：
+ * 1. ${name}      文本，写出前进行HTML转义
+ * 2. ${attr:name} 属性值，写出前进行HTML属性转义
+ * 3. ${url:name}  链接，只允许 http、https、mailto 和站内相对路径，其余替换为 #，并进行属性转义
+ * 4. ${raw:name}  可信HTML片段，原样写出；参数为 {@link Fragment} 时直接渲染到同一缓冲区
+ *
+ * 实例不可变，可在多线程间共享。
+ */
+public final class HtmlTemplate {
+    
+    /**
+     * 占位符类型
+     */
+    public enum SlotType {
+        TEXT, ATTR, URL, RAW
+    }
+    
+    /**
+     * 每个线程复用的渲染缓冲区初始大小
+     */
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    
+    /**
+     * 缓冲区超过该大小时渲染后丢弃，避免长期占用内存
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * 估算渲染结果长度时每个占位符预留的字符数
+     */
+    private static final int SLOT_SIZE_ESTIMATE = 32;
+    
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+    
+    /**
+     * 文本段，长度为占位符数 + 1
+     */
+    private final String[] literals;
+    
+    /**
+     * 每个占位符对应的参数下标
+     */
+    private final int[] slotParams;
+    
+    /**
+     * 每个占位符的类型
+     */
+    private final SlotType[] slotTypes;
+    
+    /**
+     * 每个占位符在模板中的原文，按名称渲染且缺少参数时原样保留
+     */
+    private final String[] slotSources;
+    
+    /**
+     * 参数名称
+     */
+    private final String[] paramNames;
+    
+    /**
+     * 渲染结果的预估长度
+     */
+    private final int estimatedLength;
+    
+    private HtmlTemplate(String[] literals, int[] slotParams, SlotType[] slotTypes,
+                         String[] slotSources, String[] paramNames) {
+        this.literals = literals;
+        this.slotParams = slotParams;
+        this.slotTypes = slotTypes;
+        this.slotSources = slotSources;
+        this.paramNames = paramNames;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length + slotParams.length * SLOT_SIZE_ESTIMATE;
+    }
+    
+    /**
+     * 编译模板
+     *
+     * @param source     模板内容
+     * @param paramNames 参数名称，决定按位置渲染时参数的顺序；不传时按占位符首次出现的顺序
+     * @return 编译后的模板
+     * @throws IllegalArgumentException 占位符格式错误或引用了未声明的参数
+     */
+    public static HtmlTemplate compile(String source, String... paramNames) {
+        Map<String, Integer> paramIndex = new LinkedHashMap<>();
+        for (String paramName : paramNames) {
+            paramIndex.put(paramName, paramIndex.size());
+        }
+        boolean declared = paramNames.length > 0;
+        
+        List<String> literals = new ArrayList<>();
+        List<Integer> slotParams = new ArrayList<>();
+        List<SlotType> slotTypes = new ArrayList<>();
+        List<String> slotSources = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("${", position);
+            if (start < 0) {
+                break;
+            }
+            int end = source.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("模板占位符未闭合，位置：" + start);
+            }
+            String expression = source.substring(start + 2, end).trim();
+            SlotType type = SlotType.TEXT;
+            String name = expression;
+            int colon = expression.indexOf(':');
+            if (colon >= 0) {
+                type = SlotType.valueOf(expression.substring(0, colon).trim().toUpperCase(Locale.ROOT));
+                name = expression.substring(colon + 1).trim();
+            }
+            Integer index = paramIndex.get(name);
+            if (index == null) {
+                if (declared) {
+                    throw new IllegalArgumentException("模板引用了未声明的参数：" + name);
+                }
+                index = paramIndex.size();
+                paramIndex.put(name, index);
+            }
+            literals.add(source.substring(position, start));
+            slotParams.add(index);
+            slotTypes.add(type);
+            slotSources.add(source.substring(start, end + 1));
+            position = end + 1;
+        }
+        literals.add(source.substring(position));
+        
+        return new HtmlTemplate(
+                literals.toArray(new String[0]),
+                slotParams.stream().mapToInt(Integer::intValue).toArray(),
+                slotTypes.toArray(new SlotType[0]),
+                slotSources.toArray(new String[0]),
+                paramIndex.keySet().toArray(new String[0]));
+    }
+    
+    /**
+     * 按位置参数渲染
+     *
+     * @param args 参数值，顺序与编译时的参数名称一致
+     * @return 渲染结果
+     */
+    public String render(Object... args) {
+        checkArgs(args);
+        StringBuilder out = acquireBuffer();
+        try {
+            renderTo(out, args);
+            return out.toString();
+        } finally {
+            releaseBuffer(out);
+        }
+    }
+    
+    /**
+     * 按名称参数渲染，缺少的参数保留占位符原文
+     *
+     * @param params 参数映射
+     * @return 渲染结果
+     */
+    public String render(Map<String, ?> params) {
+        StringBuilder out = acquireBuffer();
+        try {
+            out.append(literals[0]);
+            for (int i = 0; i < slotParams.length; i++) {
+                String name = paramNames[slotParams[i]];
+                if (params != null && params.containsKey(name)) {
+                    writeSlot(out, slotTypes[i], params.get(name));
+                } else {
+                    out.append(slotSources[i]);
+                }
+                out.append(literals[i + 1]);
+            }
+            return out.toString();
+        } finally {
+            releaseBuffer(out);
+        }
+    }
+    
+    /**
+     * 将模板与参数绑定为片段，作为其他模板 ${raw:xxx} 占位符的参数时直接渲染到同一缓冲区
+     *
+     * @param args 参数值
+     * @return 片段
+     */
+    public Fragment bind(Object... args) {
+        checkArgs(args);
+        return new Fragment(this, args);
+    }
+    
+    /**
+     * 获取参数名称
+     *
+     * @return 参数名称副本
+     */
+    public String[] getParamNames() {
+        return paramNames.clone();
+    }
+    
+    private void renderTo(StringBuilder out, Object[] args) {
+        out.append(literals[0]);
+        for (int i = 0; i < slotParams.length; i++) {
+            writeSlot(out, slotTypes[i], args[slotParams[i]]);
+            out.append(literals[i + 1]);
+        }
+    }
+    
+    private void checkArgs(Object[] args) {
+        if (args.length != paramNames.length) {
+            throw new IllegalArgumentException("模板需要 " + paramNames.length + " 个参数，实际传入 " + args.length + " 个");
+        }
+    }
+    
+    private StringBuilder acquireBuffer() {
+        Buffer buffer = BUFFER.get();
+        if (buffer.inUse) {
+            // 渲染过程中再次渲染（如参数的 toString 触发渲染），使用临时缓冲区
+            return new StringBuilder(estimatedLength);
+        }
+        buffer.inUse = true;
+        buffer.builder.setLength(0);
+        buffer.builder.ensureCapacity(estimatedLength);
+        return buffer.builder;
+    }
+    
+    private static void releaseBuffer(StringBuilder out) {
+        Buffer buffer = BUFFER.get();
+        if (buffer.builder != out) {
+            return;
+        }
+        buffer.inUse = false;
+        if (out.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.remove();
+        } else {
+            out.setLength(0);
+        }
+    }
+    
+    private static void writeSlot(StringBuilder out, SlotType type, Object value) {
+        if (value == null) {
+            return;
+        }
+        switch (type) {
+            case RAW:
+                if (value instanceof Fragment) {
+                    Fragment fragment = (Fragment) value;
+                    fragment.template.renderTo(out, fragment.args);
+                } else {
+                    out.append(value);
+                }
+                break;
+            case URL:
+                String url = value.toString().trim();
+                escape(out, isSafeUrl(url) ? url : "#", true);
+                break;
+            case ATTR:
+                escape(out, value.toString(), true);
+                break;
+            default:
+                escape(out, value.toString(), false);
+                break;
+        }
+    }
+    
+    private static boolean isSafeUrl(String url) {
+        String lower = url.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://") || lower.startsWith("mailto:")
+                || (lower.startsWith("/") && !lower.startsWith("//"));
+    }
+    
+    /**
+     * HTML转义，按段追加未转义的字符，避免逐字符追加
+     *
+     * @param out       输出缓冲区
+     * @param text      文本
+     * @param attribute 是否转义引号（用于属性值）
+     */
+    private static void escape(StringBuilder out, String text, boolean attribute) {
+        int last = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = attribute ? "&quot;" : null;
+                    break;
+                case '\'':
+                    replacement = attribute ? "&#39;" : null;
+                    break;
+                default:
+                    replacement = null;
+                    break;
+            }
+            if (replacement != null) {
+                out.append(text, last, i).append(replacement);
+                last = i + 1;
+            }
+        }
+        out.append(text, last, text.length());
+    }
+    
+    /**
+     * 绑定了参数的模板片段
+     */
+    public static final class Fragment {
+        
+        private final HtmlTemplate template;
+        
+        private final Object[] args;
+        
+        private Fragment(HtmlTemplate template, Object[] args) {
+            this.template = template;
+            this.args = args;
+        }
+        
+        @Override
+        public String toString() {
+            return template.render(args);
+        }
+    }
+    
+    /**
+     * 线程复用的渲染缓冲区
+     */
+    private static final class Buffer {
+        
+        private final StringBuilder builder = new StringBuilder(INITIAL_BUFFER_SIZE);
+        
+        private boolean inUse;
+    }
+}
@@ -0,0 +1,29 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+
+/**
+ * IP工具类
+ */
+public class IpUtils {
+
+    /**
+     * 获取客户端IP
+     * 仅在信任代理时读取X-Forwarded-For的第一个地址，否则使用连接的远端地址，防止伪造请求头绕过限流
+     *
+     * @param request 请求
+     * @param trustForwardedFor 是否信任X-Forwarded-For请求头（rate-limit.trust-forwarded-for）
+     * @return 客户端IP
+     */
+    public static String getClientIp(HttpServletRequest request, Boolean trustForwardedFor) {
+        if (Boolean.TRUE.equals(trustForwardedFor)) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma > 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
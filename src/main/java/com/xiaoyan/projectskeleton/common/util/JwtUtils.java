@@ -1,13 +1,13 @@
 package com.xiaoyan.projectskeleton.common.util;
 
 import com.xiaoyan.projectskeleton.common.config.JwtConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
 import com.xiaoyan.projectskeleton.common.exception.BusinessException;
 import com.xiaoyan.projectskeleton.common.exception.CommonErrorCode;
 import com.xiaoyan.projectskeleton.repository.entity.role.Role;
 import com.xiaoyan.projectskeleton.repository.entity.user.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,11 +31,20 @@ public class JwtUtils {
     private SecretKey secretKey;
     
     /**
-     * 初始化密钥
+     * JWT解析器
+     * 线程安全且不可变，启动时构建一次，所有Token校验共用，避免每次请求重复构建
+     */
+    private JwtParser jwtParser;
+    
+    /**
+     * 初始化密钥和解析器
      */
     @PostConstruct
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
     }
     
     /**
@@ -83,6 +92,45 @@ public class JwtUtils {
                 .compact();
     }
     
+    /**
+     * 校验AccessToken并解析出用户信息
+     * 只进行一次签名校验和解析，替代 validateAccessToken + getXxxFromAccessToken 的多次解析
+     *
+     * @param token AccessToken
+     * @return 已校验的用户上下文
+     * @throws BusinessException Token过期或无效时抛出
+     */
+    public UserContext verifyAccessToken(String token) {
+        Claims claims = parseAccessToken(token);
+        Object userId = claims.get("userId");
+        // RefreshToken与AccessToken使用同一密钥签名，需要通过声明区分
+        if (!(userId instanceof Number)) {
+            throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "无效的AccessToken");
+        }
+        return new UserContext()
+                .setUserId(((Number) userId).longValue())
+                .setUsername(claims.get("username", String.class))
+                .setRoleCode(claims.get("role", String.class))
+                .setTokenExpireTime(claims.getExpiration() != null ? claims.getExpiration().getTime() : null);
+    }
+    
+    /**
+     * 校验RefreshToken并解析出用户ID
+     * 只进行一次签名校验和解析
+     *
+     * @param token RefreshToken
+     * @return 用户ID
+     * @throws BusinessException Token过期或无效时抛出
+     */
+    public Long verifyRefreshToken(String token) {
+        Claims claims = parseRefreshToken(token);
+        try {
+            return Long.parseLong(claims.getSubject());
+        } catch (NumberFormatException e) {
+            throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "无效的RefreshToken");
+        }
+    }
+    
     /**
      * 从AccessToken中获取用户ID
      *
@@ -135,10 +183,7 @@ public class JwtUtils {
      */
     public boolean validateAccessToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             log.error("AccessToken验证失败: {}", e.getMessage());
@@ -154,10 +199,7 @@ public class JwtUtils {
      */
     public boolean validateRefreshToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             log.error("RefreshToken验证失败: {}", e.getMessage());
@@ -174,11 +216,7 @@ public class JwtUtils {
      * @return 新的AccessToken
      */
     public String refreshAccessToken(String refreshToken, User user, String roleCode) {
-        if (!validateRefreshToken(refreshToken)) {
-            throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "RefreshToken已过期或无效");
-        }
-        
-        Long userId = getUserIdFromRefreshToken(refreshToken);
+        Long userId = verifyRefreshToken(refreshToken);
         if (!userId.equals(user.getId())) {
             throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "RefreshToken与用户不匹配");
         }
@@ -194,14 +232,10 @@ public class JwtUtils {
      */
     private Claims parseAccessToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "AccessToken已过期");
-        } catch (SignatureException | MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "无效的AccessToken");
         }
     }
@@ -214,14 +248,10 @@ public class JwtUtils {
      */
     private Claims parseRefreshToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "RefreshToken已过期");
-        } catch (SignatureException | MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "无效的RefreshToken");
         }
     }
@@ -0,0 +1,92 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * MinIO分片上传客户端
+ * MinioClient 只提供自动分片的 putObject，S3分片上传的底层接口（创建、上传分片、合并、取消）
+ * 在SDK中是受保护方法，这里通过继承公开，供可续传的分片上传使用。
+ * 使用异步接口并等待结果，同步版本的受保护方法已被SDK标记为过时。
+ */
+public class MinioMultipartClient extends MinioAsyncClient {
+
+    public MinioMultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * 创建分片上传
+     *
+     * @param bucket      存储桶
+     * @param objectName  对象名称
+     * @param contentType 文件类型，可为空
+     * @return 分片上传ID
+     */
+    public String createMultipartUpload(String bucket, String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (contentType != null) {
+            headers.put("Content-Type", contentType);
+        }
+        return await(createMultipartUploadAsync(bucket, null, objectName, headers, null)).result().uploadId();
+    }
+
+    /**
+     * 上传一个分片
+     *
+     * @param bucket     存储桶
+     * @param objectName 对象名称
+     * @param uploadId   分片上传ID
+     * @param partNumber 分片序号，从1开始
+     * @param stream     分片内容
+     * @param size       分片大小（字节）
+     * @return 分片的ETag
+     */
+    public String uploadPart(String bucket, String objectName, String uploadId, int partNumber,
+                             InputStream stream, long size) throws Exception {
+        return await(uploadPartAsync(bucket, null, objectName, stream, size, uploadId, partNumber, null, null)).etag();
+    }
+
+    /**
+     * 合并分片，完成上传
+     *
+     * @param bucket     存储桶
+     * @param objectName 对象名称
+     * @param uploadId   分片上传ID
+     * @param parts      全部分片（序号和ETag），按序号升序
+     */
+    public void completeMultipartUpload(String bucket, String objectName, String uploadId, Part[] parts) throws Exception {
+        await(completeMultipartUploadAsync(bucket, null, objectName, uploadId, parts, null, null));
+    }
+
+    /**
+     * 取消分片上传，删除已上传的分片
+     *
+     * @param bucket     存储桶
+     * @param objectName 对象名称
+     * @param uploadId   分片上传ID
+     */
+    public void abortMultipartUpload(String bucket, String objectName, String uploadId) throws Exception {
+        await(abortMultipartUploadAsync(bucket, null, objectName, uploadId, null, null));
+    }
+
+    /**
+     * 等待异步请求完成，失败时抛出原始异常（如 ErrorResponseException）
+     */
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
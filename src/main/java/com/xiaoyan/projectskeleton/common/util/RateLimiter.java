@@ -0,0 +1,208 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import com.xiaoyan.projectskeleton.common.config.RateLimitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 滑动窗口限流器
+ * 1. 全局计数保存在Redis有序集合中，每次获取许可由一个Lua脚本原子完成清理、计数和写入，只需一次网络往返
+ * 2. 时间取自Redis服务器，避免多节点时钟不一致
+ * 3. 访问Redis前先经过本地令牌桶，单个节点上已明显超限的请求直接拒绝，不再访问Redis
+ * 4. Redis不可用时放行（仅由本地令牌桶限流），避免限流故障导致接口不可用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RateLimitConfig rateLimitConfig;
+
+    /**
+     * Redis键前缀
+     */
+    private static final String RATE_LIMIT_PREFIX = "rate:limit:";
+
+    /**
+     * 滑动窗口脚本
+     * KEYS[1] 计数键；ARGV[1] 上限；ARGV[2] 窗口（毫秒）；ARGV[3] 许可ID
+     * 返回1表示获取成功，0表示超出限制
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.replicate_commands then redis.replicate_commands() end\n" +
+            "local limit = tonumber(ARGV[1])\n" +
+            "local window = tonumber(ARGV[2])\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, now - window)\n" +
+            "if redis.call('ZCARD', KEYS[1]) >= limit then\n" +
+            "  return 0\n" +
+            "end\n" +
+            "redis.call('ZADD', KEYS[1], now, ARGV[3])\n" +
+            "redis.call('PEXPIRE', KEYS[1], window)\n" +
+            "return 1",
+            Long.class);
+
+    /**
+     * 计数键 -> 本地令牌桶
+     */
+    private final ConcurrentHashMap<String, TokenBucket> localBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * 尝试获取一个许可
+     *
+     * @param key          限流键，同一个键共享计数
+     * @param limit        窗口内允许的最大次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis) {
+        return tryAcquire(key, limit, windowMillis, UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    /**
+     * 以指定的许可ID尝试获取一个许可
+     * 许可ID可在之后通过 release 归还，例如操作失败时允许用户立即重试
+     *
+     * @param key          限流键，同一个键共享计数
+     * @param limit        窗口内允许的最大次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @param permitId     许可ID，同一窗口内应唯一
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis, String permitId) {
+        if (!Boolean.TRUE.equals(rateLimitConfig.getEnabled())) {
+            return true;
+        }
+        return tryAcquireEnforced(key, limit, windowMillis, permitId);
+    }
+
+    /**
+     * 以指定的许可ID尝试获取一个许可，不受全局开关 rate-limit.enabled 影响
+     * 用于属于业务规则的频率限制（如验证码发送间隔），关闭接口限流时仍然生效
+     *
+     * @param key          限流键，同一个键共享计数
+     * @param limit        窗口内允许的最大次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @param permitId     许可ID，同一窗口内应唯一
+     * @return 是否获取成功
+     */
+    public boolean tryAcquireEnforced(String key, int limit, long windowMillis, String permitId) {
+        if (limit <= 0) {
+            return false;
+        }
+        String redisKey = RATE_LIMIT_PREFIX + key;
+        if (!tryConsumeLocal(redisKey, limit, windowMillis)) {
+            log.debug("本地令牌桶拒绝请求：{}", key);
+            return false;
+        }
+        try {
+            Long result = stringRedisTemplate.execute(SLIDING_WINDOW_SCRIPT, Collections.singletonList(redisKey),
+                    String.valueOf(limit), String.valueOf(windowMillis), permitId);
+            return result == null || result == 1L;
+        } catch (Exception e) {
+            log.warn("限流脚本执行失败，放行请求：{}，{}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 归还许可
+     *
+     * @param key      限流键
+     * @param permitId 获取许可时使用的许可ID
+     * @return 许可是否仍在窗口内并已归还
+     */
+    public boolean release(String key, String permitId) {
+        try {
+            Long removed = stringRedisTemplate.opsForZSet().remove(RATE_LIMIT_PREFIX + key, permitId);
+            return removed != null && removed > 0;
+        } catch (Exception e) {
+            log.warn("归还限流许可失败：{}，{}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 本地令牌桶预检
+     * 令牌桶容量为上限的若干倍，按 上限/窗口 的速率回填，只拦截单个节点上已明显超限的请求
+     */
+    private boolean tryConsumeLocal(String redisKey, int limit, long windowMillis) {
+        TokenBucket bucket = localBuckets.get(redisKey);
+        if (bucket == null) {
+            if (localBuckets.size() >= rateLimitConfig.getLocalMaxBuckets()) {
+                evictLocalBuckets();
+            }
+            double capacity = (double) limit * Math.max(1, rateLimitConfig.getLocalBurstMultiplier());
+            double refillPerNano = (double) limit / (windowMillis * 1_000_000L);
+            bucket = localBuckets.computeIfAbsent(redisKey, k -> new TokenBucket(capacity, refillPerNano));
+        }
+        return bucket.tryConsume();
+    }
+
+    /**
+     * 淘汰本地令牌桶
+     * 先清理已回满的令牌桶（与新建的令牌桶等价），若仍达到上限，再淘汰约十分之一
+     */
+    private void evictLocalBuckets() {
+        localBuckets.values().removeIf(TokenBucket::isFull);
+        int maxSize = rateLimitConfig.getLocalMaxBuckets();
+        if (localBuckets.size() < maxSize) {
+            return;
+        }
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<String, TokenBucket>> iterator = localBuckets.entrySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 本地令牌桶
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillTime;
+
+        private TokenBucket(double capacity, double refillPerNano) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.lastRefillTime = System.nanoTime();
+        }
+
+        private synchronized boolean tryConsume() {
+            refill();
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        private synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillTime) * refillPerNano);
+            lastRefillTime = now;
+        }
+    }
+}
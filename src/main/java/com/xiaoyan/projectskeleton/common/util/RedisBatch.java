@@ -0,0 +1,278 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Redis批量命令
+ * 通过 RedisUtils.batch() 创建，依次添加的命令在 execute 时通过管道在同一连接上一次性发送，
+ * 每条命令返回一个 Response，execute 完成后从中获取该命令的结果。
+ * 管道中的命令按顺序执行，但整体不是原子的；实例不是线程安全的，只能执行一次。
+ */
+@Slf4j
+public class RedisBatch {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 已添加的命令，每条命令在管道中恰好产生一个结果
+     */
+    private final List<Consumer<RedisOperations<String, Object>>> commands = new ArrayList<>();
+
+    /**
+     * 与命令一一对应的结果
+     */
+    private final List<Response<?>> responses = new ArrayList<>();
+
+    private boolean executed;
+
+    RedisBatch(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param key 键
+     * @return 值
+     */
+    public Response<Object> get(String key) {
+        return add(operations -> operations.opsForValue().get(key), Function.identity());
+    }
+
+    /**
+     * 缓存放入
+     *
+     * @param key   键
+     * @param value 值
+     * @return 是否成功
+     */
+    public Response<Boolean> set(String key, Object value) {
+        return add(operations -> operations.opsForValue().set(key, value), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 缓存放入并设置时间（SET EX）
+     *
+     * @param key   键
+     * @param value 值
+     * @param time  时间(秒) time要大于0 如果time小于等于0 将设置无限期
+     * @return 是否成功
+     */
+    public Response<Boolean> set(String key, Object value, long time) {
+        if (time <= 0) {
+            return set(key, value);
+        }
+        return add(operations -> operations.opsForValue().set(key, value, time, TimeUnit.SECONDS),
+                RedisBatch::toBoolean);
+    }
+
+    /**
+     * 键不存在时缓存放入并设置时间（SET NX EX）
+     *
+     * @param key   键
+     * @param value 值
+     * @param time  时间(秒)
+     * @return 是否放入成功
+     */
+    public Response<Boolean> setIfAbsent(String key, Object value, long time) {
+        return add(operations -> operations.opsForValue().setIfAbsent(key, value, time, TimeUnit.SECONDS),
+                RedisBatch::toBoolean);
+    }
+
+    /**
+     * 判断key是否存在
+     *
+     * @param key 键
+     * @return 是否存在
+     */
+    public Response<Boolean> hasKey(String key) {
+        return add(operations -> operations.hasKey(key), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 键
+     * @return 是否删除了该键
+     */
+    public Response<Boolean> delete(String key) {
+        return add(operations -> operations.delete(key), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 指定缓存失效时间
+     *
+     * @param key  键
+     * @param time 时间(秒)
+     * @return 是否成功
+     */
+    public Response<Boolean> expire(String key, long time) {
+        return add(operations -> operations.expire(key, time, TimeUnit.SECONDS), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 递增
+     *
+     * @param key   键
+     * @param delta 要增加几
+     * @return 递增后的值
+     */
+    public Response<Long> incr(String key, long delta) {
+        return add(operations -> operations.opsForValue().increment(key, delta), RedisBatch::toLong);
+    }
+
+    /**
+     * HashGet
+     *
+     * @param key  键
+     * @param item 项
+     * @return 值
+     */
+    public Response<Object> hget(String key, String item) {
+        return add(operations -> operations.opsForHash().get(key, item), Function.identity());
+    }
+
+    /**
+     * HashSet
+     *
+     * @param key   键
+     * @param item  项
+     * @param value 值
+     * @return 是否成功
+     */
+    public Response<Boolean> hset(String key, String item, Object value) {
+        return add(operations -> operations.opsForHash().put(key, item, value), result -> true);
+    }
+
+    /**
+     * 将数据放入set缓存
+     *
+     * @param key    键
+     * @param values 值
+     * @return 新增个数
+     */
+    public Response<Long> sSet(String key, Object... values) {
+        return add(operations -> operations.opsForSet().add(key, values), RedisBatch::toLong);
+    }
+
+    /**
+     * 执行已添加的全部命令
+     * 异常时记录日志并返回false，此时所有 Response 的结果均为null
+     *
+     * @return true成功 false失败
+     */
+    public boolean execute() {
+        if (executed) {
+            throw new IllegalStateException("批量命令只能执行一次");
+        }
+        executed = true;
+        if (commands.isEmpty()) {
+            return true;
+        }
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> stringOperations = (RedisOperations<String, Object>) operations;
+                    for (Consumer<RedisOperations<String, Object>> command : commands) {
+                        command.accept(stringOperations);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("批量执行Redis命令异常: {}", e.getMessage(), e);
+            responses.forEach(response -> response.complete(null));
+            return false;
+        }
+        if (results.size() != responses.size()) {
+            throw new IllegalStateException("批量命令结果数量不一致：命令 " + responses.size() + " 条，结果 " + results.size() + " 条");
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            responses.get(i).complete(results.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * 已添加的命令数
+     *
+     * @return 命令数
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    private <T> Response<T> add(Consumer<RedisOperations<String, Object>> command, Function<Object, T> converter) {
+        if (executed) {
+            throw new IllegalStateException("批量命令已执行，不能再添加命令");
+        }
+        Response<T> response = new Response<>(converter);
+        commands.add(command);
+        responses.add(response);
+        return response;
+    }
+
+    /**
+     * 管道中部分命令返回Long（如DEL、EXISTS），部分返回Boolean，统一转换为Boolean
+     */
+    private static Boolean toBoolean(Object result) {
+        if (result instanceof Boolean) {
+            return (Boolean) result;
+        }
+        if (result instanceof Number) {
+            return ((Number) result).longValue() > 0;
+        }
+        return result != null;
+    }
+
+    private static Long toLong(Object result) {
+        return result instanceof Number ? ((Number) result).longValue() : null;
+    }
+
+    /**
+     * 单条命令的结果
+     *
+     * @param <T> 结果类型
+     */
+    public static final class Response<T> {
+
+        private final Function<Object, T> converter;
+        private T value;
+        private boolean done;
+
+        private Response(Function<Object, T> converter) {
+            this.converter = converter;
+        }
+
+        private void complete(Object result) {
+            this.value = result == null ? null : converter.apply(result);
+            this.done = true;
+        }
+
+        /**
+         * 获取结果
+         *
+         * @return 结果
+         * @throws IllegalStateException 批量命令尚未执行
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("批量命令尚未执行");
+            }
+            return value;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.xiaoyan.projectskeleton.common.util;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Redis工具类，封装常用的Redis操作
+ * 带过期时间的写入均为单条原子命令（SET EX 或 Lua脚本），不会出现写入成功但未设置过期时间的情况；
+ * 需要一次执行多条命令时使用 multiGet、multiSet 或 batch，所有命令在一次网络往返中完成
  */
 @Slf4j
 @Component
@@ -16,6 +24,58 @@ public class RedisUtils {
 
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * 写入Hash并设置过期时间
+     * KEYS[1] 键；ARGV[1] 过期时间（秒）；ARGV[2..] 项和值交替排列
+     */
+    private static final RedisScript<Long> HSET_EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "return 1",
+            Long.class);
+
+    /**
+     * 写入Set并设置过期时间，返回新增个数
+     * KEYS[1] 键；ARGV[1] 过期时间（秒）；ARGV[2..] 值
+     */
+    private static final RedisScript<Long> SADD_EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "local count = 0\n" +
+            "for i = 2, #ARGV do count = count + redis.call('SADD', KEYS[1], ARGV[i]) end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "return count",
+            Long.class);
+
+    /**
+     * 追加List并设置过期时间，返回追加后的长度
+     * KEYS[1] 键；ARGV[1] 过期时间（秒）；ARGV[2..] 值
+     */
+    private static final RedisScript<Long> RPUSH_EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "local size = 0\n" +
+            "for i = 2, #ARGV do size = redis.call('RPUSH', KEYS[1], ARGV[i]) end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "return size",
+            Long.class);
+
+    /**
+     * 版本号未变化时写入并设置过期时间，返回是否写入
+     * KEYS[1] 键；KEYS[2] 版本号键；ARGV[1] 过期时间（秒）；ARGV[2] 期望的版本号，版本号键不存在视为0；ARGV[3] 值
+     */
+    private static final RedisScript<Long> SET_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[2] then return 0 end\n" +
+            "redis.call('SET', KEYS[1], ARGV[3], 'EX', ARGV[1])\n" +
+            "return 1",
+            Long.class);
+
+    /**
+     * 脚本参数已预先序列化，原样传递
+     */
+    private static final RedisSerializer<byte[]> RAW_SERIALIZER = RedisSerializer.byteArray();
+
+    /**
+     * 脚本返回值序列化器
+     */
+    private static final RedisSerializer<Long> LONG_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
     public RedisUtils(RedisTemplate<String, Object> redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
@@ -129,6 +189,142 @@ public class RedisUtils {
         }
     }
 
+    /**
+     * 键不存在时缓存放入（SET NX）
+     *
+     * @param key   键
+     * @param value 值
+     * @return true放入成功 false键已存在或失败
+     */
+    public boolean setIfAbsent(String key, Object value) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value));
+        } catch (Exception e) {
+            log.error("缓存放入异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 键不存在时缓存放入并设置时间（SET NX EX）
+     *
+     * @param key   键
+     * @param value 值
+     * @param time  时间(秒)，必须大于0
+     * @return true放入成功 false键已存在或失败
+     */
+    public boolean setIfAbsent(String key, Object value, long time) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, time, TimeUnit.SECONDS));
+        } catch (Exception e) {
+            log.error("缓存放入并设置时间异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 版本号未变化时缓存放入并设置时间
+     * 读取数据前先读取版本号，数据变更时递增版本号，写回缓存时比较版本号，
+     * 避免读取期间发生变更后把旧数据写入缓存（检查和写入在一个Lua脚本中原子完成）
+     *
+     * @param key        键
+     * @param value      值
+     * @param time       时间(秒)，必须大于0
+     * @param versionKey 版本号键，由 incr 递增
+     * @param version    读取数据前读到的版本号，版本号键不存在时为0
+     * @return true写入成功 false版本号已变化或失败
+     */
+    @SuppressWarnings("unchecked")
+    public boolean setIfVersionUnchanged(String key, Object value, long time, String versionKey, long version) {
+        try {
+            RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+            Long result = redisTemplate.execute(SET_IF_VERSION_SCRIPT, RAW_SERIALIZER, LONG_SERIALIZER,
+                    Arrays.asList(key, versionKey),
+                    String.valueOf(time).getBytes(StandardCharsets.UTF_8),
+                    String.valueOf(version).getBytes(StandardCharsets.UTF_8),
+                    valueSerializer.serialize(value));
+            return result != null && result == 1L;
+        } catch (Exception e) {
+            log.error("按版本号缓存放入异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量获取缓存（MGET）
+     *
+     * @param keys 键列表
+     * @return 值列表，顺序与键一致，不存在的键对应null；异常时返回null
+     */
+    public List<Object> multiGet(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.error("批量获取缓存异常: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 批量缓存放入（MSET）
+     *
+     * @param map 键值对
+     * @return true成功 false失败
+     */
+    public boolean multiSet(Map<String, Object> map) {
+        if (map == null || map.isEmpty()) {
+            return true;
+        }
+        try {
+            redisTemplate.opsForValue().multiSet(map);
+            return true;
+        } catch (Exception e) {
+            log.error("批量缓存放入异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量缓存放入并设置时间
+     * 每个键使用一条 SET EX 命令，全部命令通过管道在一次网络往返中发送
+     *
+     * @param map  键值对
+     * @param time 时间(秒) time要大于0 如果time小于等于0 将设置无限期
+     * @return true成功 false失败
+     */
+    public boolean multiSet(Map<String, Object> map, long time) {
+        if (time <= 0) {
+            return multiSet(map);
+        }
+        if (map == null || map.isEmpty()) {
+            return true;
+        }
+        RedisBatch batch = batch();
+        map.forEach((key, value) -> batch.set(key, value, time));
+        return batch.execute();
+    }
+
+    /**
+     * 创建批量命令
+     * 在返回的对象上依次添加命令，调用 execute 后通过管道一次性发送，再从各命令返回的 Response 中获取结果
+     *
+     * <pre>
+     * RedisBatch batch = redisUtils.batch();
+     * RedisBatch.Response&lt;Object&gt; user = batch.get("user:1");
+     * RedisBatch.Response&lt;Boolean&gt; exists = batch.hasKey("user:2");
+     * batch.set("user:3", value, 60);
+     * batch.execute();
+     * </pre>
+     *
+     * @return 批量命令
+     */
+    public RedisBatch batch() {
+        return new RedisBatch(redisTemplate);
+    }
+
     /**
      * 递增
      *
@@ -206,11 +402,16 @@ public class RedisUtils {
      * @return true成功 false失败
      */
     public boolean hmset(String key, Map<String, Object> map, long time) {
+        if (time <= 0) {
+            return hmset(key, map);
+        }
         try {
-            redisTemplate.opsForHash().putAll(key, map);
-            if (time > 0) {
-                expire(key, time);
-            }
+            List<Object> args = new ArrayList<>(map.size() * 2);
+            map.forEach((item, value) -> {
+                args.add(item);
+                args.add(value);
+            });
+            executeWithExpire(HSET_EXPIRE_SCRIPT, key, time, args, true);
             return true;
         } catch (Exception e) {
             log.error("HashSet并设置时间异常: {}", e.getMessage(), e);
@@ -246,11 +447,11 @@ public class RedisUtils {
      * @return true成功 false失败
      */
     public boolean hset(String key, String item, Object value, long time) {
+        if (time <= 0) {
+            return hset(key, item, value);
+        }
         try {
-            redisTemplate.opsForHash().put(key, item, value);
-            if (time > 0) {
-                expire(key, time);
-            }
+            executeWithExpire(HSET_EXPIRE_SCRIPT, key, time, Arrays.asList(item, value), true);
             return true;
         } catch (Exception e) {
             log.error("向hash表中放入数据并设置时间异常: {}", e.getMessage(), e);
@@ -361,12 +562,11 @@ public class RedisUtils {
      * @return 成功个数
      */
     public long sSetAndTime(String key, long time, Object... values) {
+        if (time <= 0) {
+            return sSet(key, values);
+        }
         try {
-            Long count = redisTemplate.opsForSet().add(key, values);
-            if (time > 0) {
-                expire(key, time);
-            }
-            return count;
+            return executeWithExpire(SADD_EXPIRE_SCRIPT, key, time, Arrays.asList(values), false);
         } catch (Exception e) {
             log.error("将Set数据放入缓存并设置时间异常: {}", e.getMessage(), e);
             return 0;
@@ -480,11 +680,11 @@ public class RedisUtils {
      * @return 是否成功
      */
     public boolean lSet(String key, Object value, long time) {
+        if (time <= 0) {
+            return lSet(key, value);
+        }
         try {
-            redisTemplate.opsForList().rightPush(key, value);
-            if (time > 0) {
-                expire(key, time);
-            }
+            executeWithExpire(RPUSH_EXPIRE_SCRIPT, key, time, Collections.singletonList(value), false);
             return true;
         } catch (Exception e) {
             log.error("将List放入缓存并设置时间异常: {}", e.getMessage(), e);
@@ -518,11 +718,11 @@ public class RedisUtils {
      * @return 是否成功
      */
     public boolean lSet(String key, List<Object> value, long time) {
+        if (time <= 0) {
+            return lSet(key, value);
+        }
         try {
-            redisTemplate.opsForList().rightPushAll(key, value);
-            if (time > 0) {
-                expire(key, time);
-            }
+            executeWithExpire(RPUSH_EXPIRE_SCRIPT, key, time, value, false);
             return true;
         } catch (Exception e) {
             log.error("将List放入缓存并设置时间异常: {}", e.getMessage(), e);
@@ -564,4 +764,116 @@ public class RedisUtils {
             return 0;
         }
     }
-} 
\ No newline at end of file
+
+    // ============================ZSet操作=============================
+
+    /**
+     * 向有序集合添加值，值已存在时更新分数
+     *
+     * @param key   键
+     * @param value 值
+     * @param score 分数
+     * @return true成功 false失败
+     */
+    public boolean zAdd(String key, Object value, double score) {
+        try {
+            redisTemplate.opsForZSet().add(key, value, score);
+            return true;
+        } catch (Exception e) {
+            log.error("有序集合添加值异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 按分数范围获取有序集合中的值，按分数升序
+     *
+     * @param key   键
+     * @param min   最小分数（含）
+     * @param max   最大分数（含）
+     * @param count 最多返回的个数
+     * @return 值集合，异常时返回空集合
+     */
+    public Set<Object> zRangeByScore(String key, double min, double max, long count) {
+        try {
+            Set<Object> values = redisTemplate.opsForZSet().rangeByScore(key, min, max, 0, count);
+            return values == null ? Collections.emptySet() : values;
+        } catch (Exception e) {
+            log.error("按分数获取有序集合值异常: {}", e.getMessage(), e);
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * 从有序集合移除值
+     *
+     * @param key    键
+     * @param values 值 可以是多个
+     * @return 移除的个数
+     */
+    public long zRemove(String key, Object... values) {
+        try {
+            Long count = redisTemplate.opsForZSet().remove(key, values);
+            return count == null ? 0 : count;
+        } catch (Exception e) {
+            log.error("移除有序集合中的值异常: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 执行写入并设置过期时间的脚本
+     * 参数按模板的序列化方式预先序列化，保证与非脚本方式写入的数据格式一致
+     *
+     * @param script 脚本
+     * @param key    键
+     * @param time   过期时间(秒)
+     * @param args   参数
+     * @param hash   是否为Hash的项和值交替排列的参数
+     * @return 脚本返回值
+     */
+    @SuppressWarnings("unchecked")
+    private long executeWithExpire(RedisScript<Long> script, String key, long time, List<?> args, boolean hash) {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) (hash ?
+                redisTemplate.getHashValueSerializer() : redisTemplate.getValueSerializer());
+        RedisSerializer<Object> hashKeySerializer = (RedisSerializer<Object>) redisTemplate.getHashKeySerializer();
+        Object[] rawArgs = new Object[args.size() + 1];
+        rawArgs[0] = String.valueOf(time).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < args.size(); i++) {
+            boolean isHashKey = hash && i % 2 == 0;
+            rawArgs[i + 1] = isHashKey ? hashKeySerializer.serialize(args.get(i)) : valueSerializer.serialize(args.get(i));
+        }
+        Long result = redisTemplate.execute(script, RAW_SERIALIZER, LONG_SERIALIZER,
+                Collections.singletonList(key), rawArgs);
+        return result == null ? 0 : result;
+    }
+
+    // ============================发布订阅=============================
+
+    /**
+     * 向频道发布消息
+     *
+     * @param channel 频道
+     * @param message 消息
+     * @return true成功 false失败
+     */
+    public boolean publish(String channel, Object message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+            return true;
+        } catch (Exception e) {
+            log.error("发布消息异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 解析订阅收到的消息体，与 publish 使用相同的序列化方式
+     *
+     * @param message 订阅收到的消息
+     * @return 消息内容
+     */
+    public Object parseMessage(Message message) {
+        return redisTemplate.getValueSerializer().deserialize(message.getBody());
+    }
+}
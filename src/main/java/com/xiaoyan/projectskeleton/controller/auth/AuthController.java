@@ -43,13 +43,8 @@ public class AuthController {
     public ApiResponse<JwtTokenDTO> refreshToken(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
         String refreshToken = refreshTokenDTO.getRefreshToken();
         
-        // 验证RefreshToken是否有效
-        if (!jwtUtils.validateRefreshToken(refreshToken)) {
-            throw new BusinessException(CommonErrorCode.UNAUTHORIZED, "RefreshToken已过期或无效");
-        }
-        
-        // 从RefreshToken中获取用户ID
-        Long userId = jwtUtils.getUserIdFromRefreshToken(refreshToken);
+        // 验证RefreshToken并获取用户ID（仅一次签名校验）
+        Long userId = jwtUtils.verifyRefreshToken(refreshToken);
         
         // 获取用户信息
         User user = userService.getById(userId);
@@ -1,14 +1,33 @@
 package com.xiaoyan.projectskeleton.controller.file;
 
 import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.FileErrorCode;
 import com.xiaoyan.projectskeleton.common.util.ApiResponse;
+import com.xiaoyan.projectskeleton.repository.dto.file.FileBatchDeleteDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.FileBatchUploadResultDTO;
 import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedDownloadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedUploadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadPartDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionInitDTO;
+import com.xiaoyan.projectskeleton.service.file.FileDownloadService;
 import com.xiaoyan.projectskeleton.service.file.FileService;
+import com.xiaoyan.projectskeleton.service.file.FileUploadAdmissionService;
+import com.xiaoyan.projectskeleton.service.file.FileUploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,63 +37,70 @@ import java.util.List;
 public class FileController {
 
     private final FileService fileService;
+    private final FileDownloadService fileDownloadService;
+    private final FileUploadSessionService fileUploadSessionService;
+    private final FileUploadAdmissionService fileUploadAdmissionService;
 
     /**
      * 上传单个文件
+     * 在上传线程池中异步执行，受上传准入预算控制
      *
-     * @param file 文件
+     * @param request 上传请求，表单字段 file 为文件
      * @return 文件上传响应
      */
     @PostMapping("/upload")
     @RequireLogin
-    public ApiResponse<FileUploadResponseDTO> uploadFile(@RequestParam("file") MultipartFile file) {
-        FileUploadResponseDTO response = fileService.uploadFile(file);
-        return ApiResponse.success(response, "文件上传成功");
+    public WebAsyncTask<ApiResponse<FileUploadResponseDTO>> uploadFile(HttpServletRequest request) {
+        return fileUploadAdmissionService.submit(request,
+                () -> ApiResponse.success(fileService.uploadFile(getFile(request)), "文件上传成功"));
     }
 
     /**
      * 上传单个文件到指定目录
+     * 在上传线程池中异步执行，受上传准入预算控制
      *
-     * @param file 文件
+     * @param request 上传请求，表单字段 file 为文件
      * @param directory 目录
      * @return 文件上传响应
      */
     @PostMapping("/upload/{directory}")
     @RequireLogin
-    public ApiResponse<FileUploadResponseDTO> uploadFileToDirectory(
-            @RequestParam("file") MultipartFile file,
+    public WebAsyncTask<ApiResponse<FileUploadResponseDTO>> uploadFileToDirectory(
+            HttpServletRequest request,
             @PathVariable("directory") String directory) {
-        FileUploadResponseDTO response = fileService.uploadFile(file, directory);
-        return ApiResponse.success(response, "文件上传成功");
+        return fileUploadAdmissionService.submit(request,
+                () -> ApiResponse.success(fileService.uploadFile(getFile(request), directory), "文件上传成功"));
     }
 
     /**
      * 批量上传文件
+     * 在上传线程池中异步执行，受上传准入预算控制
      *
-     * @param files 文件列表
-     * @return 文件上传响应列表
+     * @param request 上传请求，表单字段 files 为文件列表
+     * @return 每个文件的上传结果
      */
     @PostMapping("/batch-upload")
     @RequireLogin
-    public ApiResponse<List<FileUploadResponseDTO>> batchUploadFiles(@RequestParam("files") List<MultipartFile> files) {
-        List<FileUploadResponseDTO> responses = fileService.uploadFiles(files);
-        return ApiResponse.success(responses, "文件批量上传成功");
+    public WebAsyncTask<ApiResponse<FileBatchUploadResultDTO>> batchUploadFiles(HttpServletRequest request) {
+        return fileUploadAdmissionService.submit(request,
+                () -> ApiResponse.success(fileService.uploadFiles(getFiles(request)), "文件批量上传完成"));
     }
 
     /**
      * 批量上传文件到指定目录
+     * 在上传线程池中异步执行，受上传准入预算控制
      *
-     * @param files 文件列表
+     * @param request 上传请求，表单字段 files 为文件列表
      * @param directory 目录
-     * @return 文件上传响应列表
+     * @return 每个文件的上传结果
      */
     @PostMapping("/batch-upload/{directory}")
     @RequireLogin
-    public ApiResponse<List<FileUploadResponseDTO>> batchUploadFilesToDirectory(
-            @RequestParam("files") List<MultipartFile> files,
+    public WebAsyncTask<ApiResponse<FileBatchUploadResultDTO>> batchUploadFilesToDirectory(
+            HttpServletRequest request,
             @PathVariable("directory") String directory) {
-        List<FileUploadResponseDTO> responses = fileService.uploadFiles(files, directory);
-        return ApiResponse.success(responses, "文件批量上传成功");
+        return fileUploadAdmissionService.submit(request,
+                () -> ApiResponse.success(fileService.uploadFiles(getFiles(request), directory), "文件批量上传完成"));
     }
 
     /**
@@ -89,4 +115,174 @@ public class FileController {
         fileService.deleteFile(objectName);
         return ApiResponse.success(null, "文件删除成功");
     }
-} 
\ No newline at end of file
+
+    /**
+     * 批量删除文件
+     *
+     * @param deleteDTO 对象名称列表，单次最多1000个
+     * @return 删除失败的对象名称
+     */
+    @PostMapping("/batch-delete")
+    @RequireLogin
+    public ApiResponse<List<String>> batchDeleteFiles(@RequestBody @Validated FileBatchDeleteDTO deleteDTO) {
+        List<String> failed = fileService.deleteFiles(deleteDTO.getObjectNames());
+        return ApiResponse.success(failed, failed.isEmpty() ? "文件删除成功" : "部分文件删除失败");
+    }
+
+    /**
+     * 创建分片上传会话
+     *
+     * @param initDTO 文件信息
+     * @return 上传会话，包含服务端确定的分片大小和分片数
+     */
+    @PostMapping("/upload-session")
+    @RequireLogin
+    public ApiResponse<UploadSessionDTO> createUploadSession(@RequestBody @Validated UploadSessionInitDTO initDTO) {
+        UploadSessionDTO session = fileUploadSessionService.createSession(initDTO);
+        return ApiResponse.success(session, "上传会话创建成功");
+    }
+
+    /**
+     * 查询分片上传会话，用于断点续传时获取已上传的分片
+     *
+     * @param sessionId 会话ID
+     * @return 上传会话
+     */
+    @GetMapping("/upload-session/{sessionId}")
+    @RequireLogin
+    public ApiResponse<UploadSessionDTO> getUploadSession(@PathVariable("sessionId") String sessionId) {
+        UploadSessionDTO session = fileUploadSessionService.getSession(sessionId);
+        return ApiResponse.success(session);
+    }
+
+    /**
+     * 上传分片，请求体为分片的原始字节
+     * 请求体直接流式转发到MinIO，不经过multipart解析，也不在服务端缓存
+     *
+     * @param sessionId 会话ID
+     * @param partNumber 分片序号，从1开始
+     * @param request 请求
+     * @return 分片信息
+     */
+    @PutMapping("/upload-session/{sessionId}/parts/{partNumber}")
+    @RequireLogin
+    public ApiResponse<UploadPartDTO> uploadPart(
+            @PathVariable("sessionId") String sessionId,
+            @PathVariable("partNumber") int partNumber,
+            HttpServletRequest request) {
+        long size = request.getContentLengthLong();
+        if (size < 0) {
+            throw new BusinessException(FileErrorCode.UPLOAD_PART_INVALID, "上传分片必须指定 Content-Length");
+        }
+        try (InputStream stream = request.getInputStream()) {
+            UploadPartDTO part = fileUploadSessionService.uploadPart(sessionId, partNumber, stream, size);
+            return ApiResponse.success(part, "分片上传成功");
+        } catch (IOException e) {
+            log.error("读取分片失败: 会话 {} 分片 {}，{}", sessionId, partNumber, e.getMessage());
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "读取分片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 完成分片上传，合并所有分片
+     *
+     * @param sessionId 会话ID
+     * @return 文件上传响应
+     */
+    @PostMapping("/upload-session/{sessionId}/complete")
+    @RequireLogin
+    public ApiResponse<FileUploadResponseDTO> completeUploadSession(@PathVariable("sessionId") String sessionId) {
+        FileUploadResponseDTO response = fileUploadSessionService.completeSession(sessionId);
+        return ApiResponse.success(response, "文件上传成功");
+    }
+
+    /**
+     * 取消分片上传，删除已上传的分片
+     *
+     * @param sessionId 会话ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/upload-session/{sessionId}")
+    @RequireLogin
+    public ApiResponse<Void> abortUploadSession(@PathVariable("sessionId") String sessionId) {
+        fileUploadSessionService.abortSession(sessionId);
+        return ApiResponse.success(null, "上传已取消");
+    }
+
+    /**
+     * 申请预签名直传地址，客户端直接PUT到MinIO
+     *
+     * @param initDTO 文件信息
+     * @return 预签名上传信息
+     */
+    @PostMapping("/presigned-upload")
+    @RequireLogin
+    public ApiResponse<PresignedUploadDTO> createPresignedUpload(@RequestBody @Validated UploadSessionInitDTO initDTO) {
+        PresignedUploadDTO upload = fileService.createPresignedUpload(initDTO);
+        return ApiResponse.success(upload);
+    }
+
+    /**
+     * 确认预签名直传已完成
+     *
+     * @param uploadToken 上传凭证
+     * @return 文件上传响应
+     */
+    @PostMapping("/presigned-upload/{uploadToken}/confirm")
+    @RequireLogin
+    public ApiResponse<FileUploadResponseDTO> confirmPresignedUpload(@PathVariable("uploadToken") String uploadToken) {
+        FileUploadResponseDTO response = fileService.confirmPresignedUpload(uploadToken);
+        return ApiResponse.success(response, "文件上传成功");
+    }
+
+    /**
+     * 获取预签名下载地址，客户端直接从MinIO下载
+     *
+     * @param objectName 对象名称
+     * @return 预签名下载信息
+     */
+    @GetMapping("/presigned-download")
+    @RequireLogin
+    public ApiResponse<PresignedDownloadDTO> getPresignedDownloadUrl(@RequestParam("objectName") String objectName) {
+        PresignedDownloadDTO download = fileService.getPresignedDownloadUrl(objectName);
+        return ApiResponse.success(download);
+    }
+
+    /**
+     * 文件下载接口
+     * 需要登录，可下载任意前缀下的对象；支持 Range、If-None-Match 和 HEAD 请求
+     *
+     * @param objectName 对象名称，可包含目录
+     */
+    @GetMapping("/download/{*objectName}")
+    @RequireLogin
+    public void download(@PathVariable("objectName") String objectName, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        fileDownloadService.download(objectName.startsWith("/") ? objectName.substring(1) : objectName,
+                request, response);
+    }
+
+    /**
+     * 获取表单字段 file 中的文件，请求体在此时才被解析
+     */
+    private static MultipartFile getFile(HttpServletRequest request) {
+        MultipartFile file = request instanceof MultipartHttpServletRequest
+                ? ((MultipartHttpServletRequest) request).getFile("file") : null;
+        if (file == null) {
+            throw new BusinessException(FileErrorCode.FILE_EMPTY);
+        }
+        return file;
+    }
+
+    /**
+     * 获取表单字段 files 中的文件列表，请求体在此时才被解析
+     */
+    private static List<MultipartFile> getFiles(HttpServletRequest request) {
+        List<MultipartFile> files = request instanceof MultipartHttpServletRequest
+                ? ((MultipartHttpServletRequest) request).getFiles("files") : List.of();
+        if (files.isEmpty()) {
+            throw new BusinessException(FileErrorCode.FILE_EMPTY);
+        }
+        return files;
+    }
+}
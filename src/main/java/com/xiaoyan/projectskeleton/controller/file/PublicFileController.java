@@ -1,15 +1,26 @@
 package com.xiaoyan.projectskeleton.controller.file;
 
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.FileErrorCode;
 import com.xiaoyan.projectskeleton.common.util.ApiResponse;
 import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.service.file.FileDownloadService;
 import com.xiaoyan.projectskeleton.service.file.FileService;
+import com.xiaoyan.projectskeleton.service.file.FileUploadAdmissionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.io.IOException;
 
 /**
  * 公共文件上传控制器
@@ -22,18 +33,44 @@ import org.springframework.web.multipart.MultipartFile;
 public class PublicFileController {
 
     private final FileService fileService;
+    private final FileDownloadService fileDownloadService;
+    private final FileUploadAdmissionService fileUploadAdmissionService;
 
     /**
      * 公共文件上传接口
-     * 不需要登录即可访问
+     * 不需要登录即可访问，按客户端IP受上传准入预算控制，在上传线程池中异步执行
      *
-     * @param file 文件
+     * @param request 上传请求，表单字段 file 为文件
      * @return 文件上传响应
      */
     @PostMapping("/upload")
-    public ApiResponse<FileUploadResponseDTO> uploadPublicFile(@RequestParam("file") MultipartFile file) {
-        // 使用public目录存储公共文件
-        FileUploadResponseDTO response = fileService.uploadFile(file, "public");
-        return ApiResponse.success(response, "文件上传成功");
+    public WebAsyncTask<ApiResponse<FileUploadResponseDTO>> uploadPublicFile(HttpServletRequest request) {
+        return fileUploadAdmissionService.submit(request, () -> {
+            MultipartFile file = request instanceof MultipartHttpServletRequest
+                    ? ((MultipartHttpServletRequest) request).getFile("file") : null;
+            if (file == null) {
+                throw new BusinessException(FileErrorCode.FILE_EMPTY);
+            }
+            // 使用public目录存储公共文件
+            FileUploadResponseDTO response = fileService.uploadFile(file, "public");
+            return ApiResponse.success(response, "文件上传成功");
+        });
+    }
+
+    /**
+     * 文件下载接口
+     * 支持 Range、If-None-Match 和 HEAD 请求，不需要登录即可访问，只能下载公开前缀下的对象，其他对象返回404
+     *
+     * @param objectName 对象名称，可包含目录
+     */
+    @GetMapping("/download/{*objectName}")
+    public void download(@PathVariable("objectName") String objectName, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        String name = objectName.startsWith("/") ? objectName.substring(1) : objectName;
+        if (!fileDownloadService.isPublic(name)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileDownloadService.download(name, request, response);
     }
 } 
\ No newline at end of file
@@ -1,17 +1,21 @@
 package com.xiaoyan.projectskeleton.controller.permission;
 
 import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
+import com.xiaoyan.projectskeleton.common.annotation.RequirePermissions;
 import com.xiaoyan.projectskeleton.common.annotation.RequireRoles;
 import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
 import com.xiaoyan.projectskeleton.common.util.ApiResponse;
 import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionCreateDTO;
 import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionTreeCacheDTO;
 import com.xiaoyan.projectskeleton.repository.dto.permission.RolePermissionAssignDTO;
 import com.xiaoyan.projectskeleton.service.permission.PermissionService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -35,6 +39,7 @@ public class PermissionController {
     @PostMapping("/create")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
+    @RequirePermissions("PERMISSION_CREATE")
     public ApiResponse<Long> createPermission(@RequestBody @Valid PermissionCreateDTO createDTO) {
         log.info("创建权限: {}", createDTO.getName());
         Long permissionId = permissionService.createPermission(createDTO);
@@ -43,30 +48,42 @@ public class PermissionController {
     
     /**
      * 获取权限树
+     * 响应携带权限数据版本号作为ETag，客户端携带 If-None-Match 且版本未变化时返回304
      *
+     * @param webRequest 当前请求
      * @return 权限树
      */
     @GetMapping("/tree")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
-    public ApiResponse<List<PermissionDTO>> getPermissionTree() {
+    @RequirePermissions("PERMISSION_QUERY")
+    public ResponseEntity<ApiResponse<List<PermissionDTO>>> getPermissionTree(WebRequest webRequest) {
+        PermissionTreeCacheDTO cache = permissionService.getPermissionTreeCache();
+        if (cache.getETag() != null && webRequest.checkNotModified(cache.getETag())) {
+            return null;
+        }
         log.info("获取权限树");
-        List<PermissionDTO> permissionTree = permissionService.getPermissionTree();
-        return ApiResponse.success(permissionTree, "获取权限树成功");
+        return withETag(cache, ApiResponse.success(cache.getTree(), "获取权限树成功"));
     }
     
     /**
      * 获取所有权限（平铺结构）
+     * 与权限树使用相同的版本号作为ETag
      *
+     * @param webRequest 当前请求
      * @return 权限列表
      */
     @GetMapping("/list")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
-    public ApiResponse<List<PermissionDTO>> getAllPermissions() {
+    @RequirePermissions("PERMISSION_QUERY")
+    public ResponseEntity<ApiResponse<List<PermissionDTO>>> getAllPermissions(WebRequest webRequest) {
+        PermissionTreeCacheDTO cache = permissionService.getPermissionTreeCache();
+        if (cache.getETag() != null && webRequest.checkNotModified(cache.getETag())) {
+            return null;
+        }
         log.info("获取所有权限");
-        List<PermissionDTO> permissions = permissionService.getAllPermissions();
-        return ApiResponse.success(permissions, "获取权限列表成功");
+        return withETag(cache, ApiResponse.success(cache.getList(), "获取权限列表成功"));
     }
     
     /**
@@ -78,6 +95,7 @@ public class PermissionController {
     @GetMapping("/{id}")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
+    @RequirePermissions("PERMISSION_QUERY")
     public ApiResponse<PermissionDTO> getPermissionById(@PathVariable Long id) {
         log.info("根据ID获取权限: {}", id);
         PermissionDTO permission = permissionService.getPermissionById(id);
@@ -93,6 +111,7 @@ public class PermissionController {
     @GetMapping("/role/{roleId}")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
+    @RequirePermissions("PERMISSION_QUERY")
     public ApiResponse<List<PermissionDTO>> getPermissionsByRoleId(@PathVariable Long roleId) {
         log.info("获取角色的权限列表: {}", roleId);
         List<PermissionDTO> permissions = permissionService.getPermissionsByRoleId(roleId);
@@ -108,6 +127,7 @@ public class PermissionController {
     @PostMapping("/assign")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
+    @RequirePermissions("PERMISSION_ASSIGN")
     public ApiResponse<Boolean> assignPermissionsToRole(@RequestBody @Valid RolePermissionAssignDTO assignDTO) {
         log.info("为角色分配权限: {}", assignDTO.getRoleId());
         boolean result = permissionService.assignPermissionsToRole(assignDTO);
@@ -123,6 +143,7 @@ public class PermissionController {
     @DeleteMapping("/{id}")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
+    @RequirePermissions("PERMISSION_DELETE")
     public ApiResponse<Boolean> deletePermission(@PathVariable Long id) {
         log.info("删除权限: {}", id);
         boolean result = permissionService.deletePermission(id);
@@ -139,9 +160,25 @@ public class PermissionController {
     @DeleteMapping("/role/{roleId}/permission/{permissionId}")
     @RequireLogin
     @RequireRoles({RoleEnum.ADMIN})
+    @RequirePermissions("PERMISSION_ASSIGN")
     public ApiResponse<Boolean> removePermissionFromRole(@PathVariable Long roleId, @PathVariable Long permissionId) {
         log.info("取消角色的指定权限: 角色ID={}, 权限ID={}", roleId, permissionId);
         boolean result = permissionService.removePermissionFromRole(roleId, permissionId);
         return ApiResponse.success(result, "取消权限成功");
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 构建携带ETag的响应
+     *
+     * @param cache 权限缓存
+     * @param body 响应体
+     * @return 响应
+     */
+    private <T> ResponseEntity<ApiResponse<T>> withETag(PermissionTreeCacheDTO cache, ApiResponse<T> body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (cache.getETag() != null) {
+            builder.eTag(cache.getETag());
+        }
+        return builder.body(body);
+    }
+}
@@ -1,6 +1,7 @@
 package com.xiaoyan.projectskeleton.controller.role;
 
 import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
+import com.xiaoyan.projectskeleton.common.annotation.RequirePermissions;
 import com.xiaoyan.projectskeleton.common.annotation.RequireRoles;
 import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
 import com.xiaoyan.projectskeleton.common.util.ApiResponse;
@@ -47,6 +48,7 @@ public class RoleController {
     @PostMapping("/create")
     @RequireLogin
     @RequireRoles(RoleEnum.ADMIN)
+    @RequirePermissions("ROLE_CREATE")
     public ApiResponse<RoleDTO> createRole(@RequestBody @Validated RoleCreateDTO createDTO) {
         log.info("创建角色: {}", createDTO.getName());
         RoleDTO roleDTO = roleService.createRole(createDTO);
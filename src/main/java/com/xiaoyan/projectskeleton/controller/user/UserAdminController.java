@@ -1,15 +1,28 @@
 package com.xiaoyan.projectskeleton.controller.user;
 
 import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
+import com.xiaoyan.projectskeleton.common.annotation.RequirePermissions;
 import com.xiaoyan.projectskeleton.common.annotation.RequireRoles;
 import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xiaoyan.projectskeleton.common.util.ApiResponse;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserBatchOperationDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserBatchResultDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserCursorPageDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
 import com.xiaoyan.projectskeleton.service.user.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -26,18 +39,68 @@ public class UserAdminController {
 
     private final UserService userService;
     
+    private final ObjectMapper objectMapper;
+    
     /**
      * 获取所有用户列表
      * 
      * @return 用户列表
      */
     @GetMapping("/list")
+    @RequirePermissions("USER_QUERY")
     public ApiResponse<List<UserProfileDTO>> listAllUsers() {
         log.info("获取所有用户列表");
         List<UserProfileDTO> userList = userService.listAllUsers();
         return ApiResponse.success(userList, "获取用户列表成功");
     }
     
+    /**
+     * 游标分页获取用户列表
+     * 
+     * @param cursor 上一页返回的nextCursor，首页不传
+     * @param size 每页条数，默认20，最大100
+     * @param status 账号状态，可选
+     * @param roleId 角色ID，可选
+     * @return 分页结果
+     */
+    @GetMapping("/page")
+    @RequirePermissions("USER_QUERY")
+    public ApiResponse<UserCursorPageDTO> pageUsers(@RequestParam(required = false) Long cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) Integer status,
+                                                    @RequestParam(required = false) Long roleId) {
+        log.info("游标分页获取用户列表，cursor：{}，size：{}，status：{}，roleId：{}", cursor, size, status, roleId);
+        UserCursorPageDTO page = userService.pageUsers(cursor, size, status, roleId);
+        return ApiResponse.success(page, "获取用户列表成功");
+    }
+    
+    /**
+     * 以NDJSON格式流式导出用户列表
+     * 每行一个用户JSON对象，边查询边写出，不在内存中缓存全部用户
+     * 
+     * @param status 账号状态，可选
+     * @param roleId 角色ID，可选
+     * @return NDJSON流
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @RequirePermissions("USER_EXPORT")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) Integer status,
+                                                             @RequestParam(required = false) Long roleId) {
+        log.info("流式导出用户列表，status：{}，roleId：{}", status, roleId);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                userService.streamUsers(status, roleId, user -> writeLine(out, user));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     /**
      * 封禁用户
      * 
@@ -46,6 +109,7 @@ public class UserAdminController {
      * @return 操作结果
      */
     @PutMapping("/{userId}/ban")
+    @RequirePermissions("USER_STATUS_UPDATE")
     public ApiResponse<Void> banUser(@PathVariable Long userId, @RequestParam(required = false) String reason) {
         log.info("封禁用户：{}，原因：{}", userId, reason);
         userService.banUser(userId, reason);
@@ -59,6 +123,7 @@ public class UserAdminController {
      * @return 操作结果
      */
     @PutMapping("/{userId}/unban")
+    @RequirePermissions("USER_STATUS_UPDATE")
     public ApiResponse<Void> unbanUser(@PathVariable Long userId) {
         log.info("解封用户：{}", userId);
         userService.unbanUser(userId);
@@ -72,6 +137,7 @@ public class UserAdminController {
      * @return 操作结果
      */
     @PutMapping("/{userId}/disable")
+    @RequirePermissions("USER_STATUS_UPDATE")
     public ApiResponse<Void> disableUser(@PathVariable Long userId) {
         log.info("禁用用户：{}", userId);
         userService.disableUser(userId);
@@ -85,6 +151,7 @@ public class UserAdminController {
      * @return 操作结果
      */
     @PutMapping("/{userId}/enable")
+    @RequirePermissions("USER_STATUS_UPDATE")
     public ApiResponse<Void> enableUser(@PathVariable Long userId) {
         log.info("启用用户：{}", userId);
         userService.enableUser(userId);
@@ -98,9 +165,77 @@ public class UserAdminController {
      * @return 操作结果
      */
     @DeleteMapping("/{userId}")
+    @RequirePermissions("USER_DELETE")
     public ApiResponse<Void> deleteUser(@PathVariable Long userId) {
         log.info("删除用户：{}", userId);
         userService.deleteUser(userId);
         return ApiResponse.success(null, "删除用户成功");
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 批量封禁用户
+     * 
+     * @param batchDTO 用户ID列表及封禁原因
+     * @return 每个用户的处理结果
+     */
+    @PostMapping("/batch/ban")
+    @RequirePermissions("USER_STATUS_UPDATE")
+    public ApiResponse<UserBatchResultDTO> batchBanUsers(@RequestBody @Validated UserBatchOperationDTO batchDTO) {
+        log.info("批量封禁用户：{} 个", batchDTO.getUserIds().size());
+        return ApiResponse.success(userService.batchBanUsers(batchDTO.getUserIds(), batchDTO.getReason()), "批量封禁完成");
+    }
+    
+    /**
+     * 批量解封用户
+     * 
+     * @param batchDTO 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    @PostMapping("/batch/unban")
+    @RequirePermissions("USER_STATUS_UPDATE")
+    public ApiResponse<UserBatchResultDTO> batchUnbanUsers(@RequestBody @Validated UserBatchOperationDTO batchDTO) {
+        log.info("批量解封用户：{} 个", batchDTO.getUserIds().size());
+        return ApiResponse.success(userService.batchUnbanUsers(batchDTO.getUserIds()), "批量解封完成");
+    }
+    
+    /**
+     * 批量启用用户
+     * 
+     * @param batchDTO 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    @PostMapping("/batch/enable")
+    @RequirePermissions("USER_STATUS_UPDATE")
+    public ApiResponse<UserBatchResultDTO> batchEnableUsers(@RequestBody @Validated UserBatchOperationDTO batchDTO) {
+        log.info("批量启用用户：{} 个", batchDTO.getUserIds().size());
+        return ApiResponse.success(userService.batchEnableUsers(batchDTO.getUserIds()), "批量启用完成");
+    }
+    
+    /**
+     * 批量删除用户
+     * 
+     * @param batchDTO 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    @PostMapping("/batch/delete")
+    @RequirePermissions("USER_DELETE")
+    public ApiResponse<UserBatchResultDTO> batchDeleteUsers(@RequestBody @Validated UserBatchOperationDTO batchDTO) {
+        log.info("批量删除用户：{} 个", batchDTO.getUserIds().size());
+        return ApiResponse.success(userService.batchDeleteUsers(batchDTO.getUserIds()), "批量删除完成");
+    }
+    
+    /**
+     * 写出一行NDJSON
+     * 
+     * @param out 输出流
+     * @param user 用户资料
+     */
+    private void writeLine(OutputStream out, UserProfileDTO user) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(user));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
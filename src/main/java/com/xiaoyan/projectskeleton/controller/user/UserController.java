@@ -1,11 +1,13 @@
 package com.xiaoyan.projectskeleton.controller.user;
 
+import com.xiaoyan.projectskeleton.common.annotation.RateLimit;
 import com.xiaoyan.projectskeleton.common.annotation.RequireLogin;
 import com.xiaoyan.projectskeleton.common.util.ApiResponse;
 import com.xiaoyan.projectskeleton.repository.dto.user.JwtTokenDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserLoginDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserRegisterDTO;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailDeliveryStatusDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.PasswordResetRequestDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.PasswordResetVerifyDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileUpdateDTO;
@@ -35,6 +37,7 @@ public class UserController {
      * @return 注册结果
      */
     @PostMapping("/register")
+    @RateLimit(limit = 10, window = 3600, message = "注册过于频繁，请稍后再试")
     public ApiResponse<User> register(@RequestBody @Validated UserRegisterDTO registerDTO) {
         log.info("用户注册: {}", registerDTO.getUsername());
         User user = userService.register(registerDTO);
@@ -47,6 +50,9 @@ public class UserController {
      * @return 登录结果（JWT令牌）
      */
     @PostMapping("/login")
+    @RateLimit(limit = 30, window = 60, message = "登录过于频繁，请稍后再试")
+    @RateLimit(key = RateLimit.KeyType.BODY, param = "username", limit = 10, window = 300,
+            message = "该账号登录尝试过于频繁，请5分钟后再试")
     public ApiResponse<JwtTokenDTO> login(@RequestBody @Validated UserLoginDTO loginDTO) {
         log.info("用户登录: {}", loginDTO.getUsername());
         JwtTokenDTO jwtTokenDTO = userService.login(loginDTO);
@@ -110,6 +116,7 @@ public class UserController {
      * @return 检查结果
      */
     @GetMapping("/check-username")
+    @RateLimit(name = "user-check", limit = 60, window = 60)
     public ApiResponse<Boolean> checkUsername(@RequestParam String username) {
         boolean exists = userService.checkUsernameExists(username);
         return ApiResponse.success(exists);
@@ -121,6 +128,7 @@ public class UserController {
      * @return 检查结果
      */
     @GetMapping("/check-email")
+    @RateLimit(name = "user-check", limit = 60, window = 60)
     public ApiResponse<Boolean> checkEmail(@RequestParam String email) {
         boolean exists = userService.checkEmailExists(email);
         return ApiResponse.success(exists);
@@ -132,10 +140,24 @@ public class UserController {
      * @return 发送结果
      */
     @PostMapping("/password/reset-code")
-    public ApiResponse<Void> sendPasswordResetCode(@RequestBody @Validated PasswordResetRequestDTO requestDTO) {
+    @RateLimit(limit = 10, window = 3600)
+    @RateLimit(key = RateLimit.KeyType.BODY, param = "email", limit = 5, window = 3600,
+            message = "该邮箱获取验证码次数过多，请1小时后再试")
+    public ApiResponse<EmailDeliveryStatusDTO> sendPasswordResetCode(@RequestBody @Validated PasswordResetRequestDTO requestDTO) {
         log.info("发送密码重置验证码: {}", requestDTO.getEmail());
-        userService.sendPasswordResetCode(requestDTO);
-        return ApiResponse.success(null, "验证码已发送到您的邮箱，请注意查收");
+        EmailDeliveryStatusDTO deliveryStatus = userService.sendPasswordResetCode(requestDTO);
+        return ApiResponse.success(deliveryStatus, "验证码已发送到您的邮箱，请注意查收");
+    }
+    
+    /**
+     * 查询密码重置验证码邮件的发送状态
+     * @param trackingId 发送跟踪ID
+     * @return 发送状态
+     */
+    @GetMapping("/password/reset-code/{trackingId}")
+    public ApiResponse<EmailDeliveryStatusDTO> getPasswordResetCodeStatus(@PathVariable String trackingId) {
+        EmailDeliveryStatusDTO deliveryStatus = userService.getPasswordResetCodeStatus(trackingId);
+        return ApiResponse.success(deliveryStatus, "获取发送状态成功");
     }
     
     /**
@@ -144,6 +166,8 @@ public class UserController {
      * @return 重置结果
      */
     @PostMapping("/password/reset")
+    @RateLimit(key = RateLimit.KeyType.BODY, param = "email", limit = 10, window = 300,
+            message = "验证码尝试次数过多，请5分钟后再试")
     public ApiResponse<Void> resetPassword(@RequestBody @Validated PasswordResetVerifyDTO verifyDTO) {
         log.info("验证验证码并重置密码: {}", verifyDTO.getEmail());
         userService.verifyCodeAndResetPassword(verifyDTO);
@@ -0,0 +1,35 @@
+package com.xiaoyan.projectskeleton.mapper.email;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoyan.projectskeleton.repository.entity.email.EmailOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 邮件发送队列Mapper接口
+ */
+@Mapper
+public interface EmailOutboxMapper extends BaseMapper<EmailOutbox> {
+    
+    /**
+     * 领取一批到期的待发送邮件
+     * 单条UPDATE完成领取，多个发送线程或多个节点之间不会重复领取
+     * @param claimToken 本次领取的批次标识
+     * @param limit 最多领取条数
+     * @return 领取条数
+     */
+    @Update("UPDATE email_outbox SET status = 1, claim_token = #{claimToken}, update_time = NOW() " +
+            "WHERE status = 0 AND next_retry_time <= NOW() AND deleted = 0 " +
+            "ORDER BY next_retry_time LIMIT #{limit}")
+    int claimPending(@Param("claimToken") String claimToken, @Param("limit") int limit);
+    
+    /**
+     * 将发送超时的邮件恢复为待发送（发送线程所在节点宕机等情况）
+     * @param timeoutSeconds 发送超时时间（秒）
+     * @return 恢复条数
+     */
+    @Update("UPDATE email_outbox SET status = 0, claim_token = NULL, update_time = NOW() " +
+            "WHERE status = 1 AND update_time < DATE_SUB(NOW(), INTERVAL #{timeoutSeconds} SECOND) AND deleted = 0")
+    int recoverStuck(@Param("timeoutSeconds") long timeoutSeconds);
+}
@@ -0,0 +1,75 @@
+package com.xiaoyan.projectskeleton.mapper.file;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoyan.projectskeleton.repository.entity.file.FileObject;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文件内容索引Mapper接口
+ */
+@Mapper
+public interface FileObjectMapper extends BaseMapper<FileObject> {
+    
+    /**
+     * 根据内容摘要和目录查询
+     * @param sha256 内容SHA-256
+     * @param directory 目录，未指定时为空字符串
+     * @return 索引记录，不存在时返回null
+     */
+    @Select("SELECT * FROM file_object WHERE sha256 = #{sha256} AND directory = #{directory} AND deleted = 0")
+    FileObject selectBySha256(@Param("sha256") String sha256, @Param("directory") String directory);
+    
+    /**
+     * 根据对象名称查询并加行锁，用于减少引用
+     * @param objectName 对象名称
+     * @return 索引记录，不存在时返回null
+     */
+    @Select("SELECT * FROM file_object WHERE object_name = #{objectName} AND deleted = 0 FOR UPDATE")
+    FileObject selectByObjectNameForUpdate(@Param("objectName") String objectName);
+    
+    /**
+     * 增加引用次数
+     * 引用次数已降为0（正在删除）时不更新，调用方应重新上传
+     * @param id 记录ID
+     * @return 更新条数
+     */
+    @Update("UPDATE file_object SET ref_count = ref_count + 1, update_time = NOW() " +
+            "WHERE id = #{id} AND ref_count > 0 AND deleted = 0")
+    int incrementRefCount(@Param("id") Long id);
+    
+    /**
+     * 减少引用次数
+     * @param id 记录ID
+     * @return 更新条数
+     */
+    @Update("UPDATE file_object SET ref_count = ref_count - 1, update_time = NOW() " +
+            "WHERE id = #{id} AND ref_count > 0 AND deleted = 0")
+    int decrementRefCount(@Param("id") Long id);
+    
+    /**
+     * 物理删除引用次数为0的记录
+     * 不使用逻辑删除，否则相同内容再次上传时与唯一索引冲突
+     * @param id 记录ID
+     * @return 删除条数
+     */
+    @Delete("DELETE FROM file_object WHERE id = #{id} AND ref_count = 0")
+    int deleteUnreferenced(@Param("id") Long id);
+    
+    /**
+     * 筛选已登记在索引中的对象名称
+     * @param objectNames 对象名称
+     * @return 已登记的对象名称
+     */
+    @Select("<script>" +
+            "SELECT object_name FROM file_object WHERE deleted = 0 AND object_name IN " +
+            "<foreach collection='objectNames' item='objectName' open='(' separator=',' close=')'>#{objectName}</foreach>" +
+            "</script>")
+    List<String> selectExistingObjectNames(@Param("objectNames") Collection<String> objectNames);
+}
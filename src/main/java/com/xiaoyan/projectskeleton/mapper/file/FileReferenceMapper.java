@@ -0,0 +1,23 @@
+package com.xiaoyan.projectskeleton.mapper.file;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoyan.projectskeleton.repository.entity.file.FileReference;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 文件引用Mapper接口
+ */
+@Mapper
+public interface FileReferenceMapper extends BaseMapper<FileReference> {
+    
+    /**
+     * 物理删除用户对某个对象的一条引用
+     * @param fileObjectId 文件内容索引ID
+     * @param userId 用户ID
+     * @return 删除条数，0表示该用户没有引用该对象
+     */
+    @Delete("DELETE FROM file_reference WHERE file_object_id = #{fileObjectId} AND user_id = #{userId} LIMIT 1")
+    int deleteOne(@Param("fileObjectId") Long fileObjectId, @Param("userId") Long userId);
+}
@@ -1,12 +1,30 @@
 package com.xiaoyan.projectskeleton.mapper.permission;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionDTO;
 import com.xiaoyan.projectskeleton.repository.entity.permission.Permission;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 权限Mapper接口
  */
 @Mapper
 public interface PermissionMapper extends BaseMapper<Permission> {
-} 
\ No newline at end of file
+    
+    /**
+     * 查询角色拥有的权限（含父权限名称）
+     * @param roleId 角色ID
+     * @return 权限DTO列表，typeName 需由调用方填充
+     */
+    @Select("SELECT p.id, p.name, p.code, p.type, p.parent_id, pp.name AS parent_name, " +
+            "p.path, p.icon, p.sort, p.create_time FROM role_permission rp " +
+            "INNER JOIN permission p ON p.id = rp.permission_id AND p.deleted = 0 " +
+            "LEFT JOIN permission pp ON pp.id = p.parent_id AND pp.deleted = 0 " +
+            "WHERE rp.role_id = #{roleId} AND rp.deleted = 0 " +
+            "ORDER BY p.id")
+    List<PermissionDTO> selectPermissionsByRoleId(@Param("roleId") Long roleId);
+}
@@ -1,12 +1,45 @@
 package com.xiaoyan.projectskeleton.mapper.permission;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoyan.projectskeleton.repository.dto.permission.RolePermissionCodeDTO;
 import com.xiaoyan.projectskeleton.repository.entity.permission.RolePermission;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 角色权限关联Mapper接口
  */
 @Mapper
 public interface RolePermissionMapper extends BaseMapper<RolePermission> {
-} 
\ No newline at end of file
+    
+    /**
+     * 查询所有有效的角色编码与权限编码关联
+     * @return 角色编码与权限编码关联列表
+     */
+    @Select("SELECT r.code AS role_code, p.code AS permission_code FROM role_permission rp " +
+            "INNER JOIN role r ON r.id = rp.role_id AND r.deleted = 0 " +
+            "INNER JOIN permission p ON p.id = rp.permission_id AND p.deleted = 0 " +
+            "WHERE rp.deleted = 0")
+    List<RolePermissionCodeDTO> selectAllRolePermissionCodes();
+    
+    /**
+     * 批量插入角色权限关联（单条多值INSERT语句）
+     * 已被逻辑删除的同一关联会命中唯一索引 uk_role_permission，此时恢复该记录而不是报错
+     * @param roleId 角色ID
+     * @param permissionIds 权限ID集合，不能为空
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO role_permission (role_id, permission_id, create_time, update_time, create_by, update_by, deleted, version) VALUES " +
+            "<foreach collection='permissionIds' item='permissionId' separator=','>" +
+            "(#{roleId}, #{permissionId}, NOW(), NOW(), 'system', 'system', 0, 1)" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE deleted = 0, update_time = NOW(), update_by = 'system', version = version + 1" +
+            "</script>")
+    int insertBatch(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+}
@@ -1,12 +1,70 @@
 package com.xiaoyan.projectskeleton.mapper.user;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
 import com.xiaoyan.projectskeleton.repository.entity.user.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 用户Mapper接口
  */
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
-} 
\ No newline at end of file
+    
+    /**
+     * 流式查询用户资料
+     * 使用MySQL流式结果集（fetchSize = Integer.MIN_VALUE）逐行回调，不在内存中缓存整个结果集
+     * @param status 账号状态，为空时不过滤
+     * @param roleId 角色ID，为空时不过滤
+     * @param handler 逐行处理器
+     */
+    @Select("<script>" +
+            "SELECT u.id AS user_id, u.username, u.email, u.mobile, u.avatar, u.status, " +
+            "DATE_FORMAT(u.last_login_time, '%Y-%m-%d %H:%i:%s') AS last_login_time, " +
+            "r.name AS role_name, r.code AS role_code, " +
+            "CASE WHEN up.id IS NULL THEN u.username ELSE up.nickname END AS nickname, " +
+            "up.real_name, up.gender, up.birthday, up.signature, up.address, up.bio " +
+            "FROM `user` u " +
+            "LEFT JOIN user_profile up ON up.user_id = u.id AND up.deleted = 0 " +
+            "LEFT JOIN role r ON r.id = u.role_id AND r.deleted = 0 " +
+            "WHERE u.deleted = 0 " +
+            "<if test='status != null'>AND u.status = #{status} </if>" +
+            "<if test='roleId != null'>AND u.role_id = #{roleId} </if>" +
+            "ORDER BY u.id" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(UserProfileDTO.class)
+    void streamUserProfiles(@Param("status") Integer status, @Param("roleId") Long roleId,
+                            ResultHandler<UserProfileDTO> handler);
+    
+    /**
+     * 流式查询全部未删除用户的用户名和邮箱
+     * @param handler 逐行处理器
+     */
+    @Select("SELECT username, email FROM `user` WHERE deleted = 0")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(User.class)
+    void streamUsernamesAndEmails(ResultHandler<User> handler);
+    
+    /**
+     * 查询头像位于指定目录中的用户头像URL，包括已删除的用户
+     * 目录为URL中从 avatars/ 开始的前两级路径，如 avatars/{id}
+     * @param directories 头像目录
+     * @return 头像URL
+     */
+    @Select("<script>" +
+            "SELECT avatar FROM `user` WHERE avatar IS NOT NULL AND LOCATE('avatars/', avatar) > 0 " +
+            "AND SUBSTRING_INDEX(SUBSTRING(avatar, LOCATE('avatars/', avatar)), '/', 2) IN " +
+            "<foreach collection='directories' item='directory' open='(' separator=',' close=')'>#{directory}</foreach>" +
+            "</script>")
+    List<String> selectAvatarsInDirectories(@Param("directories") Collection<String> directories);
+}
@@ -0,0 +1,41 @@
+package com.xiaoyan.projectskeleton.repository.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 邮件发送状态DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDeliveryStatusDTO {
+    
+    /**
+     * 发送跟踪ID
+     */
+    private String trackingId;
+    
+    /**
+     * 发送状态：0-待发送，1-发送中，2-已发送，3-发送失败
+     */
+    private Integer status;
+    
+    /**
+     * 发送状态名称
+     */
+    private String statusName;
+    
+    /**
+     * 已失败次数
+     */
+    private Integer retryCount;
+    
+    /**
+     * 发送成功时间
+     */
+    private String sentTime;
+}
@@ -0,0 +1,46 @@
+package com.xiaoyan.projectskeleton.repository.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 待发送邮件DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailMessageDTO {
+    
+    /**
+     * 收件人邮箱，多个邮箱以逗号分隔
+     */
+    private String to;
+    
+    /**
+     * 邮件主题
+     */
+    private String subject;
+    
+    /**
+     * HTML内容
+     */
+    private String content;
+    
+    /**
+     * 业务类型，可为空
+     */
+    private String bizType;
+    
+    /**
+     * 业务标识，可为空
+     */
+    private String bizKey;
+    
+    /**
+     * 发送跟踪ID，可为空，为空时自动生成
+     */
+    private String trackingId;
+}
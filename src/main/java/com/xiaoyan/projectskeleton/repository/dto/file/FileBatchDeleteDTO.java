@@ -0,0 +1,21 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 文件批量删除请求DTO
+ */
+@Data
+public class FileBatchDeleteDTO {
+    
+    /**
+     * 对象名称列表
+     */
+    @NotEmpty(message = "对象名称列表不能为空")
+    @Size(max = 1000, message = "单次最多删除1000个文件")
+    private List<String> objectNames;
+}
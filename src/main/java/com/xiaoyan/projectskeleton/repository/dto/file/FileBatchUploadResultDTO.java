@@ -0,0 +1,38 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 文件批量上传结果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBatchUploadResultDTO {
+    
+    /**
+     * 文件总数
+     */
+    private Integer total;
+    
+    /**
+     * 成功数
+     */
+    private Integer successCount;
+    
+    /**
+     * 失败数
+     */
+    private Integer failureCount;
+    
+    /**
+     * 每个文件的上传结果，顺序与请求一致
+     */
+    private List<FileUploadItemResultDTO> results;
+}
@@ -0,0 +1,46 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量上传中单个文件的结果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileUploadItemResultDTO {
+    
+    /**
+     * 文件在请求中的序号（从0开始）
+     */
+    private Integer index;
+    
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+    
+    /**
+     * 是否成功
+     */
+    private Boolean success;
+    
+    /**
+     * 失败时的错误码
+     */
+    private Integer code;
+    
+    /**
+     * 结果说明
+     */
+    private String message;
+    
+    /**
+     * 成功时的上传结果
+     */
+    private FileUploadResponseDTO file;
+}
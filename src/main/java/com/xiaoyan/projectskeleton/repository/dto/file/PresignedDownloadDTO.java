@@ -0,0 +1,31 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 预签名下载DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedDownloadDTO {
+    
+    /**
+     * 存储路径
+     */
+    private String objectName;
+    
+    /**
+     * 预签名GET地址
+     */
+    private String url;
+    
+    /**
+     * 地址有效期（秒）
+     */
+    private Long expireSeconds;
+}
@@ -0,0 +1,66 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 预签名直传DTO
+ * 客户端以 multipart/form-data 向 url 提交 formData 中的全部字段，最后附上 file 字段，直接上传到MinIO，
+ * 上传完成后凭 uploadToken 确认；
+ * 同一对象同时保存在Redis中，确认时用于校验上传结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadDTO {
+    
+    /**
+     * 上传凭证，确认上传时使用
+     */
+    private String uploadToken;
+    
+    /**
+     * 申请上传的用户ID
+     */
+    private Long userId;
+    
+    /**
+     * 上传地址（存储桶地址），使用POST提交
+     */
+    private String url;
+    
+    /**
+     * 上传表单字段，包含对象名称、文件类型和签名后的上传策略
+     */
+    private Map<String, String> formData;
+    
+    /**
+     * 地址有效期（秒）
+     */
+    private Long expireSeconds;
+    
+    /**
+     * 存储路径
+     */
+    private String objectName;
+    
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+    
+    /**
+     * 文件类型，已包含在上传表单字段中
+     */
+    private String contentType;
+    
+    /**
+     * 声明的文件大小（字节），确认时与实际大小比较
+     */
+    private Long fileSize;
+}
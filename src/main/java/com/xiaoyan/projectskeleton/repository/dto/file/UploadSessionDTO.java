@@ -0,0 +1,69 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 分片上传会话DTO
+ * 会话状态保存在Redis中，已上传的分片单独保存，查询会话时填充到 uploadedParts
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    
+    /**
+     * 会话ID
+     */
+    private String sessionId;
+    
+    /**
+     * 创建会话的用户ID
+     */
+    private Long userId;
+    
+    /**
+     * MinIO分片上传ID
+     */
+    private String uploadId;
+    
+    /**
+     * 存储路径
+     */
+    private String objectName;
+    
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+    
+    /**
+     * 文件类型
+     */
+    private String contentType;
+    
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+    
+    /**
+     * 分片大小（字节），最后一个分片为剩余大小
+     */
+    private Long partSize;
+    
+    /**
+     * 分片总数
+     */
+    private Integer totalParts;
+    
+    /**
+     * 已上传的分片，按序号升序
+     */
+    private List<UploadPartDTO> uploadedParts;
+}
@@ -0,0 +1,37 @@
+package com.xiaoyan.projectskeleton.repository.dto.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * 创建上传请求DTO
+ * 分片上传会话和预签名直传共用
+ */
+@Data
+public class UploadSessionInitDTO {
+    
+    /**
+     * 原始文件名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+    
+    /**
+     * 文件大小（字节）
+     */
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long fileSize;
+    
+    /**
+     * 文件类型
+     */
+    private String contentType;
+    
+    /**
+     * 存储目录，为空时使用日期目录
+     */
+    private String directory;
+}
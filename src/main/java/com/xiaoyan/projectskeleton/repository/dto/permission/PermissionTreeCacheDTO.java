@@ -0,0 +1,89 @@
+package com.xiaoyan.projectskeleton.repository.dto.permission;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 权限树缓存DTO
+ * 构建完成后不可变，多个请求共享同一实例
+ * 权限节点本身可修改，因此构建时复制一份保存，读取时再返回副本，调用方修改返回值不会影响缓存
+ */
+@Getter
+public final class PermissionTreeCacheDTO {
+    
+    /**
+     * 权限数据版本号，每次权限或角色权限变更后递增，为空表示版本号不可用
+     */
+    private final Long version;
+    
+    /**
+     * 权限树
+     */
+    @Getter(AccessLevel.NONE)
+    private final List<PermissionDTO> tree;
+    
+    /**
+     * 权限列表（平铺结构）
+     */
+    @Getter(AccessLevel.NONE)
+    private final List<PermissionDTO> list;
+    
+    /**
+     * 构建时间（毫秒时间戳）
+     */
+    private final long buildTime;
+    
+    public PermissionTreeCacheDTO(Long version, List<PermissionDTO> tree, List<PermissionDTO> list, long buildTime) {
+        this.version = version;
+        this.tree = copyOf(tree);
+        this.list = copyOf(list);
+        this.buildTime = buildTime;
+    }
+    
+    /**
+     * 获取权限树
+     *
+     * @return 权限树副本
+     */
+    public List<PermissionDTO> getTree() {
+        return copyOf(tree);
+    }
+    
+    /**
+     * 获取权限列表（平铺结构）
+     *
+     * @return 权限列表副本
+     */
+    public List<PermissionDTO> getList() {
+        return copyOf(list);
+    }
+    
+    /**
+     * 获取用于HTTP缓存的ETag
+     *
+     * @return ETag，版本号不可用时返回null
+     */
+    public String getETag() {
+        return version == null ? null : "\"" + version + "\"";
+    }
+    
+    /**
+     * 深拷贝权限节点，子权限列表一并复制
+     */
+    private static List<PermissionDTO> copyOf(List<PermissionDTO> permissions) {
+        List<PermissionDTO> copies = new ArrayList<>(permissions.size());
+        for (PermissionDTO permission : permissions) {
+            PermissionDTO copy = new PermissionDTO();
+            BeanUtils.copyProperties(permission, copy, "children");
+            if (permission.getChildren() != null) {
+                copy.setChildren(copyOf(permission.getChildren()));
+            }
+            copies.add(copy);
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,21 @@
+package com.xiaoyan.projectskeleton.repository.dto.permission;
+
+import lombok.Data;
+
+/**
+ * 角色编码与权限编码的关联DTO
+ * 用于构建内存中的角色权限快照
+ */
+@Data
+public class RolePermissionCodeDTO {
+    
+    /**
+     * 角色编码
+     */
+    private String roleCode;
+    
+    /**
+     * 权限编码
+     */
+    private String permissionCode;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * 用户头像更新DTO
  */
@@ -18,4 +20,9 @@ public class UserAvatarUpdateDTO {
      * 头像URL
      */
     private String avatarUrl;
+    
+    /**
+     * 各尺寸缩略图URL，键为边长（像素）
+     */
+    private Map<String, String> avatarVariants;
 } 
\ No newline at end of file
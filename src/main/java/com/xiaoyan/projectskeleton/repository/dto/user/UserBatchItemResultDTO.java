@@ -0,0 +1,36 @@
+package com.xiaoyan.projectskeleton.repository.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户批量操作单个用户的结果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchItemResultDTO {
+    
+    /**
+     * 用户ID
+     */
+    private Long userId;
+    
+    /**
+     * 是否成功
+     */
+    private Boolean success;
+    
+    /**
+     * 失败时的错误码
+     */
+    private Integer code;
+    
+    /**
+     * 结果说明
+     */
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.xiaoyan.projectskeleton.repository.dto.user;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用户批量操作请求DTO
+ */
+@Data
+public class UserBatchOperationDTO {
+    
+    /**
+     * 用户ID列表
+     */
+    @NotEmpty(message = "用户ID列表不能为空")
+    @Size(max = 10000, message = "单次最多操作10000个用户")
+    private List<Long> userIds;
+    
+    /**
+     * 操作原因（封禁时使用，可选）
+     */
+    private String reason;
+}
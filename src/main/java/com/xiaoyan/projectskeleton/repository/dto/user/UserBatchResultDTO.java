@@ -0,0 +1,38 @@
+package com.xiaoyan.projectskeleton.repository.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用户批量操作结果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResultDTO {
+    
+    /**
+     * 处理的用户数（已去重）
+     */
+    private Integer total;
+    
+    /**
+     * 成功数
+     */
+    private Integer successCount;
+    
+    /**
+     * 失败数
+     */
+    private Integer failureCount;
+    
+    /**
+     * 每个用户的处理结果，顺序与请求一致
+     */
+    private List<UserBatchItemResultDTO> results;
+}
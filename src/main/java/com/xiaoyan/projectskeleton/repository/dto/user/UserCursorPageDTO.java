@@ -0,0 +1,34 @@
+package com.xiaoyan.projectskeleton.repository.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用户游标分页结果DTO
+ * 基于用户ID的键集分页，下一页以 nextCursor 作为 cursor 参数继续查询
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCursorPageDTO {
+    
+    /**
+     * 当前页用户列表
+     */
+    private List<UserProfileDTO> records;
+    
+    /**
+     * 下一页游标（当前页最后一个用户ID），没有更多数据时为null
+     */
+    private Long nextCursor;
+    
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+}
@@ -3,6 +3,7 @@ package com.xiaoyan.projectskeleton.repository.dto.user;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 /**
  * 用户资料DTO
@@ -40,6 +41,11 @@ public class UserProfileDTO {
      */
     private String avatar;
     
+    /**
+     * 头像各尺寸缩略图URL，键为边长（像素）；没有缩略图时为空，使用 avatar
+     */
+    private Map<String, String> avatarVariants;
+    
     /**
      * 角色名称
      */
@@ -0,0 +1,89 @@
+package com.xiaoyan.projectskeleton.repository.entity.email;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.xiaoyan.projectskeleton.repository.entity.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邮件发送队列实体类
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Accessors(chain = true)
+@TableName("email_outbox")
+public class EmailOutbox extends BaseEntity {
+    
+    /**
+     * 发送跟踪ID
+     */
+    private String trackingId;
+    
+    /**
+     * 业务类型
+     */
+    private String bizType;
+    
+    /**
+     * 业务标识
+     */
+    private String bizKey;
+    
+    /**
+     * 发件人邮箱，为空时使用系统默认发件人
+     */
+    private String fromAddress;
+    
+    /**
+     * 收件人邮箱，多个以逗号分隔
+     */
+    private String toAddress;
+    
+    /**
+     * 邮件主题
+     */
+    private String subject;
+    
+    /**
+     * 邮件内容
+     */
+    private String content;
+    
+    /**
+     * 是否为HTML格式
+     */
+    private Boolean html;
+    
+    /**
+     * 发送状态：0-待发送，1-发送中，2-已发送，3-发送失败
+     */
+    private Integer status;
+    
+    /**
+     * 已失败次数
+     */
+    private Integer retryCount;
+    
+    /**
+     * 下次可发送时间
+     */
+    private LocalDateTime nextRetryTime;
+    
+    /**
+     * 领取批次标识
+     */
+    private String claimToken;
+    
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+    
+    /**
+     * 发送成功时间
+     */
+    private LocalDateTime sentTime;
+}
@@ -0,0 +1,48 @@
+package com.xiaoyan.projectskeleton.repository.entity.file;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.xiaoyan.projectskeleton.repository.entity.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+/**
+ * 文件内容索引实体类
+ * 同一目录下相同内容（SHA-256相同）的文件只存储一份，记录存储位置和引用次数
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Accessors(chain = true)
+@TableName("file_object")
+public class FileObject extends BaseEntity {
+    
+    /**
+     * 文件内容SHA-256（十六进制小写）
+     */
+    private String sha256;
+    
+    /**
+     * 上传时指定的目录，未指定时为空字符串；去重只在同一目录内进行
+     */
+    private String directory;
+    
+    /**
+     * MinIO对象名称
+     */
+    private String objectName;
+    
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+    
+    /**
+     * 文件类型
+     */
+    private String contentType;
+    
+    /**
+     * 引用次数，与 file_reference 中的记录数一致，降为0时删除对象和本记录
+     */
+    private Integer refCount;
+}
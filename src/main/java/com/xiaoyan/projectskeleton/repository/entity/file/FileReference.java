@@ -0,0 +1,28 @@
+package com.xiaoyan.projectskeleton.repository.entity.file;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.xiaoyan.projectskeleton.repository.entity.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+/**
+ * 文件引用实体类
+ * 每次上传（包括去重命中）记录一条，删除文件时只能释放自己上传时登记的引用
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Accessors(chain = true)
+@TableName("file_reference")
+public class FileReference extends BaseEntity {
+    
+    /**
+     * 文件内容索引ID
+     */
+    private Long fileObjectId;
+    
+    /**
+     * 上传用户ID，0表示匿名上传
+     */
+    private Long userId;
+}
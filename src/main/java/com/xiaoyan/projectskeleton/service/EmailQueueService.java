@@ -0,0 +1,61 @@
+package com.xiaoyan.projectskeleton.service;
+
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailDeliveryStatusDTO;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailMessageDTO;
+
+import java.util.List;
+
+/**
+ * 邮件发送队列服务接口
+ * 邮件先写入持久化队列后立即返回，由后台发送线程异步发送，失败时按退避策略重试
+ */
+public interface EmailQueueService {
+    
+    /**
+     * 将HTML邮件加入发送队列
+     * 在事务中调用时，邮件随事务一起提交，提交后才会开始发送
+     *
+     * @param to      收件人邮箱，多个邮箱以逗号分隔
+     * @param subject 邮件主题
+     * @param content HTML内容
+     * @param bizType 业务类型，可为空
+     * @param bizKey  业务标识，可为空
+     * @return 发送状态（包含跟踪ID）
+     */
+    EmailDeliveryStatusDTO enqueueHtmlEmail(String to, String subject, String content, String bizType, String bizKey);
+    
+    /**
+     * 将HTML邮件加入发送队列
+     * 可由调用方指定跟踪ID，便于在入队前就将跟踪ID关联到其他业务数据
+     *
+     * @param message 邮件
+     * @return 发送状态（包含跟踪ID）
+     */
+    EmailDeliveryStatusDTO enqueueHtmlEmail(EmailMessageDTO message);
+    
+    /**
+     * 批量将HTML邮件加入发送队列
+     * 使用批量插入写入队列，适用于批量操作后的通知群发
+     *
+     * @param messages 邮件列表
+     * @return 发送状态列表，顺序与入参一致
+     */
+    List<EmailDeliveryStatusDTO> enqueueHtmlEmails(List<EmailMessageDTO> messages);
+    
+    /**
+     * 查询邮件发送状态
+     *
+     * @param trackingId 发送跟踪ID
+     * @return 发送状态
+     */
+    EmailDeliveryStatusDTO getDeliveryStatus(String trackingId);
+    
+    /**
+     * 查询指定业务类型的邮件发送状态
+     *
+     * @param trackingId 发送跟踪ID
+     * @param bizType    业务类型，与记录不一致时视为不存在
+     * @return 发送状态
+     */
+    EmailDeliveryStatusDTO getDeliveryStatus(String trackingId, String bizType);
+}
@@ -0,0 +1,40 @@
+package com.xiaoyan.projectskeleton.service.file;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * 文件下载服务接口
+ * 代理MinIO中的对象，支持 Range 和 If-None-Match，热点文件缓存在本地磁盘
+ */
+public interface FileDownloadService {
+    
+    /**
+     * 将对象写入响应
+     * 对象不存在时返回404，If-None-Match 命中时返回304，Range 请求返回206，范围无效时返回416
+     *
+     * @param objectName 对象名称
+     * @param request 请求
+     * @param response 响应
+     * @throws IOException 写入响应失败（如客户端断开）
+     */
+    void download(String objectName, HttpServletRequest request, HttpServletResponse response) throws IOException;
+    
+    /**
+     * 判断对象是否允许免登录下载
+     * 对象名称以 file.download.public-prefixes 中的前缀开头，且不包含 . 或 .. 路径段
+     *
+     * @param objectName 对象名称
+     * @return 是否公开
+     */
+    boolean isPublic(String objectName);
+    
+    /**
+     * 清除对象的本地缓存，并通知其他节点清除。对象被删除后调用
+     *
+     * @param objectName 对象名称
+     */
+    void evict(String objectName);
+}
@@ -0,0 +1,15 @@
+package com.xiaoyan.projectskeleton.service.file;
+
+/**
+ * 孤儿对象清理服务接口
+ * 定期分页扫描存储桶中的指定前缀，删除既不被用户头像引用、也不在文件索引中的对象
+ */
+public interface FileOrphanCleanupService {
+    
+    /**
+     * 扫描一页对象并删除其中的孤儿对象，下次调用从本页结束的位置继续，扫描完所有前缀后从头开始
+     *
+     * @return 删除的对象数
+     */
+    int cleanupPage();
+}
@@ -1,9 +1,14 @@
 package com.xiaoyan.projectskeleton.service.file;
 
+import com.xiaoyan.projectskeleton.repository.dto.file.FileBatchUploadResultDTO;
 import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedDownloadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedUploadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionInitDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 
 public interface FileService {
@@ -27,21 +32,34 @@ public interface FileService {
     
     /**
      * 批量上传文件
+     * 文件并发上传，单个文件失败不影响其他文件
      *
      * @param files 文件列表
-     * @return 文件上传响应列表
+     * @return 每个文件的上传结果
      */
-    List<FileUploadResponseDTO> uploadFiles(List<MultipartFile> files);
+    FileBatchUploadResultDTO uploadFiles(List<MultipartFile> files);
     
     /**
      * 批量上传文件到指定目录
+     * 文件并发上传，单个文件失败不影响其他文件
      *
      * @param files 文件列表
      * @param directory 目录
-     * @return 文件上传响应列表
+     * @return 每个文件的上传结果
      */
-    List<FileUploadResponseDTO> uploadFiles(List<MultipartFile> files, String directory);
+    FileBatchUploadResultDTO uploadFiles(List<MultipartFile> files, String directory);
     
+    /**
+     * 以指定的对象名称上传内容
+     *
+     * @param objectName 对象名称
+     * @param stream 内容
+     * @param size 内容大小（字节）
+     * @param contentType 文件类型
+     * @return 文件访问URL
+     */
+    String uploadObject(String objectName, InputStream stream, long size, String contentType);
+
     /**
      * 删除文件
      *
@@ -49,6 +67,27 @@ public interface FileService {
      */
     void deleteFile(String objectName);
     
+    /**
+     * 批量删除文件
+     * 只释放当前用户在文件索引中登记的引用，未登记或当前用户没有引用的对象计入删除失败；
+     * 引用次数降为0的对象在索引提交后通过一次批量请求从MinIO删除，
+     * 调用方处于事务中时在其提交后删除，此时MinIO删除失败只记录日志，不计入返回值
+     *
+     * @param objectNames 对象名称
+     * @return 删除失败的对象名称
+     */
+    List<String> deleteFiles(Collection<String> objectNames);
+    
+    /**
+     * 删除未登记在文件索引中的对象，如旧头像和大小不一致的预签名直传对象
+     * 仅供服务内部清理使用，不检查归属，不能暴露给接口；已登记的对象跳过，不存在的对象按删除成功处理；
+     * 调用方处于事务中时在其提交后删除，此时MinIO删除失败只记录日志，不计入返回值
+     *
+     * @param objectNames 对象名称
+     * @return 删除失败的对象名称
+     */
+    List<String> removeUnindexedObjects(Collection<String> objectNames);
+    
     /**
      * 获取文件访问URL
      *
@@ -56,4 +95,38 @@ public interface FileService {
      * @return 文件访问URL
      */
     String getFileUrl(String objectName);
-} 
\ No newline at end of file
+
+    /**
+     * 申请预签名直传地址
+     * 客户端携带返回的表单字段直接POST到MinIO，文件内容不经过应用服务器；
+     * 上传策略限定对象名称、文件类型和文件大小，由MinIO校验
+     *
+     * @param initDTO 文件信息
+     * @return 预签名上传信息
+     */
+    PresignedUploadDTO createPresignedUpload(UploadSessionInitDTO initDTO);
+
+    /**
+     * 确认预签名直传已完成
+     * 校验对象已存在且大小与申请时声明的一致
+     *
+     * @param uploadToken 上传凭证
+     * @return 文件上传响应
+     */
+    FileUploadResponseDTO confirmPresignedUpload(String uploadToken);
+
+    /**
+     * 删除凭证过期后仍未确认的预签名直传对象
+     *
+     * @return 删除的对象数
+     */
+    int cleanupExpiredPresignedUploads();
+
+    /**
+     * 获取预签名下载地址
+     *
+     * @param objectName 对象名称
+     * @return 预签名下载信息
+     */
+    PresignedDownloadDTO getPresignedDownloadUrl(String objectName);
+}
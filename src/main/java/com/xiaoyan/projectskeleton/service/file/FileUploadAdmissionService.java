@@ -0,0 +1,25 @@
+package com.xiaoyan.projectskeleton.service.file;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 上传准入服务接口
+ * 按全局和客户端的并发数、字节数预算控制同时进行的上传，上传在独立线程池中执行，不占用请求线程
+ */
+public interface FileUploadAdmissionService {
+    
+    /**
+     * 提交上传任务
+     * 排队已满时立即抛出 TOO_MANY_REQUESTS；否则排队等待预算，超过排队时间同样拒绝。
+     * 请求体延迟到上传任务中解析，任务中通过请求获取上传的文件。
+     *
+     * @param request 上传请求
+     * @param upload 上传任务，在上传线程中执行，可使用当前用户上下文
+     * @param <T> 返回类型
+     * @return 异步任务，由Spring MVC在上传完成后写出响应
+     */
+    <T> WebAsyncTask<T> submit(HttpServletRequest request, Callable<T> upload);
+}
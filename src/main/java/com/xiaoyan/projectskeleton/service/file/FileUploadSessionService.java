@@ -0,0 +1,58 @@
+package com.xiaoyan.projectskeleton.service.file;
+
+import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadPartDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionInitDTO;
+
+import java.io.InputStream;
+
+/**
+ * 分片上传会话服务接口
+ * 对应MinIO（S3）分片上传：创建会话 -> 上传分片（可并行、可续传） -> 合并或取消
+ * 会话只能由创建者本人操作
+ */
+public interface FileUploadSessionService {
+    
+    /**
+     * 创建分片上传会话
+     *
+     * @param initDTO 文件信息
+     * @return 会话信息，包含分片大小和分片总数
+     */
+    UploadSessionDTO createSession(UploadSessionInitDTO initDTO);
+    
+    /**
+     * 查询会话及已上传的分片，用于断点续传
+     *
+     * @param sessionId 会话ID
+     * @return 会话信息
+     */
+    UploadSessionDTO getSession(String sessionId);
+    
+    /**
+     * 上传一个分片，重复上传同一序号会覆盖之前的分片
+     *
+     * @param sessionId  会话ID
+     * @param partNumber 分片序号，从1开始
+     * @param stream     分片内容
+     * @param size       分片大小（字节），必须与会话约定的大小一致
+     * @return 已上传的分片
+     */
+    UploadPartDTO uploadPart(String sessionId, int partNumber, InputStream stream, long size);
+    
+    /**
+     * 合并全部分片，完成上传
+     *
+     * @param sessionId 会话ID
+     * @return 文件上传结果
+     */
+    FileUploadResponseDTO completeSession(String sessionId);
+    
+    /**
+     * 取消上传，删除已上传的分片
+     *
+     * @param sessionId 会话ID
+     */
+    void abortSession(String sessionId);
+}
@@ -0,0 +1,446 @@
+package com.xiaoyan.projectskeleton.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.xiaoyan.projectskeleton.common.config.EmailQueueConfig;
+import com.xiaoyan.projectskeleton.common.enums.EmailStatusEnum;
+import com.xiaoyan.projectskeleton.common.event.EmailDeliveryFailedEvent;
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.EmailErrorCode;
+import com.xiaoyan.projectskeleton.mapper.email.EmailOutboxMapper;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailDeliveryStatusDTO;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailMessageDTO;
+import com.xiaoyan.projectskeleton.repository.entity.email.EmailOutbox;
+import com.xiaoyan.projectskeleton.service.EmailQueueService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 邮件发送队列服务实现类
+ *
+ * 1. 邮件写入 email_outbox 表即返回，调用方不再等待SMTP握手和发送
+ * 2. 固定数量的发送线程按批领取邮件，同一批邮件通过一次 JavaMailSender.send 复用同一个SMTP连接
+ * 3. 发送失败按指数退避重试，重试次数用尽后标记为失败并发布 EmailDeliveryFailedEvent
+ * 4. 后台定时轮询发送到期的重试邮件，并恢复发送线程异常中断而滞留在发送中的邮件
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailQueueServiceImpl implements EmailQueueService {
+    
+    private static final DateTimeFormatter SENT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    /**
+     * 失败原因最大保存长度
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final EmailOutboxMapper emailOutboxMapper;
+    
+    private final JavaMailSender javaMailSender;
+    
+    private final EmailQueueConfig emailQueueConfig;
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${spring.mail.username}")
+    private String defaultFrom;
+    
+    /**
+     * 发送线程池，任务队列有界，队列已满时丢弃唤醒任务（邮件已持久化，下次轮询会继续发送）
+     */
+    private ThreadPoolExecutor workerPool;
+    
+    /**
+     * 轮询线程
+     */
+    private ScheduledExecutorService poller;
+    
+    @PostConstruct
+    public void start() {
+        int workers = Math.max(1, emailQueueConfig.getWorkers());
+        AtomicInteger threadIndex = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-sender-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-queue-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long pollInterval = emailQueueConfig.getPollInterval();
+        poller.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        poller.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            // 未发送完的邮件保持发送中状态，超时后由其他节点或下次启动恢复
+            workerPool.shutdownNow();
+        }
+    }
+    
+    @Override
+    public EmailDeliveryStatusDTO enqueueHtmlEmail(String to, String subject, String content, String bizType, String bizKey) {
+        return enqueueHtmlEmail(EmailMessageDTO.builder()
+                .to(to)
+                .subject(subject)
+                .content(content)
+                .bizType(bizType)
+                .bizKey(bizKey)
+                .build());
+    }
+    
+    @Override
+    public EmailDeliveryStatusDTO enqueueHtmlEmail(EmailMessageDTO message) {
+        EmailOutbox outbox = newOutbox(message);
+        emailOutboxMapper.insert(outbox);
+        log.info("邮件已加入发送队列：收件人={}, 主题={}, 跟踪ID={}", outbox.getToAddress(), outbox.getSubject(),
+                outbox.getTrackingId());
+        
+        wakeUpAfterCommit(1);
+        return toStatusDTO(outbox);
+    }
+    
+    @Override
+    public List<EmailDeliveryStatusDTO> enqueueHtmlEmails(List<EmailMessageDTO> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<EmailOutbox> outboxes = new ArrayList<>(messages.size());
+        for (EmailMessageDTO message : messages) {
+            outboxes.add(newOutbox(message));
+        }
+        emailOutboxMapper.insert(outboxes, emailQueueConfig.getBatchSize() * 10);
+        log.info("{} 封邮件已加入发送队列", outboxes.size());
+        
+        wakeUpAfterCommit(workerPool.getMaximumPoolSize());
+        List<EmailDeliveryStatusDTO> result = new ArrayList<>(outboxes.size());
+        for (EmailOutbox outbox : outboxes) {
+            result.add(toStatusDTO(outbox));
+        }
+        return result;
+    }
+    
+    @Override
+    public EmailDeliveryStatusDTO getDeliveryStatus(String trackingId) {
+        return getDeliveryStatus(trackingId, null);
+    }
+    
+    @Override
+    public EmailDeliveryStatusDTO getDeliveryStatus(String trackingId, String bizType) {
+        LambdaQueryWrapper<EmailOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(EmailOutbox::getTrackingId, trackingId)
+                .eq(bizType != null, EmailOutbox::getBizType, bizType);
+        EmailOutbox outbox = emailOutboxMapper.selectOne(queryWrapper);
+        if (outbox == null) {
+            throw new BusinessException(EmailErrorCode.EMAIL_DELIVERY_NOT_EXISTS);
+        }
+        return toStatusDTO(outbox);
+    }
+    
+    /**
+     * 构建待发送的队列记录
+     *
+     * @param message 邮件
+     * @return 队列记录
+     */
+    private EmailOutbox newOutbox(EmailMessageDTO message) {
+        if (StringUtils.isBlank(message.getTo()) || StringUtils.isBlank(message.getSubject())
+                || StringUtils.isBlank(message.getContent())) {
+            log.error("邮件入队失败：必要参数缺失，收件人={}, 主题={}", message.getTo(), message.getSubject());
+            throw new BusinessException(EmailErrorCode.EMAIL_PARAMS_INCOMPLETE);
+        }
+        String trackingId = StringUtils.isNotBlank(message.getTrackingId()) ?
+                message.getTrackingId() : UUID.randomUUID().toString().replace("-", "");
+        return new EmailOutbox()
+                .setTrackingId(trackingId)
+                .setBizType(message.getBizType())
+                .setBizKey(message.getBizKey())
+                .setToAddress(message.getTo())
+                .setSubject(message.getSubject())
+                .setContent(message.getContent())
+                .setHtml(true)
+                .setStatus(EmailStatusEnum.PENDING.getId())
+                .setRetryCount(0)
+                .setNextRetryTime(LocalDateTime.now());
+    }
+    
+    /**
+     * 事务提交后再唤醒发送线程，避免发送线程读不到未提交的记录；不在事务中时立即唤醒
+     *
+     * @param count 唤醒的任务数
+     */
+    private void wakeUpAfterCommit(int count) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp(count);
+                }
+            });
+        } else {
+            wakeUp(count);
+        }
+    }
+    
+    /**
+     * 定时轮询：恢复滞留邮件并唤醒所有发送线程
+     */
+    private void poll() {
+        try {
+            int recovered = emailOutboxMapper.recoverStuck(emailQueueConfig.getSendingTimeout());
+            if (recovered > 0) {
+                log.warn("已恢复 {} 封发送超时的邮件", recovered);
+            }
+            wakeUp(workerPool.getMaximumPoolSize());
+        } catch (Exception e) {
+            log.error("邮件队列轮询失败：{}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 唤醒发送线程
+     *
+     * @param count 唤醒的任务数
+     */
+    private void wakeUp(int count) {
+        for (int i = 0; i < count; i++) {
+            workerPool.execute(this::drain);
+        }
+    }
+    
+    /**
+     * 持续领取并发送邮件，直到没有到期的邮件
+     */
+    private void drain() {
+        try {
+            List<EmailOutbox> batch;
+            while (!Thread.currentThread().isInterrupted() && !(batch = claimBatch()).isEmpty()) {
+                deliver(batch);
+            }
+        } catch (Exception e) {
+            log.error("邮件发送线程异常：{}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 领取一批到期的邮件
+     *
+     * @return 本次领取的邮件
+     */
+    private List<EmailOutbox> claimBatch() {
+        String claimToken = UUID.randomUUID().toString();
+        if (emailOutboxMapper.claimPending(claimToken, emailQueueConfig.getBatchSize()) == 0) {
+            return new ArrayList<>();
+        }
+        LambdaQueryWrapper<EmailOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(EmailOutbox::getClaimToken, claimToken);
+        return emailOutboxMapper.selectList(queryWrapper);
+    }
+    
+    /**
+     * 发送一批邮件，整批共用一个SMTP连接
+     *
+     * @param batch 邮件列表
+     */
+    private void deliver(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>(batch.size() * 2);
+        for (EmailOutbox outbox : batch) {
+            try {
+                messages.put(createMimeMessage(outbox), outbox);
+            } catch (Exception e) {
+                // 邮件内容或地址本身有误，重试也无法成功
+                markFailed(outbox, "邮件构建失败：" + e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        Map<Object, Exception> failedMessages = new IdentityHashMap<>();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failedMessages.putAll(e.getFailedMessages());
+            if (failedMessages.isEmpty()) {
+                // 未给出具体失败的邮件时，视为整批失败
+                messages.keySet().forEach(message -> failedMessages.put(message, e));
+            }
+        } catch (MailException e) {
+            // 认证失败等整批失败的情况
+            messages.keySet().forEach(message -> failedMessages.put(message, e));
+        }
+        
+        List<Long> sentIds = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception error = failedMessages.get(entry.getKey());
+            if (error == null) {
+                sentIds.add(entry.getValue().getId());
+            } else {
+                markRetry(entry.getValue(), error.getMessage());
+            }
+        }
+        markSent(sentIds, batch.get(0).getClaimToken());
+    }
+    
+    /**
+     * 根据队列记录构建邮件
+     *
+     * @param outbox 队列记录
+     * @return 邮件
+     * @throws Exception 构建失败
+     */
+    private MimeMessage createMimeMessage(EmailOutbox outbox) throws Exception {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom(StringUtils.isNotBlank(outbox.getFromAddress()) ? outbox.getFromAddress() : defaultFrom);
+        helper.setTo(outbox.getToAddress().split(","));
+        helper.setSubject(outbox.getSubject());
+        helper.setText(outbox.getContent(), Boolean.TRUE.equals(outbox.getHtml()));
+        return message;
+    }
+    
+    /**
+     * 批量标记为已发送
+     * 只更新仍由本批次持有的记录：超时被回收并由其他线程重新领取的记录不受影响；
+     * 发送完成后清空邮件内容，避免验证码等敏感信息长期保存在队列表中
+     *
+     * @param ids        邮件ID列表
+     * @param claimToken 领取批次标识
+     */
+    private void markSent(List<Long> ids, String claimToken) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LambdaUpdateWrapper<EmailOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(EmailOutbox::getStatus, EmailStatusEnum.SENT.getId())
+                .set(EmailOutbox::getSentTime, now)
+                .set(EmailOutbox::getClaimToken, null)
+                .set(EmailOutbox::getContent, "")
+                .set(EmailOutbox::getLastError, null)
+                .set(EmailOutbox::getUpdateTime, now)
+                .in(EmailOutbox::getId, ids)
+                .eq(EmailOutbox::getClaimToken, claimToken);
+        int updated = emailOutboxMapper.update(updateWrapper);
+        log.info("邮件发送成功 {} 封", ids.size());
+        if (updated < ids.size()) {
+            log.warn("{} 封邮件在发送期间已被回收，未更新其状态", ids.size() - updated);
+        }
+    }
+    
+    /**
+     * 记录一次发送失败，未超过最大次数时按指数退避安排重试
+     *
+     * @param outbox 队列记录
+     * @param error  失败原因
+     */
+    private void markRetry(EmailOutbox outbox, String error) {
+        int attempts = outbox.getRetryCount() + 1;
+        if (attempts >= emailQueueConfig.getMaxAttempts()) {
+            markFailed(outbox, error);
+            return;
+        }
+        long delay = Math.min(emailQueueConfig.getRetryBaseDelay() << Math.min(attempts - 1, 20),
+                emailQueueConfig.getRetryMaxDelay());
+        LocalDateTime now = LocalDateTime.now();
+        LambdaUpdateWrapper<EmailOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(EmailOutbox::getStatus, EmailStatusEnum.PENDING.getId())
+                .set(EmailOutbox::getRetryCount, attempts)
+                .set(EmailOutbox::getNextRetryTime, now.plusSeconds(delay))
+                .set(EmailOutbox::getClaimToken, null)
+                .set(EmailOutbox::getLastError, StringUtils.abbreviate(error, MAX_ERROR_LENGTH))
+                .set(EmailOutbox::getUpdateTime, now)
+                .eq(EmailOutbox::getId, outbox.getId())
+                .eq(EmailOutbox::getClaimToken, outbox.getClaimToken());
+        if (emailOutboxMapper.update(updateWrapper) == 0) {
+            log.warn("邮件在发送期间已被回收，未安排重试：ID={}", outbox.getId());
+            return;
+        }
+        log.warn("邮件发送失败，{} 秒后第 {} 次重试：收件人={}, 原因={}",
+                delay, attempts, outbox.getToAddress(), error);
+    }
+    
+    /**
+     * 标记为最终发送失败并发布失败事件，同时清空邮件内容
+     * 记录已被回收并由其他线程重新领取时不做处理
+     *
+     * @param outbox 队列记录
+     * @param error  失败原因
+     */
+    private void markFailed(EmailOutbox outbox, String error) {
+        LambdaUpdateWrapper<EmailOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(EmailOutbox::getStatus, EmailStatusEnum.FAILED.getId())
+                .set(EmailOutbox::getRetryCount, outbox.getRetryCount() + 1)
+                .set(EmailOutbox::getClaimToken, null)
+                .set(EmailOutbox::getContent, "")
+                .set(EmailOutbox::getLastError, StringUtils.abbreviate(error, MAX_ERROR_LENGTH))
+                .set(EmailOutbox::getUpdateTime, LocalDateTime.now())
+                .eq(EmailOutbox::getId, outbox.getId())
+                .eq(EmailOutbox::getClaimToken, outbox.getClaimToken());
+        if (emailOutboxMapper.update(updateWrapper) == 0) {
+            log.warn("邮件在发送期间已被回收，未标记为失败：ID={}", outbox.getId());
+            return;
+        }
+        log.error("邮件最终发送失败：收件人={}, 主题={}, 原因={}", outbox.getToAddress(), outbox.getSubject(), error);
+        
+        try {
+            eventPublisher.publishEvent(new EmailDeliveryFailedEvent(this, outbox.getTrackingId(),
+                    outbox.getBizType(), outbox.getBizKey(), error));
+        } catch (Exception e) {
+            log.error("处理邮件发送失败事件异常：{}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 转换为发送状态DTO
+     *
+     * @param outbox 队列记录
+     * @return 发送状态
+     */
+    private EmailDeliveryStatusDTO toStatusDTO(EmailOutbox outbox) {
+        EmailStatusEnum statusEnum = EmailStatusEnum.getById(outbox.getStatus());
+        return EmailDeliveryStatusDTO.builder()
+                .trackingId(outbox.getTrackingId())
+                .status(outbox.getStatus())
+                .statusName(statusEnum != null ? statusEnum.getName() : null)
+                .retryCount(outbox.getRetryCount())
+                .sentTime(outbox.getSentTime() != null ? outbox.getSentTime().format(SENT_TIME_FORMATTER) : null)
+                .build();
+    }
+}
@@ -0,0 +1,552 @@
+package com.xiaoyan.projectskeleton.service.impl.file;
+
+import com.xiaoyan.projectskeleton.common.config.FileDownloadConfig;
+import com.xiaoyan.projectskeleton.common.config.MinioConfig;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import com.xiaoyan.projectskeleton.service.file.FileDownloadService;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文件下载服务实现类
+ *
+ * 1. 缓存命中时响应头和内容都来自本地磁盘，不访问MinIO；连接器支持时交给Tomcat的sendfile直接从文件写入套接字，
+ *    不支持时（如HTTPS）通过 FileChannel.transferTo 写入响应输出流，此时仍会经过缓冲区复制
+ * 2. 未命中且文件不超过 cacheMaxObjectSize 时，先完整下载到缓存目录再响应，同一对象的并发未命中只下载一次
+ * 3. 更大的文件按请求的范围直接从MinIO转发
+ * 4. 缓存总大小超过 cacheMaxSize 时淘汰最久未访问的文件；对象删除后通过发布订阅通知所有节点清除缓存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileDownloadServiceImpl implements FileDownloadService {
+
+    private final MinioClient minioClient;
+    private final MinioConfig minioConfig;
+    private final FileDownloadConfig fileDownloadConfig;
+    private final RedisUtils redisUtils;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 下载缓存失效通知频道
+     */
+    private static final String FILE_DOWNLOAD_EVICT_CHANNEL = "file:download:evict";
+
+    /**
+     * Tomcat sendfile 请求属性：连接器支持 sendfile 时存在且为 TRUE
+     */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+
+    /**
+     * Tomcat sendfile 请求属性：文件的规范路径、起始位置、结束位置（不含）
+     */
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 缓存目录下由本服务独占的子目录
+     */
+    private static final String CACHE_SUBDIRECTORY = "objects";
+
+    /**
+     * 当前节点标识，用于忽略本节点发出的失效通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 对象名称 -> 缓存条目，按访问顺序排列，访问时需持有本对象的锁
+     */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 已缓存文件的总大小（字节），访问时需持有 entries 的锁
+     */
+    private long totalSize;
+
+    /**
+     * 对象名称 -> 正在进行的缓存填充
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<CacheEntry>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存代数，每次清除缓存时递增，避免清除前开始的填充结果在清除后写入缓存
+     */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    /**
+     * 缓存目录
+     */
+    private Path cacheDirectory;
+
+    /**
+     * 准备缓存目录并订阅失效通知
+     * 缓存索引只保存在内存中，启动时删除独占子目录中遗留的缓存文件，不触碰其他文件
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        redisMessageListenerContainer.addMessageListener(this::onEvictMessage,
+                new ChannelTopic(FILE_DOWNLOAD_EVICT_CHANNEL));
+        if (!Boolean.TRUE.equals(fileDownloadConfig.getCacheEnabled())) {
+            return;
+        }
+        cacheDirectory = Paths.get(fileDownloadConfig.getCacheDirectory()).resolve(CACHE_SUBDIRECTORY);
+        Files.createDirectories(cacheDirectory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*.{bin,tmp}")) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void download(String objectName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        // 1. 获取对象信息，缓存命中时不访问MinIO
+        CacheEntry cached = getCached(objectName);
+        ObjectMeta meta = cached != null ? cached.meta : stat(objectName);
+        if (meta == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, meta.etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (meta.lastModified > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, meta.lastModified);
+        }
+        if (fileDownloadConfig.getCacheControlMaxAge() > 0) {
+            // 非公开对象只允许浏览器缓存，不允许共享缓存
+            response.setHeader(HttpHeaders.CACHE_CONTROL, (isPublic(objectName) ? "public" : "private")
+                    + ", max-age=" + fileDownloadConfig.getCacheControlMaxAge());
+        }
+
+        // 2. 客户端已有相同版本
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), meta.etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // 3. 解析请求范围，If-Range 与当前版本不一致时返回完整内容
+        long[] range = null;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.equals(meta.etag)) {
+            range = parseRange(request.getHeader(HttpHeaders.RANGE), meta.size);
+        }
+        if (range != null && range.length == 0) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + meta.size);
+            return;
+        }
+        long start = range == null ? 0 : range[0];
+        long length = range == null ? meta.size : range[1] - range[0] + 1;
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + meta.size);
+        }
+        if (meta.contentType != null) {
+            response.setContentType(meta.contentType);
+        }
+        response.setContentLengthLong(length);
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+
+        // 4. 输出内容：缓存文件 -> 填充缓存后输出 -> 直接从MinIO转发
+        if (cached == null && isCacheable(meta)) {
+            cached = fill(objectName);
+        }
+        // 填充期间对象被覆盖时版本与已写出的响应头不一致，不使用缓存
+        if (cached != null && cached.meta.etag.equals(meta.etag) && serveFromCache(cached, start, length, request, response)) {
+            return;
+        }
+        serveFromMinio(objectName, range == null ? null : start, length, response);
+    }
+
+    @Override
+    public boolean isPublic(String objectName) {
+        if (StringUtils.isEmpty(objectName)) {
+            return false;
+        }
+        for (String segment : objectName.split("/")) {
+            if (".".equals(segment) || "..".equals(segment)) {
+                return false;
+            }
+        }
+        for (String prefix : fileDownloadConfig.getPublicPrefixes()) {
+            if (StringUtils.isNotEmpty(prefix) && objectName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void evict(String objectName) {
+        evictLocal(objectName);
+        redisUtils.publish(FILE_DOWNLOAD_EVICT_CHANNEL, nodeId + ":" + objectName);
+    }
+
+    /**
+     * 获取缓存条目并更新访问顺序
+     */
+    private CacheEntry getCached(String objectName) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        synchronized (entries) {
+            return entries.get(objectName);
+        }
+    }
+
+    private boolean isCacheable(ObjectMeta meta) {
+        return cacheDirectory != null && meta.size <= fileDownloadConfig.getCacheMaxObjectSize()
+                && meta.size <= fileDownloadConfig.getCacheMaxSize();
+    }
+
+    /**
+     * 下载完整对象到缓存目录
+     * 已有线程在下载同一对象时等待其结果；下载失败时返回null，由调用方直接从MinIO转发
+     */
+    private CacheEntry fill(String objectName) {
+        CompletableFuture<CacheEntry> future = new CompletableFuture<>();
+        CompletableFuture<CacheEntry> existing = loading.putIfAbsent(objectName, future);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        long generation = cacheGeneration.get();
+        Path temp = cacheDirectory.resolve(UUID.randomUUID() + ".tmp");
+        CacheEntry entry = null;
+        try {
+            ObjectMeta meta;
+            try (GetObjectResponse object = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .build())) {
+                Files.copy(object, temp, StandardCopyOption.REPLACE_EXISTING);
+                // 以实际下载的版本为准
+                meta = new ObjectMeta(quote(object.headers().get(HttpHeaders.ETAG)), Files.size(temp),
+                        object.headers().get(HttpHeaders.CONTENT_TYPE),
+                        object.headers().getDate(HttpHeaders.LAST_MODIFIED) == null ? 0
+                                : object.headers().getDate(HttpHeaders.LAST_MODIFIED).getTime());
+            }
+            Path file = cacheDirectory.resolve(UUID.randomUUID() + ".bin");
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            entry = new CacheEntry(meta, file);
+            if (!put(objectName, entry, generation)) {
+                deleteQuietly(file);
+                entry = null;
+            }
+        } catch (Exception e) {
+            log.warn("缓存文件失败: {}，{}", objectName, e.getMessage());
+            deleteQuietly(temp);
+        } finally {
+            future.complete(entry);
+            loading.remove(objectName, future);
+        }
+        return entry;
+    }
+
+    /**
+     * 写入缓存索引，超出总大小时淘汰最久未访问的文件
+     *
+     * @return 填充期间有对象被清除时不写入，返回false
+     */
+    private boolean put(String objectName, CacheEntry entry, long generation) {
+        synchronized (entries) {
+            if (cacheGeneration.get() != generation) {
+                return false;
+            }
+            CacheEntry previous = entries.put(objectName, entry);
+            if (previous != null) {
+                totalSize -= previous.meta.size;
+                deleteQuietly(previous.file);
+            }
+            totalSize += entry.meta.size;
+            Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (totalSize > fileDownloadConfig.getCacheMaxSize() && iterator.hasNext()) {
+                CacheEntry eldest = iterator.next().getValue();
+                if (eldest == entry) {
+                    continue;
+                }
+                iterator.remove();
+                totalSize -= eldest.meta.size;
+                // 正在读取该文件的请求已持有文件句柄，删除不影响其读取
+                deleteQuietly(eldest.file);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 清除本节点的缓存
+     */
+    private void evictLocal(String objectName) {
+        synchronized (entries) {
+            cacheGeneration.incrementAndGet();
+            CacheEntry entry = entries.remove(objectName);
+            if (entry != null) {
+                totalSize -= entry.meta.size;
+                deleteQuietly(entry.file);
+            }
+        }
+    }
+
+    /**
+     * 从缓存文件输出指定范围
+     * 连接器支持 sendfile 时只设置请求属性，由Tomcat在请求处理返回后以零拷贝方式写出；否则复制到响应输出流
+     *
+     * @return 缓存文件已被淘汰时返回false，由调用方改为从MinIO转发
+     */
+    private boolean serveFromCache(CacheEntry entry, long start, long length, HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            String filename;
+            try {
+                filename = entry.file.toRealPath().toString();
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            // Tomcat在请求处理返回后立即打开文件，期间文件被淘汰的概率很小；打开失败时连接被关闭，客户端可按Range重试
+            request.setAttribute(SENDFILE_FILENAME_ATTR, filename);
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length);
+            return true;
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(entry.file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try (channel) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从MinIO转发指定范围
+     *
+     * @param start 起始位置，为null时转发完整对象
+     */
+    private void serveFromMinio(String objectName, Long start, long length, HttpServletResponse response)
+            throws IOException {
+        GetObjectArgs.Builder args = GetObjectArgs.builder()
+                .bucket(minioConfig.getBucketName())
+                .object(objectName);
+        if (start != null) {
+            args.offset(start).length(length);
+        }
+        try (InputStream object = minioClient.getObject(args.build())) {
+            OutputStream output = response.getOutputStream();
+            object.transferTo(output);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            // 响应头已写出，只能中断连接
+            throw new IOException("读取文件失败: " + objectName, e);
+        }
+    }
+
+    /**
+     * 查询对象信息
+     *
+     * @return 对象不存在时返回null
+     */
+    private ObjectMeta stat(String objectName) throws IOException {
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .build());
+            return new ObjectMeta(quote(stat.etag()), stat.size(), stat.contentType(),
+                    stat.lastModified() == null ? 0 : stat.lastModified().toInstant().toEpochMilli());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw new IOException("查询文件失败: " + objectName, e);
+        } catch (Exception e) {
+            throw new IOException("查询文件失败: " + objectName, e);
+        }
+    }
+
+    /**
+     * 解析单个 Range 范围
+     * 多个范围、非 bytes 单位或格式错误时按未指定范围处理，返回完整内容
+     *
+     * @param header Range 请求头
+     * @param size 对象大小
+     * @return null表示返回完整内容；长度为0的数组表示范围无法满足；否则为 [起始, 结束]（含）
+     */
+    static long[] parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (spec.contains(",") || dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // 最后 N 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                // 结束位置小于起始位置属于格式错误
+                if (end < start) {
+                    return null;
+                }
+                end = Math.min(end, size - 1);
+            }
+            if (start < 0 || start >= size) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 判断 If-None-Match 是否与当前版本一致（弱比较）
+     */
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String etag) {
+        if (etag == null) {
+            return "\"\"";
+        }
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除缓存文件失败: {}，{}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点发出的失效通知
+     *
+     * @param message 通知消息，格式为 节点标识:对象名称
+     * @param pattern 订阅模式
+     */
+    private void onEvictMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.parseMessage(message);
+        if (body == null || body.toString().startsWith(nodeId + ":")) {
+            return;
+        }
+        String text = body.toString();
+        evictLocal(text.substring(text.indexOf(':') + 1));
+    }
+
+    /**
+     * 对象信息
+     */
+    private static final class ObjectMeta {
+        private final String etag;
+        private final long size;
+        private final String contentType;
+        private final long lastModified;
+
+        private ObjectMeta(String etag, long size, String contentType, long lastModified) {
+            this.etag = etag;
+            this.size = size;
+            this.contentType = contentType;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class CacheEntry {
+        private final ObjectMeta meta;
+        private final Path file;
+
+        private CacheEntry(ObjectMeta meta, Path file) {
+            this.meta = meta;
+            this.file = file;
+        }
+    }
+}
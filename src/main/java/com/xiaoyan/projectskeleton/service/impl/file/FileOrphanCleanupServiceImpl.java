@@ -0,0 +1,240 @@
+package com.xiaoyan.projectskeleton.service.impl.file;
+
+import com.xiaoyan.projectskeleton.common.config.FileOrphanCleanupConfig;
+import com.xiaoyan.projectskeleton.common.config.MinioConfig;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import com.xiaoyan.projectskeleton.mapper.file.FileObjectMapper;
+import com.xiaoyan.projectskeleton.service.file.FileDownloadService;
+import com.xiaoyan.projectskeleton.service.file.FileOrphanCleanupService;
+import com.xiaoyan.projectskeleton.service.file.FileService;
+import com.xiaoyan.projectskeleton.service.user.UserAvatarService;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 孤儿对象清理服务实现类
+ *
+ * 1. 每次执行只列出一页对象，扫描位置保存在Redis中，多次执行逐步覆盖所有前缀
+ * 2. 每批删除前查询用户头像和文件索引，只删除未被引用且超过最短保留时长的对象；批与批之间暂停，限制对MinIO的压力
+ * 3. 所有节点通过Redis租约竞争执行权，每个间隔只有一个节点执行
+ * 4. 同一任务中删除凭证过期后仍未确认的预签名直传对象
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileOrphanCleanupServiceImpl implements FileOrphanCleanupService {
+
+    private final FileOrphanCleanupConfig fileOrphanCleanupConfig;
+    private final MinioClient minioClient;
+    private final MinioConfig minioConfig;
+    private final FileObjectMapper fileObjectMapper;
+    private final UserAvatarService userAvatarService;
+    private final FileDownloadService fileDownloadService;
+    private final FileService fileService;
+    private final RedisUtils redisUtils;
+
+    /**
+     * 执行租约Redis键
+     */
+    private static final String LEASE_KEY = "file:orphan-cleanup:lease";
+
+    /**
+     * 扫描位置Redis键，值为上次扫描到的对象名称
+     */
+    private static final String CURSOR_KEY = "file:orphan-cleanup:cursor";
+
+    /**
+     * 当前节点标识，写入租约便于排查
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 定期执行线程
+     */
+    private ScheduledExecutorService cleanupScheduler;
+
+    /**
+     * 应用启动完成后开始定期执行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!Boolean.TRUE.equals(fileOrphanCleanupConfig.getEnabled())) {
+            return;
+        }
+        cleanupScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "file-orphan-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, fileOrphanCleanupConfig.getIntervalSeconds());
+        cleanupScheduler.scheduleWithFixedDelay(this::cleanupQuietly, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (cleanupScheduler != null) {
+            cleanupScheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public int cleanupPage() {
+        List<String> prefixes = fileOrphanCleanupConfig.getPrefixes();
+        if (prefixes.isEmpty()) {
+            return 0;
+        }
+
+        // 1. 确定扫描位置：上次扫描到的对象所在前缀，找不到时从第一个前缀开始
+        Object cursorValue = redisUtils.get(CURSOR_KEY);
+        String cursor = cursorValue == null ? null : cursorValue.toString();
+        int prefixIndex = 0;
+        if (cursor != null) {
+            prefixIndex = -1;
+            for (int i = 0; i < prefixes.size() && prefixIndex < 0; i++) {
+                if (cursor.startsWith(prefixes.get(i))) {
+                    prefixIndex = i;
+                }
+            }
+            if (prefixIndex < 0) {
+                prefixIndex = 0;
+                cursor = null;
+            }
+        }
+        String prefix = prefixes.get(prefixIndex);
+
+        // 2. 列出一页对象，只保留超过最短保留时长的
+        int pageSize = Math.max(1, fileOrphanCleanupConfig.getPageSize());
+        ZonedDateTime deadline = ZonedDateTime.now().minusSeconds(fileOrphanCleanupConfig.getMinAgeSeconds());
+        ListObjectsArgs.Builder args = ListObjectsArgs.builder()
+                .bucket(minioConfig.getBucketName())
+                .prefix(prefix)
+                .recursive(true)
+                .maxKeys(pageSize);
+        if (cursor != null) {
+            args.startAfter(cursor);
+        }
+        List<String> candidates = new ArrayList<>();
+        String lastObjectName = null;
+        int listed = 0;
+        try {
+            // 迭代器在当前页读完后才请求下一页，读满一页即停止
+            Iterator<Result<Item>> iterator = minioClient.listObjects(args.build()).iterator();
+            while (listed < pageSize && iterator.hasNext()) {
+                Item item = iterator.next().get();
+                listed++;
+                lastObjectName = item.objectName();
+                if (!item.isDir() && item.lastModified() != null && item.lastModified().isBefore(deadline)) {
+                    candidates.add(item.objectName());
+                }
+            }
+        } catch (Exception e) {
+            log.error("列出对象失败: {}，{}", prefix, e.getMessage(), e);
+            return 0;
+        }
+
+        // 3. 保存下次扫描位置，本前缀扫描完后转到下一个前缀
+        if (listed < pageSize) {
+            redisUtils.set(CURSOR_KEY, prefixes.get((prefixIndex + 1) % prefixes.size()));
+        } else {
+            redisUtils.set(CURSOR_KEY, lastObjectName);
+        }
+
+        // 4. 分批删除未被引用的对象
+        int batchSize = Math.max(1, fileOrphanCleanupConfig.getDeleteBatchSize());
+        int deleted = 0;
+        for (int from = 0; from < candidates.size(); from += batchSize) {
+            if (from > 0 && !pause()) {
+                break;
+            }
+            List<String> batch = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+            deleted += deleteOrphans(batch);
+        }
+        if (deleted > 0) {
+            log.info("孤儿对象清理：前缀 {}，扫描 {} 个对象，删除 {} 个", prefix, listed, deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * 删除一批对象中未被引用的对象
+     * 在删除前才查询引用，缩小查询与删除之间的时间窗口
+     *
+     * @param objectNames 对象名称
+     * @return 删除的对象数
+     */
+    private int deleteOrphans(List<String> objectNames) {
+        Set<String> referenced = new HashSet<>(fileObjectMapper.selectExistingObjectNames(objectNames));
+        referenced.addAll(userAvatarService.findReferencedObjects(objectNames));
+        List<String> orphans = new ArrayList<>();
+        for (String objectName : objectNames) {
+            if (!referenced.contains(objectName)) {
+                orphans.add(objectName);
+            }
+        }
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        List<String> failed;
+        try {
+            failed = FileServiceImpl.removeObjects(minioClient, minioConfig.getBucketName(), orphans);
+        } catch (Exception e) {
+            log.error("删除孤儿对象失败: {}", e.getMessage(), e);
+            return 0;
+        }
+        for (String objectName : orphans) {
+            fileDownloadService.evict(objectName);
+        }
+        return orphans.size() - failed.size();
+    }
+
+    /**
+     * 两批删除之间暂停
+     *
+     * @return 线程被中断（应用关闭）时返回false
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(fileOrphanCleanupConfig.getDeleteBatchIntervalMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 竞争本间隔的执行租约，获得后执行一次
+     */
+    private void cleanupQuietly() {
+        try {
+            // 租约到期即可被下一次执行获得，不主动释放，保证每个间隔只执行一次
+            long lease = Math.max(1, fileOrphanCleanupConfig.getIntervalSeconds() - 1);
+            if (redisUtils.setIfAbsent(LEASE_KEY, nodeId, lease)) {
+                cleanupPage();
+                fileService.cleanupExpiredPresignedUploads();
+            }
+        } catch (Exception e) {
+            // 执行失败等待下次重试
+            log.error("孤儿对象清理失败: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,25 +1,67 @@
 package com.xiaoyan.projectskeleton.service.impl.file;
 
+import com.xiaoyan.projectskeleton.common.config.FileDownloadConfig;
+import com.xiaoyan.projectskeleton.common.config.FileUploadConfig;
 import com.xiaoyan.projectskeleton.common.config.MinioConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
 import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.CommonErrorCode;
+import com.xiaoyan.projectskeleton.common.exception.ExceptionUtils;
 import com.xiaoyan.projectskeleton.common.exception.FileErrorCode;
+import com.xiaoyan.projectskeleton.common.exception.UserErrorCode;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import com.xiaoyan.projectskeleton.mapper.file.FileObjectMapper;
+import com.xiaoyan.projectskeleton.mapper.file.FileReferenceMapper;
+import com.xiaoyan.projectskeleton.repository.dto.file.FileBatchUploadResultDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadItemResultDTO;
 import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedDownloadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.PresignedUploadDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionInitDTO;
+import com.xiaoyan.projectskeleton.repository.entity.file.FileObject;
+import com.xiaoyan.projectskeleton.repository.entity.file.FileReference;
+import com.xiaoyan.projectskeleton.service.file.FileDownloadService;
 import com.xiaoyan.projectskeleton.service.file.FileService;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +70,71 @@ public class FileServiceImpl implements FileService {
 
     private final MinioClient minioClient;
     private final MinioConfig minioConfig;
+    private final FileUploadConfig fileUploadConfig;
+    private final RedisUtils redisUtils;
+    private final FileObjectMapper fileObjectMapper;
+    private final FileReferenceMapper fileReferenceMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final FileDownloadConfig fileDownloadConfig;
+    private final FileDownloadService fileDownloadService;
+
+    /**
+     * 预签名直传凭证Redis键前缀
+     */
+    private static final String PRESIGNED_UPLOAD_PREFIX = "upload:presigned:";
+
+    /**
+     * 匿名上传（公共文件上传）登记引用时使用的用户ID
+     */
+    private static final Long ANONYMOUS_USER_ID = 0L;
+
+    /**
+     * 未确认的预签名直传对象Redis有序集合，分数为可以清理的时间（毫秒时间戳）
+     */
+    private static final String PRESIGNED_PENDING_KEY = "upload:presigned:pending";
+
+    /**
+     * 预签名直传对象的存储目录
+     */
+    private static final String PRESIGNED_UPLOAD_DIRECTORY = "presigned";
+
+    /**
+     * 每次清理的过期预签名直传对象数
+     */
+    private static final int PRESIGNED_CLEANUP_BATCH_SIZE = 1000;
+
+    /**
+     * 批量上传线程池，所有请求共享，限制同时上传到MinIO的文件数
+     */
+    private ThreadPoolExecutor uploadPool;
+
+    @PostConstruct
+    public void start() {
+        int concurrency = Math.max(1, fileUploadConfig.getConcurrency());
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 队列已满时拒绝提交，由提交方在请求线程中自己上传，形成背压，不会无限堆积
+        uploadPool = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fileUploadConfig.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-upload-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        uploadPool.shutdown();
+        if (!uploadPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            // 未执行的任务返回失败结果，等待结果的请求线程不会一直阻塞
+            for (Runnable runnable : uploadPool.shutdownNow()) {
+                if (runnable instanceof UploadTask) {
+                    ((UploadTask) runnable).reject();
+                }
+            }
+        }
+    }
 
     @Override
     public FileUploadResponseDTO uploadFile(MultipartFile file) {
@@ -36,51 +143,48 @@ public class FileServiceImpl implements FileService {
 
     @Override
     public FileUploadResponseDTO uploadFile(MultipartFile file, String directory) {
+        return storeFile(file, directory, currentUserIdOrAnonymous());
+    }
+
+    /**
+     * 存储文件并为上传用户登记引用
+     *
+     * @param file 文件
+     * @param directory 目录，可为空
+     * @param userId 上传用户ID，匿名上传为0
+     * @return 文件上传响应
+     */
+    private FileUploadResponseDTO storeFile(MultipartFile file, String directory, Long userId) {
         try {
             // 检查文件是否为空
             if (file.isEmpty()) {
                 throw new BusinessException(FileErrorCode.FILE_EMPTY);
             }
 
-            // 获取原始文件名和扩展名
+            // 计算内容摘要，上传的文件已由容器保存在内存或临时文件中，读取不经过网络
             String originalFilename = file.getOriginalFilename();
-            String extension = StringUtils.substringAfterLast(originalFilename, ".");
-            
-            // 生成唯一文件名
-            String fileName = UUID.randomUUID().toString().replaceAll("-", "") + "." + extension;
-            
-            // 构建对象名称（存储路径）
-            String objectName;
-            if (StringUtils.isNotBlank(directory)) {
-                // 使用指定目录
-                objectName = directory + "/" + fileName;
-            } else {
-                // 使用日期作为默认目录
-                String dateDir = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-                objectName = dateDir + "/" + fileName;
+            String sha256;
+            try (InputStream inputStream = file.getInputStream()) {
+                sha256 = sha256Hex(inputStream);
             }
             
-            // 上传文件到MinIO
-            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
-                    .bucket(minioConfig.getBucketName())
-                    .object(objectName)
-                    .stream(file.getInputStream(), file.getSize(), -1)
-                    .contentType(file.getContentType())
-                    .build();
-            
-            minioClient.putObject(putObjectArgs);
+            // 同一目录下相同内容已存储时只登记引用，不再写入MinIO
+            String scope = StringUtils.defaultIfBlank(directory, "");
+            FileObject existing = fileObjectMapper.selectBySha256(sha256, scope);
+            if (existing != null && addReference(existing.getId(), userId)) {
+                return buildUploadResponse(originalFilename, file, existing.getObjectName());
+            }
             
-            // 构建文件访问URL
-            String url = getFileUrl(objectName);
+            // 以内容摘要加随机后缀命名对象并上传，直接读取上传内容的输入流，不再复制
+            // 每次写入的对象名称都不同，不会覆盖正在被删除的同内容对象
+            String objectName = buildObjectName(originalFilename, directory,
+                    sha256 + "-" + UUID.randomUUID().toString().replace("-", "").substring(0, 16));
+            try (InputStream inputStream = file.getInputStream()) {
+                uploadObject(objectName, inputStream, file.getSize(), file.getContentType());
+            }
             
-            // 返回上传结果
-            return FileUploadResponseDTO.builder()
-                    .fileName(originalFilename)
-                    .fileSize(file.getSize())
-                    .contentType(file.getContentType())
-                    .url(url)
-                    .objectName(objectName)
-                    .build();
+            // 登记索引，并发上传相同内容时以先登记的为准
+            return buildUploadResponse(originalFilename, file, registerObject(sha256, scope, objectName, file, userId));
             
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -91,51 +195,589 @@ public class FileServiceImpl implements FileService {
         }
     }
 
+    /**
+     * 构建对象名称（存储路径）
+     * 文件名使用UUID加原扩展名；指定目录时存放在该目录下，否则使用日期目录
+     *
+     * @param originalFilename 原始文件名
+     * @param directory 目录，可为空
+     * @return 对象名称
+     */
+    static String buildObjectName(String originalFilename, String directory) {
+        // 生成唯一文件名
+        return buildObjectName(originalFilename, directory, UUID.randomUUID().toString().replaceAll("-", ""));
+    }
+
+    /**
+     * 以指定的文件名（不含扩展名）构建对象名称
+     *
+     * @param originalFilename 原始文件名，用于取扩展名
+     * @param directory 目录，可为空
+     * @param baseName 文件名（不含扩展名）
+     * @return 对象名称
+     */
+    private static String buildObjectName(String originalFilename, String directory, String baseName) {
+        String extension = StringUtils.substringAfterLast(originalFilename, ".");
+        String fileName = baseName + "." + extension;
+        
+        if (StringUtils.isNotBlank(directory)) {
+            // 使用指定目录
+            return directory + "/" + fileName;
+        }
+        // 使用日期作为默认目录
+        String dateDir = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+        return dateDir + "/" + fileName;
+    }
+
     @Override
-    public List<FileUploadResponseDTO> uploadFiles(List<MultipartFile> files) {
+    public FileBatchUploadResultDTO uploadFiles(List<MultipartFile> files) {
         return uploadFiles(files, null);
     }
 
     @Override
-    public List<FileUploadResponseDTO> uploadFiles(List<MultipartFile> files, String directory) {
-        List<FileUploadResponseDTO> results = new ArrayList<>();
-        for (MultipartFile file : files) {
-            results.add(uploadFile(file, directory));
+    public FileBatchUploadResultDTO uploadFiles(List<MultipartFile> files, String directory) {
+        // 1. 全部提交到上传线程池并发上传
+        List<CompletableFuture<FileUploadItemResultDTO>> futures = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            UploadTask task = new UploadTask(i, files.get(i), directory);
+            try {
+                uploadPool.execute(task);
+            } catch (RejectedExecutionException e) {
+                // 队列已满时在请求线程中上传；应用关闭中时返回失败结果
+                if (uploadPool.isShutdown()) {
+                    task.reject();
+                } else {
+                    task.run();
+                }
+            }
+            futures.add(task.result);
+        }
+
+        // 2. 按请求顺序收集结果，上传线程在请求结束前全部完成
+        List<FileUploadItemResultDTO> results = new ArrayList<>(files.size());
+        for (CompletableFuture<FileUploadItemResultDTO> future : futures) {
+            results.add(future.join());
+        }
+
+        int successCount = (int) results.stream().filter(item -> Boolean.TRUE.equals(item.getSuccess())).count();
+        return FileBatchUploadResultDTO.builder()
+                .total(results.size())
+                .successCount(successCount)
+                .failureCount(results.size() - successCount)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * 上传批量请求中的单个文件，失败时返回失败结果而不是抛出异常
+     *
+     * @param index 文件序号
+     * @param file 文件
+     * @param directory 目录
+     * @param userId 上传用户ID
+     * @return 上传结果
+     */
+    private FileUploadItemResultDTO uploadItem(int index, MultipartFile file, String directory, Long userId) {
+        try {
+            FileUploadResponseDTO response = storeFile(file, directory, userId);
+            return FileUploadItemResultDTO.builder()
+                    .index(index)
+                    .fileName(file.getOriginalFilename())
+                    .success(true)
+                    .message("上传成功")
+                    .file(response)
+                    .build();
+        } catch (BusinessException e) {
+            return FileUploadItemResultDTO.builder()
+                    .index(index)
+                    .fileName(file.getOriginalFilename())
+                    .success(false)
+                    .code(e.getCode())
+                    .message(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            log.error("文件上传失败: {}", e.getMessage(), e);
+            return FileUploadItemResultDTO.builder()
+                    .index(index)
+                    .fileName(file.getOriginalFilename())
+                    .success(false)
+                    .code(FileErrorCode.FILE_UPLOAD_FAILED.getCode())
+                    .message(FileErrorCode.FILE_UPLOAD_FAILED.getMessage())
+                    .build();
+        }
+    }
+
+    @Override
+    public String uploadObject(String objectName, InputStream stream, long size, String contentType) {
+        try {
+            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .stream(stream, size, -1)
+                    .contentType(contentType)
+                    .build();
+            
+            minioClient.putObject(putObjectArgs);
+            return getFileUrl(objectName);
+        } catch (Exception e) {
+            log.error("文件上传失败: {}", e.getMessage(), e);
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "文件上传失败: " + e.getMessage());
         }
-        return results;
     }
 
     @Override
     public void deleteFile(String objectName) {
+        List<String> failed = deleteFiles(List.of(objectName));
+        if (!failed.isEmpty()) {
+            throw new BusinessException(FileErrorCode.FILE_DELETE_FAILED);
+        }
+    }
+
+    @Override
+    public List<String> deleteFiles(Collection<String> objectNames) {
+        UserContext userContext = UserContext.getCurrentUser();
+        Long userId = userContext != null ? userContext.getUserId() : null;
+        List<String> failed = new ArrayList<>();
+        List<String> toRemove = new ArrayList<>();
+
+        // 1. 在事务中释放当前用户的引用并删除引用降为0的索引，按名称排序加锁，避免并发批量删除相互死锁
+        //    只能释放自己上传时登记的引用，行锁保证与增加引用互斥；未登记在索引中的对象（头像、分片上传、
+        //    预签名直传）无法确认归属，一律不删除
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String objectName : new TreeSet<>(objectNames)) {
+                FileObject fileObject = fileObjectMapper.selectByObjectNameForUpdate(objectName);
+                if (fileObject == null || userId == null
+                        || fileReferenceMapper.deleteOne(fileObject.getId(), userId) == 0) {
+                    // 未登记或当前用户没有引用该对象
+                    failed.add(objectName);
+                    continue;
+                }
+                fileObjectMapper.decrementRefCount(fileObject.getId());
+                if (fileObject.getRefCount() > 1) {
+                    continue;
+                }
+                fileObjectMapper.deleteUnreferenced(fileObject.getId());
+                toRemove.add(objectName);
+            }
+        });
+
+        // 2. 索引提交后再删除对象，不在持有行锁期间访问MinIO；每份存储的对象名称唯一，之后的相同内容上传写入新对象
+        failed.addAll(removeAfterCommit(toRemove));
+        return failed;
+    }
+
+    @Override
+    public List<String> removeUnindexedObjects(Collection<String> objectNames) {
+        List<String> toRemove = new ArrayList<>(new TreeSet<>(objectNames));
+        if (toRemove.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 登记在索引中的对象按引用计数管理，不在此删除
+        toRemove.removeAll(fileObjectMapper.selectExistingObjectNames(toRemove));
+        return removeAfterCommit(toRemove);
+    }
+
+    /**
+     * 删除对象并清除下载缓存
+     * 调用方处于事务中时在其提交后删除，回滚时对象保留，删除失败的对象只记录日志，由孤儿对象清理任务回收
+     *
+     * @param toRemove 对象名称
+     * @return 立即删除时删除失败的对象名称；提交后删除时为空
+     */
+    private List<String> removeAfterCommit(List<String> toRemove) {
+        if (toRemove.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    List<String> removeFailed = removeAndEvict(toRemove);
+                    if (!removeFailed.isEmpty()) {
+                        log.warn("事务提交后删除文件失败: {}", removeFailed);
+                    }
+                }
+            });
+            return new ArrayList<>();
+        }
+        return removeAndEvict(toRemove);
+    }
+
+    /**
+     * 一次请求删除多个对象并清除下载缓存，不存在的对象按删除成功处理
+     *
+     * @param objectNames 对象名称
+     * @return 删除失败的对象名称
+     */
+    private List<String> removeAndEvict(List<String> objectNames) {
+        List<String> failed;
         try {
-            // 检查文件是否存在
-            StatObjectResponse stat = minioClient.statObject(
-                    StatObjectArgs.builder()
-                            .bucket(minioConfig.getBucketName())
-                            .object(objectName)
-                            .build()
-            );
-            
-            minioClient.removeObject(
-                    RemoveObjectArgs.builder()
-                            .bucket(minioConfig.getBucketName())
-                            .object(objectName)
-                            .build()
-            );
+            failed = removeObjects(minioClient, minioConfig.getBucketName(), objectNames);
         } catch (Exception e) {
             log.error("文件删除失败: {}", e.getMessage(), e);
-            throw new BusinessException(FileErrorCode.FILE_DELETE_FAILED, "文件删除失败: " + e.getMessage());
+            return new ArrayList<>(objectNames);
+        }
+        for (String objectName : objectNames) {
+            fileDownloadService.evict(objectName);
         }
+        return failed;
+    }
+
+    /**
+     * 批量删除对象，不处理索引；MinIO客户端按每批1000个分组请求
+     *
+     * @param minioClient MinIO客户端
+     * @param bucketName 存储桶
+     * @param objectNames 对象名称
+     * @return 删除失败的对象名称
+     */
+    static List<String> removeObjects(MinioClient minioClient, String bucketName, List<String> objectNames)
+            throws Exception {
+        List<DeleteObject> objects = new ArrayList<>(objectNames.size());
+        for (String objectName : objectNames) {
+            objects.add(new DeleteObject(objectName));
+        }
+        // 返回结果是惰性的，必须遍历才会真正发出删除请求
+        List<String> failed = new ArrayList<>();
+        for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(objects)
+                .build())) {
+            DeleteError error = result.get();
+            log.warn("文件删除失败: {}，{}", error.objectName(), error.message());
+            failed.add(error.objectName());
+        }
+        return failed;
     }
 
     @Override
     public String getFileUrl(String objectName) {
         try {
-            // 使用公共访问URL
+            // 配置了下载接口前缀时公开对象经由下载接口访问，否则使用公共访问URL
+            if (StringUtils.isNotBlank(fileDownloadConfig.getUrlPrefix()) && fileDownloadService.isPublic(objectName)) {
+                return StringUtils.removeEnd(fileDownloadConfig.getUrlPrefix(), "/") + "/" + objectName;
+            }
             return minioConfig.getPublicUrl() + "/" + minioConfig.getBucketName() + "/" + objectName;
         } catch (Exception e) {
             log.error("获取文件URL失败: {}", e.getMessage(), e);
             throw new BusinessException(FileErrorCode.FILE_NOT_EXIST, "获取文件URL失败: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public PresignedUploadDTO createPresignedUpload(UploadSessionInitDTO initDTO) {
+        Long userId = requireCurrentUserId();
+        if (initDTO.getFileSize() > fileUploadConfig.getMaxFileSize()) {
+            throw new BusinessException(FileErrorCode.FILE_SIZE_EXCEEDED);
+        }
+
+        // 统一存放在独立目录下，未确认的对象由过期清理任务删除
+        String objectName = PRESIGNED_UPLOAD_DIRECTORY + "/"
+                + buildObjectName(initDTO.getFileName(), initDTO.getDirectory());
+        long expireSeconds = fileUploadConfig.getPresignExpireSeconds();
+
+        // 使用POST策略而不是预签名PUT，由MinIO校验对象名称、文件类型和文件大小
+        Map<String, String> formData;
+        try {
+            PostPolicy policy = new PostPolicy(minioConfig.getBucketName(), ZonedDateTime.now().plusSeconds(expireSeconds));
+            policy.addEqualsCondition("key", objectName);
+            if (StringUtils.isNotBlank(initDTO.getContentType())) {
+                policy.addEqualsCondition("Content-Type", initDTO.getContentType());
+            }
+            policy.addContentLengthRangeCondition(initDTO.getFileSize(), initDTO.getFileSize());
+            formData = new LinkedHashMap<>(minioClient.getPresignedPostFormData(policy));
+        } catch (Exception e) {
+            log.error("生成预签名上传策略失败: {}", e.getMessage(), e);
+            throw new BusinessException(CommonErrorCode.INTERNAL_SERVER_ERROR, "生成预签名上传策略失败: " + e.getMessage());
+        }
+        formData.put("key", objectName);
+        if (StringUtils.isNotBlank(initDTO.getContentType())) {
+            formData.put("Content-Type", initDTO.getContentType());
+        }
+
+        PresignedUploadDTO upload = PresignedUploadDTO.builder()
+                .uploadToken(UUID.randomUUID().toString().replace("-", ""))
+                .userId(userId)
+                .url(StringUtils.removeEnd(minioConfig.getEndpoint(), "/") + "/" + minioConfig.getBucketName())
+                .formData(formData)
+                .expireSeconds(expireSeconds)
+                .objectName(objectName)
+                .fileName(initDTO.getFileName())
+                .contentType(initDTO.getContentType())
+                .fileSize(initDTO.getFileSize())
+                .build();
+        // 地址过期前开始的上传可能在过期后才结束，凭证多保留一个有效期；
+        // 凭证过期后再等待一个有效期仍未确认的对象由过期清理任务删除
+        redisUtils.zAdd(PRESIGNED_PENDING_KEY, objectName, System.currentTimeMillis() + expireSeconds * 3 * 1000);
+        redisUtils.set(PRESIGNED_UPLOAD_PREFIX + upload.getUploadToken(), upload, expireSeconds * 2);
+        return upload;
+    }
+
+    @Override
+    public FileUploadResponseDTO confirmPresignedUpload(String uploadToken) {
+        Long userId = requireCurrentUserId();
+        String key = PRESIGNED_UPLOAD_PREFIX + uploadToken;
+        Object cached = redisUtils.get(key);
+        // 其他用户的凭证同样按不存在处理
+        if (!(cached instanceof PresignedUploadDTO) || !userId.equals(((PresignedUploadDTO) cached).getUserId())) {
+            throw new BusinessException(FileErrorCode.UPLOAD_SESSION_NOT_EXIST);
+        }
+        PresignedUploadDTO upload = (PresignedUploadDTO) cached;
+
+        // 1. 确认对象已上传
+        StatObjectResponse stat;
+        try {
+            stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(upload.getObjectName())
+                    .build());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new BusinessException(FileErrorCode.FILE_NOT_EXIST, "文件尚未上传完成");
+            }
+            log.error("确认上传失败: {}", e.getMessage(), e);
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "确认上传失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("确认上传失败: {}", e.getMessage(), e);
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "确认上传失败: " + e.getMessage());
+        }
+
+        // 2. 大小与声明不一致时删除对象，凭证保留，地址未过期时可重新上传
+        if (stat.size() != upload.getFileSize()) {
+            log.warn("预签名上传大小不一致: {}，声明 {} 字节，实际 {} 字节", upload.getObjectName(),
+                    upload.getFileSize(), stat.size());
+            removeUnindexedObjects(List.of(upload.getObjectName()));
+            throw new BusinessException(FileErrorCode.UPLOAD_SIZE_MISMATCH);
+        }
+
+        redisUtils.delete(key);
+        redisUtils.zRemove(PRESIGNED_PENDING_KEY, upload.getObjectName());
+        return FileUploadResponseDTO.builder()
+                .fileName(upload.getFileName())
+                .fileSize(stat.size())
+                .contentType(stat.contentType())
+                .url(getFileUrl(upload.getObjectName()))
+                .objectName(upload.getObjectName())
+                .build();
+    }
+
+    @Override
+    public int cleanupExpiredPresignedUploads() {
+        Set<Object> expired = redisUtils.zRangeByScore(PRESIGNED_PENDING_KEY, 0, System.currentTimeMillis(),
+                PRESIGNED_CLEANUP_BATCH_SIZE);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<String> objectNames = expired.stream().map(Object::toString).collect(Collectors.toList());
+        List<String> failed;
+        try {
+            failed = removeObjects(minioClient, minioConfig.getBucketName(), objectNames);
+        } catch (Exception e) {
+            log.error("删除过期的预签名直传对象失败: {}", e.getMessage(), e);
+            return 0;
+        }
+        // 删除失败的对象保留在集合中，下次重试
+        List<Object> removed = new ArrayList<>();
+        for (String objectName : objectNames) {
+            if (!failed.contains(objectName)) {
+                fileDownloadService.evict(objectName);
+                removed.add(objectName);
+            }
+        }
+        if (!removed.isEmpty()) {
+            redisUtils.zRemove(PRESIGNED_PENDING_KEY, removed.toArray());
+            log.info("删除过期未确认的预签名直传对象 {} 个", removed.size());
+        }
+        return removed.size();
+    }
+
+    @Override
+    public PresignedDownloadDTO getPresignedDownloadUrl(String objectName) {
+        long expireSeconds = fileUploadConfig.getPresignExpireSeconds();
+        return PresignedDownloadDTO.builder()
+                .objectName(objectName)
+                .url(presign(Method.GET, objectName, expireSeconds))
+                .expireSeconds(expireSeconds)
+                .build();
+    }
+
+    /**
+     * 生成预签名地址
+     * 签名在本地计算，除首次获取存储桶区域外不访问MinIO
+     *
+     * @param method HTTP方法
+     * @param objectName 对象名称
+     * @param expireSeconds 有效期（秒）
+     * @return 预签名地址
+     */
+    private String presign(Method method, String objectName, long expireSeconds) {
+        try {
+            return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(method)
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .expiry((int) expireSeconds, TimeUnit.SECONDS)
+                    .build());
+        } catch (Exception e) {
+            log.error("生成预签名地址失败: {}", e.getMessage(), e);
+            throw new BusinessException(CommonErrorCode.INTERNAL_SERVER_ERROR, "生成预签名地址失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 为已登记的对象增加一次引用，增加引用次数和登记引用在同一事务中完成
+     *
+     * @param fileObjectId 文件内容索引ID
+     * @param userId 上传用户ID
+     * @return 对象正在被删除（引用次数已降为0）时返回false，调用方应重新上传
+     */
+    private boolean addReference(Long fileObjectId, Long userId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (fileObjectMapper.incrementRefCount(fileObjectId) == 0) {
+                return false;
+            }
+            fileReferenceMapper.insert(new FileReference().setFileObjectId(fileObjectId).setUserId(userId));
+            return true;
+        }));
+    }
+
+    /**
+     * 登记内容索引
+     * 并发上传相同内容时唯一索引冲突，改为引用先登记的对象，并删除本次上传的对象
+     *
+     * @param sha256 内容摘要
+     * @param directory 去重目录，未指定时为空字符串
+     * @param objectName 本次上传的对象名称
+     * @param file 文件
+     * @param userId 上传用户ID
+     * @return 实际使用的对象名称
+     */
+    private String registerObject(String sha256, String directory, String objectName, MultipartFile file, Long userId) {
+        FileObject fileObject = new FileObject()
+                .setSha256(sha256)
+                .setDirectory(directory)
+                .setObjectName(objectName)
+                .setFileSize(file.getSize())
+                .setContentType(file.getContentType())
+                .setRefCount(1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                fileObjectMapper.insert(fileObject);
+                fileReferenceMapper.insert(new FileReference().setFileObjectId(fileObject.getId()).setUserId(userId));
+            });
+            return objectName;
+        } catch (DuplicateKeyException e) {
+            FileObject winner = fileObjectMapper.selectBySha256(sha256, directory);
+            if (winner == null || !addReference(winner.getId(), userId)) {
+                removeQuietly(objectName);
+                throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "文件上传冲突，请重试");
+            }
+            removeQuietly(objectName);
+            return winner.getObjectName();
+        } catch (RuntimeException e) {
+            removeQuietly(objectName);
+            throw e;
+        }
+    }
+
+    /**
+     * 构建上传响应
+     */
+    private FileUploadResponseDTO buildUploadResponse(String originalFilename, MultipartFile file, String objectName) {
+        return FileUploadResponseDTO.builder()
+                .fileName(originalFilename)
+                .fileSize(file.getSize())
+                .contentType(file.getContentType())
+                .url(getFileUrl(objectName))
+                .objectName(objectName)
+                .build();
+    }
+
+    /**
+     * 删除未登记的对象，失败只记录日志
+     */
+    private void removeQuietly(String objectName) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .build());
+        } catch (Exception e) {
+            log.warn("删除未登记的对象失败: {}，{}", objectName, e.getMessage());
+        }
+    }
+
+    /**
+     * 流式计算SHA-256
+     *
+     * @param inputStream 内容
+     * @return 十六进制小写摘要
+     */
+    private static String sha256Hex(InputStream inputStream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 当前用户ID，未登录（公共上传）时为0
+     */
+    private static Long currentUserIdOrAnonymous() {
+        UserContext userContext = UserContext.getCurrentUser();
+        return userContext != null ? userContext.getUserId() : ANONYMOUS_USER_ID;
+    }
+
+    private static Long requireCurrentUserId() {
+        UserContext userContext = UserContext.getCurrentUser();
+        ExceptionUtils.assertNotNull(userContext, UserErrorCode.USER_NOT_LOGIN);
+        return userContext.getUserId();
+    }
+
+    /**
+     * 批量上传中的单个文件上传任务
+     */
+    private final class UploadTask implements Runnable {
+
+        private final int index;
+        private final MultipartFile file;
+        private final String directory;
+        /**
+         * 提交任务的用户，上传线程中没有请求的用户上下文
+         */
+        private final Long userId = currentUserIdOrAnonymous();
+        private final CompletableFuture<FileUploadItemResultDTO> result = new CompletableFuture<>();
+
+        private UploadTask(int index, MultipartFile file, String directory) {
+            this.index = index;
+            this.file = file;
+            this.directory = directory;
+        }
+
+        @Override
+        public void run() {
+            result.complete(uploadItem(index, file, directory, userId));
+        }
+
+        /**
+         * 任务不再执行，返回失败结果
+         */
+        private void reject() {
+            result.complete(FileUploadItemResultDTO.builder()
+                    .index(index)
+                    .fileName(file.getOriginalFilename())
+                    .success(false)
+                    .code(CommonErrorCode.SERVICE_UNAVAILABLE.getCode())
+                    .message("服务正在关闭，请稍后重试")
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.xiaoyan.projectskeleton.service.impl.file;
+
+import com.xiaoyan.projectskeleton.common.config.FileUploadAdmissionConfig;
+import com.xiaoyan.projectskeleton.common.config.RateLimitConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.CommonErrorCode;
+import com.xiaoyan.projectskeleton.common.util.IpUtils;
+import com.xiaoyan.projectskeleton.service.file.FileUploadAdmissionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 上传准入服务实现类
+ *
+ * 1. 请求线程中只登记排队，排队已满时立即拒绝，随后交给Spring MVC异步处理，请求线程立即释放
+ * 2. 上传线程中等待并发数和字节数预算，超过排队时间拒绝；获得预算后才解析请求体并上传
+ * 3. 单个请求超过字节数上限时，在没有其他上传占用预算时仍可执行，避免永远无法上传
+ * 4. 上传线程数等于排队和上传的请求数上限之和，已登记的任务总能立即获得线程
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileUploadAdmissionServiceImpl implements FileUploadAdmissionService {
+
+    private final FileUploadAdmissionConfig fileUploadAdmissionConfig;
+    private final RateLimitConfig rateLimitConfig;
+    private final MultipartProperties multipartProperties;
+
+    /**
+     * 预算锁，保护以下计数
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 预算释放信号
+     */
+    private final Condition released = lock.newCondition();
+
+    /**
+     * 正在上传的请求数
+     */
+    private int active;
+
+    /**
+     * 正在上传的字节数
+     */
+    private long activeBytes;
+
+    /**
+     * 排队等待的请求数
+     */
+    private int queued;
+
+    /**
+     * 客户端 -> 预算占用，没有上传和排队时移除
+     */
+    private final Map<String, ClientUsage> clients = new HashMap<>();
+
+    /**
+     * 上传线程池
+     */
+    private ThreadPoolExecutor uploadPool;
+
+    /**
+     * 供Spring MVC异步处理使用的上传线程池
+     */
+    private AsyncTaskExecutor uploadExecutor;
+
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, fileUploadAdmissionConfig.getMaxConcurrent() + fileUploadAdmissionConfig.getMaxQueued());
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 任务数已由排队上限约束，队列只在线程刚释放预算、尚未回到线程池的瞬间使用
+        uploadPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-upload-async-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        uploadPool.allowCoreThreadTimeOut(true);
+        uploadExecutor = new TaskExecutorAdapter(uploadPool);
+    }
+
+    @PreDestroy
+    public void stop() {
+        uploadPool.shutdownNow();
+    }
+
+    @Override
+    public <T> WebAsyncTask<T> submit(HttpServletRequest request, Callable<T> upload) {
+        UserContext userContext = UserContext.getCurrentUser();
+        String client = userContext != null ? "u" + userContext.getUserId()
+                : "ip:" + IpUtils.getClientIp(request, rateLimitConfig.getTrustForwardedFor());
+        // 未知长度（分块传输）按允许的最大请求大小计算
+        long bytes = request.getContentLengthLong() >= 0 ? request.getContentLengthLong()
+                : multipartProperties.getMaxRequestSize().toBytes();
+        Ticket ticket = enqueue(client, bytes);
+
+        Callable<T> task = () -> {
+            try {
+                admit(ticket);
+                UserContext.setCurrentUser(userContext);
+                return upload.call();
+            } finally {
+                UserContext.clear();
+                release(ticket);
+            }
+        };
+        WebAsyncTask<T> asyncTask = new WebAsyncTask<>(fileUploadAdmissionConfig.getTimeoutMillis(), uploadExecutor, task);
+        asyncTask.onTimeout(() -> {
+            throw new BusinessException(CommonErrorCode.SERVICE_UNAVAILABLE, "上传超时，请稍后重试");
+        });
+        // 任务未能开始执行（如请求已超时）时释放排队名额；已开始的任务由自身释放
+        asyncTask.onCompletion(() -> cancelIfQueued(ticket));
+        return asyncTask;
+    }
+
+    /**
+     * 登记排队，排队已满时立即拒绝
+     */
+    private Ticket enqueue(String client, long bytes) {
+        lock.lock();
+        try {
+            ClientUsage usage = clients.computeIfAbsent(client, key -> new ClientUsage());
+            if (queued >= fileUploadAdmissionConfig.getMaxQueued()
+                    || usage.queued >= fileUploadAdmissionConfig.getMaxQueuedPerClient()) {
+                removeIfIdle(client, usage);
+                throw new BusinessException(CommonErrorCode.TOO_MANY_REQUESTS, "上传请求过多，请稍后再试");
+            }
+            queued++;
+            usage.queued++;
+            return new Ticket(client, usage, bytes, System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(fileUploadAdmissionConfig.getQueueTimeoutMillis()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待预算，超过排队时间时拒绝
+     */
+    private void admit(Ticket ticket) throws InterruptedException {
+        lock.lock();
+        try {
+            while (!fits(ticket)) {
+                long remaining = ticket.deadline - System.nanoTime();
+                if (ticket.state != TicketState.QUEUED || remaining <= 0) {
+                    throw new BusinessException(CommonErrorCode.TOO_MANY_REQUESTS, "上传排队超时，请稍后再试");
+                }
+                released.awaitNanos(remaining);
+            }
+            if (ticket.state != TicketState.QUEUED) {
+                throw new BusinessException(CommonErrorCode.TOO_MANY_REQUESTS, "上传排队超时，请稍后再试");
+            }
+            ticket.state = TicketState.ACTIVE;
+            queued--;
+            ticket.usage.queued--;
+            active++;
+            activeBytes += ticket.bytes;
+            ticket.usage.active++;
+            ticket.usage.activeBytes += ticket.bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 判断请求能否在当前预算内执行，需持有锁
+     */
+    private boolean fits(Ticket ticket) {
+        ClientUsage usage = ticket.usage;
+        return active < fileUploadAdmissionConfig.getMaxConcurrent()
+                && (activeBytes == 0 || activeBytes + ticket.bytes <= fileUploadAdmissionConfig.getMaxBytes())
+                && usage.active < fileUploadAdmissionConfig.getMaxConcurrentPerClient()
+                && (usage.activeBytes == 0 || usage.activeBytes + ticket.bytes <= fileUploadAdmissionConfig.getMaxBytesPerClient());
+    }
+
+    /**
+     * 释放排队名额或预算，可重复调用
+     */
+    private void release(Ticket ticket) {
+        lock.lock();
+        try {
+            if (ticket.state == TicketState.QUEUED) {
+                queued--;
+                ticket.usage.queued--;
+            } else if (ticket.state == TicketState.ACTIVE) {
+                active--;
+                activeBytes -= ticket.bytes;
+                ticket.usage.active--;
+                ticket.usage.activeBytes -= ticket.bytes;
+                released.signalAll();
+            }
+            ticket.state = TicketState.DONE;
+            removeIfIdle(ticket.client, ticket.usage);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancelIfQueued(Ticket ticket) {
+        lock.lock();
+        try {
+            if (ticket.state == TicketState.QUEUED) {
+                release(ticket);
+                // 唤醒可能仍在等待的任务，使其发现已取消
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeIfIdle(String client, ClientUsage usage) {
+        if (usage.active == 0 && usage.queued == 0) {
+            clients.remove(client, usage);
+        }
+    }
+
+    /**
+     * 上传请求状态
+     */
+    private enum TicketState {
+        QUEUED, ACTIVE, DONE
+    }
+
+    /**
+     * 一次上传请求的预算登记
+     */
+    private static final class Ticket {
+        private final String client;
+        private final ClientUsage usage;
+        private final long bytes;
+        private final long deadline;
+        private TicketState state = TicketState.QUEUED;
+
+        private Ticket(String client, ClientUsage usage, long bytes, long deadline) {
+            this.client = client;
+            this.usage = usage;
+            this.bytes = bytes;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * 单个客户端的预算占用
+     */
+    private static final class ClientUsage {
+        private int active;
+        private long activeBytes;
+        private int queued;
+    }
+}
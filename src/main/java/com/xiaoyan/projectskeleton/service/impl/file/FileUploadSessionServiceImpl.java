@@ -0,0 +1,266 @@
+package com.xiaoyan.projectskeleton.service.impl.file;
+
+import com.xiaoyan.projectskeleton.common.config.FileUploadConfig;
+import com.xiaoyan.projectskeleton.common.config.MinioConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.ExceptionUtils;
+import com.xiaoyan.projectskeleton.common.exception.FileErrorCode;
+import com.xiaoyan.projectskeleton.common.exception.UserErrorCode;
+import com.xiaoyan.projectskeleton.common.util.MinioMultipartClient;
+import com.xiaoyan.projectskeleton.common.util.RedisBatch;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadPartDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.file.UploadSessionInitDTO;
+import com.xiaoyan.projectskeleton.service.file.FileService;
+import com.xiaoyan.projectskeleton.service.file.FileUploadSessionService;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 分片上传会话服务实现类
+ *
+ * 1. 创建会话时在MinIO创建分片上传，并由服务端确定分片大小，会话信息保存在Redis中
+ * 2. 每个分片直接从请求体流式上传到MinIO，完成后将序号、大小和ETag写入Redis，分片之间互不依赖，可并行上传
+ * 3. 客户端中断后查询会话即可得知已上传的分片，只需补传缺少的分片
+ * 4. 会话在最后一次上传分片后 sessionExpireSeconds 秒过期；过期会话遗留的分片由MinIO的过期分片清理机制删除
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileUploadSessionServiceImpl implements FileUploadSessionService {
+
+    private final MinioMultipartClient minioMultipartClient;
+    private final MinioConfig minioConfig;
+    private final FileUploadConfig fileUploadConfig;
+    private final FileService fileService;
+    private final RedisUtils redisUtils;
+
+    /**
+     * 会话Redis键前缀
+     */
+    private static final String UPLOAD_SESSION_PREFIX = "upload:session:";
+
+    /**
+     * 已上传分片Redis键后缀（Hash：分片序号 -> 分片信息）
+     */
+    private static final String UPLOAD_PARTS_SUFFIX = ":parts";
+
+    /**
+     * S3分片大小下限（最后一个分片除外）
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * S3分片数上限
+     */
+    private static final int MAX_PARTS = 10000;
+
+    @Override
+    public UploadSessionDTO createSession(UploadSessionInitDTO initDTO) {
+        Long userId = requireCurrentUserId();
+        if (initDTO.getFileSize() > fileUploadConfig.getMaxFileSize()) {
+            throw new BusinessException(FileErrorCode.FILE_SIZE_EXCEEDED);
+        }
+
+        // 1. 确定分片大小：不小于5MB，且分片数不超过10000
+        long fileSize = initDTO.getFileSize();
+        long partSize = Math.max(Math.max(fileUploadConfig.getPartSize(), MIN_PART_SIZE),
+                (fileSize + MAX_PARTS - 1) / MAX_PARTS);
+        int totalParts = (int) ((fileSize + partSize - 1) / partSize);
+
+        // 2. 在MinIO创建分片上传
+        String objectName = FileServiceImpl.buildObjectName(initDTO.getFileName(), initDTO.getDirectory());
+        String uploadId;
+        try {
+            uploadId = minioMultipartClient.createMultipartUpload(minioConfig.getBucketName(), objectName,
+                    initDTO.getContentType());
+        } catch (Exception e) {
+            log.error("创建分片上传失败: {}", e.getMessage(), e);
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "创建分片上传失败: " + e.getMessage());
+        }
+
+        // 3. 保存会话
+        UploadSessionDTO session = UploadSessionDTO.builder()
+                .sessionId(UUID.randomUUID().toString().replace("-", ""))
+                .userId(userId)
+                .uploadId(uploadId)
+                .objectName(objectName)
+                .fileName(initDTO.getFileName())
+                .contentType(initDTO.getContentType())
+                .fileSize(fileSize)
+                .partSize(partSize)
+                .totalParts(totalParts)
+                .build();
+        redisUtils.set(sessionKey(session.getSessionId()), session, fileUploadConfig.getSessionExpireSeconds());
+        session.setUploadedParts(new ArrayList<>());
+        log.info("用户 {} 创建分片上传会话 {}：{}，{} 字节，{} 个分片", userId, session.getSessionId(),
+                objectName, fileSize, totalParts);
+        return session;
+    }
+
+    @Override
+    public UploadSessionDTO getSession(String sessionId) {
+        UploadSessionDTO session = requireSession(sessionId);
+        session.setUploadedParts(loadParts(sessionId));
+        return session;
+    }
+
+    @Override
+    public UploadPartDTO uploadPart(String sessionId, int partNumber, InputStream stream, long size) {
+        UploadSessionDTO session = requireSession(sessionId);
+
+        // 1. 校验分片序号和大小
+        if (partNumber < 1 || partNumber > session.getTotalParts() || size != expectedPartSize(session, partNumber)) {
+            throw new BusinessException(FileErrorCode.UPLOAD_PART_INVALID,
+                    "分片 " + partNumber + " 的大小应为 " + (partNumber >= 1 && partNumber <= session.getTotalParts()
+                            ? expectedPartSize(session, partNumber) : 0) + " 字节");
+        }
+
+        // 2. 流式上传到MinIO
+        String etag;
+        try {
+            etag = minioMultipartClient.uploadPart(minioConfig.getBucketName(), session.getObjectName(),
+                    session.getUploadId(), partNumber, stream, size);
+        } catch (Exception e) {
+            log.error("上传分片失败: 会话 {} 分片 {}，{}", sessionId, partNumber, e.getMessage(), e);
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "上传分片失败: " + e.getMessage());
+        }
+
+        // 3. 记录分片并延长会话有效期，一次往返完成
+        UploadPartDTO part = UploadPartDTO.builder()
+                .partNumber(partNumber)
+                .size(size)
+                .etag(etag)
+                .build();
+        long expireSeconds = fileUploadConfig.getSessionExpireSeconds();
+        RedisBatch batch = redisUtils.batch();
+        batch.hset(partsKey(sessionId), String.valueOf(partNumber), part);
+        batch.expire(partsKey(sessionId), expireSeconds);
+        batch.expire(sessionKey(sessionId), expireSeconds);
+        if (!batch.execute()) {
+            // 分片已在MinIO中，但未记录，客户端重新上传该分片即可
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "记录分片失败，请重新上传该分片");
+        }
+        return part;
+    }
+
+    @Override
+    public FileUploadResponseDTO completeSession(String sessionId) {
+        UploadSessionDTO session = requireSession(sessionId);
+
+        // 1. 校验分片是否齐全
+        List<UploadPartDTO> parts = loadParts(sessionId);
+        if (parts.size() != session.getTotalParts()) {
+            throw new BusinessException(FileErrorCode.UPLOAD_PARTS_INCOMPLETE,
+                    "已上传 " + parts.size() + " 个分片，共 " + session.getTotalParts() + " 个");
+        }
+
+        // 2. 合并分片
+        Part[] minioParts = new Part[parts.size()];
+        for (int i = 0; i < parts.size(); i++) {
+            minioParts[i] = new Part(parts.get(i).getPartNumber(), parts.get(i).getEtag());
+        }
+        try {
+            minioMultipartClient.completeMultipartUpload(minioConfig.getBucketName(), session.getObjectName(),
+                    session.getUploadId(), minioParts);
+        } catch (Exception e) {
+            log.error("合并分片失败: 会话 {}，{}", sessionId, e.getMessage(), e);
+            throw new BusinessException(FileErrorCode.FILE_UPLOAD_FAILED, "合并分片失败: " + e.getMessage());
+        }
+
+        // 3. 删除会话
+        redisUtils.delete(sessionKey(sessionId), partsKey(sessionId));
+        log.info("分片上传会话 {} 已完成：{}", sessionId, session.getObjectName());
+        return FileUploadResponseDTO.builder()
+                .fileName(session.getFileName())
+                .fileSize(session.getFileSize())
+                .contentType(session.getContentType())
+                .url(fileService.getFileUrl(session.getObjectName()))
+                .objectName(session.getObjectName())
+                .build();
+    }
+
+    @Override
+    public void abortSession(String sessionId) {
+        UploadSessionDTO session = requireSession(sessionId);
+        try {
+            minioMultipartClient.abortMultipartUpload(minioConfig.getBucketName(), session.getObjectName(),
+                    session.getUploadId());
+        } catch (Exception e) {
+            // 取消失败时遗留的分片由MinIO的过期分片清理机制删除
+            log.warn("取消分片上传失败: 会话 {}，{}", sessionId, e.getMessage());
+        }
+        redisUtils.delete(sessionKey(sessionId), partsKey(sessionId));
+        log.info("分片上传会话 {} 已取消", sessionId);
+    }
+
+    /**
+     * 获取会话并校验是否属于当前用户
+     *
+     * @param sessionId 会话ID
+     * @return 会话
+     */
+    private UploadSessionDTO requireSession(String sessionId) {
+        Long userId = requireCurrentUserId();
+        Object cached = redisUtils.get(sessionKey(sessionId));
+        // 其他用户的会话同样按不存在处理，不暴露会话是否存在
+        if (!(cached instanceof UploadSessionDTO) || !userId.equals(((UploadSessionDTO) cached).getUserId())) {
+            throw new BusinessException(FileErrorCode.UPLOAD_SESSION_NOT_EXIST);
+        }
+        return (UploadSessionDTO) cached;
+    }
+
+    /**
+     * 读取已上传的分片
+     *
+     * @param sessionId 会话ID
+     * @return 分片列表，按序号升序
+     */
+    private List<UploadPartDTO> loadParts(String sessionId) {
+        Map<Object, Object> entries = redisUtils.hmget(partsKey(sessionId));
+        List<UploadPartDTO> parts = new ArrayList<>(entries.size());
+        for (Object value : entries.values()) {
+            if (value instanceof UploadPartDTO) {
+                parts.add((UploadPartDTO) value);
+            }
+        }
+        parts.sort(Comparator.comparing(UploadPartDTO::getPartNumber));
+        return parts;
+    }
+
+    /**
+     * 计算分片应有的大小，最后一个分片为剩余大小
+     */
+    private static long expectedPartSize(UploadSessionDTO session, int partNumber) {
+        if (partNumber < session.getTotalParts()) {
+            return session.getPartSize();
+        }
+        return session.getFileSize() - session.getPartSize() * (session.getTotalParts() - 1);
+    }
+
+    private static Long requireCurrentUserId() {
+        UserContext userContext = UserContext.getCurrentUser();
+        ExceptionUtils.assertNotNull(userContext, UserErrorCode.USER_NOT_LOGIN);
+        return userContext.getUserId();
+    }
+
+    private static String sessionKey(String sessionId) {
+        return UPLOAD_SESSION_PREFIX + sessionId;
+    }
+
+    private static String partsKey(String sessionId) {
+        return UPLOAD_SESSION_PREFIX + sessionId + UPLOAD_PARTS_SUFFIX;
+    }
+}
@@ -6,30 +6,51 @@ import com.xiaoyan.projectskeleton.common.enums.PermissionTypeEnum;
 import com.xiaoyan.projectskeleton.common.exception.BusinessException;
 import com.xiaoyan.projectskeleton.common.exception.PermissionErrorCode;
 import com.xiaoyan.projectskeleton.common.exception.RoleErrorCode;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
 import com.xiaoyan.projectskeleton.mapper.permission.PermissionMapper;
 import com.xiaoyan.projectskeleton.mapper.permission.RolePermissionMapper;
 import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionCreateDTO;
 import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionTreeCacheDTO;
 import com.xiaoyan.projectskeleton.repository.dto.permission.RolePermissionAssignDTO;
 import com.xiaoyan.projectskeleton.repository.entity.permission.Permission;
 import com.xiaoyan.projectskeleton.repository.entity.permission.RolePermission;
 import com.xiaoyan.projectskeleton.repository.entity.role.Role;
 import com.xiaoyan.projectskeleton.service.permission.PermissionService;
+import com.xiaoyan.projectskeleton.service.permission.PermissionSnapshotService;
 import com.xiaoyan.projectskeleton.service.role.RoleService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * 权限服务实现类
+ * 
+ * 权限树和权限列表缓存在本地内存中，并以Redis中的全局版本号标识：
+ * 1. 权限或角色权限变更提交后，递增Redis版本号并通过发布订阅通知所有节点清除本地缓存
+ * 2. 各节点收到通知后同时重建角色权限快照
+ * 3. 本地缓存设置最大存活时间，作为漏收通知时的兜底
  */
+@Slf4j
 @Service
 public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permission> implements PermissionService {
     
@@ -39,6 +60,64 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
     @Autowired
     private RoleService roleService;
     
+    @Autowired
+    private PermissionSnapshotService permissionSnapshotService;
+    
+    @Autowired
+    private RedisUtils redisUtils;
+    
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+    
+    /**
+     * 权限数据版本号Redis键
+     */
+    private static final String PERMISSION_VERSION_KEY = "permission:version";
+    
+    /**
+     * 权限变更通知频道
+     */
+    private static final String PERMISSION_CHANGE_CHANNEL = "permission:change";
+    
+    /**
+     * 本地权限树缓存最大存活时间（毫秒）
+     */
+    private static final long PERMISSION_CACHE_MAX_AGE = TimeUnit.MINUTES.toMillis(5);
+    
+    /**
+     * 批量写入角色权限关联时每条SQL的最大行数
+     */
+    private static final int BATCH_SIZE = 500;
+    
+    /**
+     * 当前节点标识，用于忽略本节点发出的变更通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    /**
+     * 本地权限树缓存
+     */
+    private volatile PermissionTreeCacheDTO permissionCache;
+    
+    /**
+     * 缓存代数，每次清除缓存时递增，避免清除前开始的构建结果覆盖清除操作
+     */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    
+    /**
+     * 构建缓存使用的锁
+     */
+    private final Object cacheLock = new Object();
+    
+    /**
+     * 订阅权限变更通知
+     */
+    @PostConstruct
+    public void subscribePermissionChange() {
+        redisMessageListenerContainer.addMessageListener(this::onPermissionChangeMessage,
+                new ChannelTopic(PERMISSION_CHANGE_CHANNEL));
+    }
+    
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createPermission(PermissionCreateDTO createDTO) {
@@ -85,6 +164,9 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
         // 保存权限
         this.save(permission);
         
+        // 事务提交后通知权限变更
+        publishPermissionChangeAfterCommit();
+        
         return permission.getId();
     }
     
@@ -100,27 +182,48 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
     
     @Override
     public List<PermissionDTO> getPermissionTree() {
-        // 获取所有权限
-        List<Permission> permissions = this.list();
-        
-        // 转换为DTO
-        List<PermissionDTO> permissionDTOs = permissions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        // 构建树形结构
-        return buildTree(permissionDTOs);
+        return getPermissionTreeCache().getTree();
     }
     
     @Override
     public List<PermissionDTO> getAllPermissions() {
-        // 获取所有权限
-        List<Permission> permissions = this.list();
-        
-        // 转换为DTO
-        return permissions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getPermissionTreeCache().getList();
+    }
+    
+    @Override
+    public PermissionTreeCacheDTO getPermissionTreeCache() {
+        PermissionTreeCacheDTO cache = permissionCache;
+        if (isCacheUsable(cache)) {
+            return cache;
+        }
+        synchronized (cacheLock) {
+            cache = permissionCache;
+            if (isCacheUsable(cache)) {
+                return cache;
+            }
+            
+            // 先读取版本号再加载数据，保证数据不早于版本号
+            long generation = cacheGeneration.get();
+            Long version = loadPermissionVersion();
+            List<Permission> permissions = this.list();
+            
+            // 权限树会修改节点的子节点列表，因此树和平铺列表分别转换
+            List<PermissionDTO> tree = buildTree(convertToDTOs(permissions));
+            List<PermissionDTO> list = convertToDTOs(permissions);
+            cache = new PermissionTreeCacheDTO(version, tree, list, System.currentTimeMillis());
+            
+            // 版本号不可用时不缓存；构建期间被清除过也不缓存
+            if (version != null && cacheGeneration.get() == generation) {
+                permissionCache = cache;
+            }
+            return cache;
+        }
+    }
+    
+    @Override
+    public void evictPermissionCache() {
+        cacheGeneration.incrementAndGet();
+        permissionCache = null;
     }
     
     @Override
@@ -131,28 +234,12 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
             throw new BusinessException(RoleErrorCode.ROLE_NOT_EXISTS);
         }
         
-        // 查询角色权限关联
-        LambdaQueryWrapper<RolePermission> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(RolePermission::getRoleId, roleId);
-        List<RolePermission> rolePermissions = rolePermissionMapper.selectList(queryWrapper);
-        
-        // 如果没有权限，返回空列表
-        if (rolePermissions.isEmpty()) {
-            return new ArrayList<>();
+        // 一次联表查询角色权限及其父权限名称
+        List<PermissionDTO> permissionDTOs = baseMapper.selectPermissionsByRoleId(roleId);
+        for (PermissionDTO permissionDTO : permissionDTOs) {
+            setTypeName(permissionDTO);
         }
-        
-        // 获取权限ID列表
-        List<Long> permissionIds = rolePermissions.stream()
-                .map(RolePermission::getPermissionId)
-                .collect(Collectors.toList());
-        
-        // 查询权限
-        List<Permission> permissions = this.listByIds(permissionIds);
-        
-        // 转换为DTO
-        return permissions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return permissionDTOs;
     }
     
     @Override
@@ -164,37 +251,48 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
             throw new BusinessException(RoleErrorCode.ROLE_NOT_EXISTS);
         }
         
-        // 检查权限是否都存在
-        List<Permission> permissions = this.listByIds(assignDTO.getPermissionIds());
-        if (permissions.size() != assignDTO.getPermissionIds().size()) {
+        // 去重后检查权限是否都存在
+        Set<Long> targetIds = new LinkedHashSet<>(assignDTO.getPermissionIds());
+        if (!targetIds.isEmpty() && this.listByIds(targetIds).size() != targetIds.size()) {
             throw new BusinessException(PermissionErrorCode.PERMISSION_NOT_EXISTS);
         }
         
-        // 先删除角色原有的权限
-        LambdaQueryWrapper<RolePermission> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(RolePermission::getRoleId, assignDTO.getRoleId());
-        rolePermissionMapper.delete(queryWrapper);
+        // 查询角色当前拥有的权限
+        LambdaQueryWrapper<RolePermission> currentQuery = new LambdaQueryWrapper<>();
+        currentQuery.select(RolePermission::getPermissionId)
+                .eq(RolePermission::getRoleId, assignDTO.getRoleId());
+        Set<Long> currentIds = rolePermissionMapper.selectList(currentQuery).stream()
+                .map(RolePermission::getPermissionId)
+                .collect(Collectors.toSet());
         
-        // 如果权限ID列表为空，则表示清空角色权限
-        if (assignDTO.getPermissionIds().isEmpty()) {
+        // 计算差异，只删除和插入发生变化的关联
+        List<Long> toRemove = currentIds.stream()
+                .filter(permissionId -> !targetIds.contains(permissionId))
+                .collect(Collectors.toList());
+        List<Long> toAdd = targetIds.stream()
+                .filter(permissionId -> !currentIds.contains(permissionId))
+                .collect(Collectors.toList());
+        if (toRemove.isEmpty() && toAdd.isEmpty()) {
             return true;
         }
         
-        // 批量插入新的角色权限关联
-        List<RolePermission> rolePermissions = assignDTO.getPermissionIds().stream()
-                .map(permissionId -> {
-                    RolePermission rolePermission = new RolePermission();
-                    rolePermission.setRoleId(assignDTO.getRoleId());
-                    rolePermission.setPermissionId(permissionId);
-                    return rolePermission;
-                })
-                .collect(Collectors.toList());
+        // 删除不再需要的权限
+        for (int from = 0; from < toRemove.size(); from += BATCH_SIZE) {
+            LambdaQueryWrapper<RolePermission> deleteQuery = new LambdaQueryWrapper<>();
+            deleteQuery.eq(RolePermission::getRoleId, assignDTO.getRoleId())
+                    .in(RolePermission::getPermissionId, toRemove.subList(from, Math.min(from + BATCH_SIZE, toRemove.size())));
+            rolePermissionMapper.delete(deleteQuery);
+        }
         
-        // 批量保存
-        for (RolePermission rolePermission : rolePermissions) {
-            rolePermissionMapper.insert(rolePermission);
+        // 分批多值插入新增的权限
+        for (int from = 0; from < toAdd.size(); from += BATCH_SIZE) {
+            rolePermissionMapper.insertBatch(assignDTO.getRoleId(),
+                    toAdd.subList(from, Math.min(from + BATCH_SIZE, toAdd.size())));
         }
         
+        // 事务提交后通知权限变更
+        publishPermissionChangeAfterCommit();
+        
         return true;
     }
     
@@ -220,6 +318,9 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
         queryWrapper.eq(RolePermission::getPermissionId, id);
         rolePermissionMapper.delete(queryWrapper);
         
+        // 事务提交后通知权限变更
+        publishPermissionChangeAfterCommit();
+        
         // 逻辑删除权限
         return this.removeById(id);
     }
@@ -245,9 +346,98 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
                 .eq(RolePermission::getPermissionId, permissionId);
         int result = rolePermissionMapper.delete(queryWrapper);
         
+        // 事务提交后通知权限变更
+        if (result > 0) {
+            publishPermissionChangeAfterCommit();
+        }
+        
         return result > 0;
     }
     
+    /**
+     * 判断本地缓存是否可用
+     *
+     * @param cache 本地缓存
+     * @return 是否可用
+     */
+    private boolean isCacheUsable(PermissionTreeCacheDTO cache) {
+        return cache != null && System.currentTimeMillis() - cache.getBuildTime() < PERMISSION_CACHE_MAX_AGE;
+    }
+    
+    /**
+     * 读取Redis中的权限数据版本号
+     * 键不存在时（首次启动或Redis数据丢失）以当前毫秒时间戳初始化，之后在此基础上递增，
+     * 保证版本号不会回退到曾经下发过的值，客户端持有的旧ETag不会被误判为最新
+     *
+     * @return 版本号，Redis不可用时返回null
+     */
+    private Long loadPermissionVersion() {
+        try {
+            Object version = redisUtils.get(PERMISSION_VERSION_KEY);
+            if (version == null) {
+                // 多个节点同时初始化时只有一个成功，其余节点读取成功写入的值
+                redisUtils.setIfAbsent(PERMISSION_VERSION_KEY, System.currentTimeMillis());
+                version = redisUtils.get(PERMISSION_VERSION_KEY);
+            }
+            return version instanceof Number ? ((Number) version).longValue() : null;
+        } catch (Exception e) {
+            log.warn("读取权限版本号失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 在当前事务提交后通知权限变更，不在事务中时立即通知
+     */
+    private void publishPermissionChangeAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishPermissionChange();
+                }
+            });
+        } else {
+            publishPermissionChange();
+        }
+    }
+    
+    /**
+     * 通知权限变更
+     * 先递增版本号再清除本地缓存，保证清除后构建的缓存一定带有新版本号
+     */
+    private void publishPermissionChange() {
+        Long version = null;
+        try {
+            // 键不存在时INCR会从1开始，先以时间戳初始化
+            redisUtils.setIfAbsent(PERMISSION_VERSION_KEY, System.currentTimeMillis());
+            version = redisUtils.incr(PERMISSION_VERSION_KEY, 1);
+        } catch (Exception e) {
+            log.warn("递增权限版本号失败: {}", e.getMessage());
+        }
+        evictPermissionCache();
+        permissionSnapshotService.refresh();
+        if (version != null) {
+            redisUtils.publish(PERMISSION_CHANGE_CHANNEL, nodeId + ":" + version);
+        }
+    }
+    
+    /**
+     * 处理其他节点发出的权限变更通知
+     *
+     * @param message 通知消息，格式为 节点标识:版本号
+     * @param pattern 订阅模式
+     */
+    private void onPermissionChangeMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.parseMessage(message);
+        if (body == null || body.toString().startsWith(nodeId + ":")) {
+            return;
+        }
+        log.info("收到权限变更通知: {}", body);
+        evictPermissionCache();
+        permissionSnapshotService.refresh();
+    }
+    
     /**
      * 将权限实体转换为DTO
      *
@@ -255,26 +445,68 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
      * @return 权限DTO
      */
     private PermissionDTO convertToDTO(Permission permission) {
+        // 单条转换时按需查询父权限
+        Permission parentPermission = null;
+        if (permission.getParentId() != null && permission.getParentId() > 0) {
+            parentPermission = this.getById(permission.getParentId());
+        }
+        return convertToDTO(permission, parentPermission);
+    }
+    
+    /**
+     * 批量将权限实体转换为DTO
+     * 父权限名称从已加载的权限中查找，不再逐条查询数据库
+     *
+     * @param permissions 权限实体列表（需包含所引用的父权限）
+     * @return 权限DTO列表
+     */
+    private List<PermissionDTO> convertToDTOs(List<Permission> permissions) {
+        Map<Long, Permission> permissionMap = new HashMap<>(permissions.size() * 2);
+        for (Permission permission : permissions) {
+            permissionMap.put(permission.getId(), permission);
+        }
+        
+        List<PermissionDTO> permissionDTOs = new ArrayList<>(permissions.size());
+        for (Permission permission : permissions) {
+            permissionDTOs.add(convertToDTO(permission, permissionMap.get(permission.getParentId())));
+        }
+        return permissionDTOs;
+    }
+    
+    /**
+     * 将权限实体转换为DTO
+     *
+     * @param permission 权限实体
+     * @param parentPermission 父权限实体，可为空
+     * @return 权限DTO
+     */
+    private PermissionDTO convertToDTO(Permission permission, Permission parentPermission) {
         PermissionDTO dto = new PermissionDTO();
         BeanUtils.copyProperties(permission, dto);
         
         // 设置权限类型名称
-        PermissionTypeEnum typeEnum = PermissionTypeEnum.getById(permission.getType());
-        if (typeEnum != null) {
-            dto.setTypeName(typeEnum.getName());
-        }
+        setTypeName(dto);
         
         // 如果有父权限，设置父权限名称
-        if (permission.getParentId() != null && permission.getParentId() > 0) {
-            Permission parentPermission = this.getById(permission.getParentId());
-            if (parentPermission != null) {
-                dto.setParentName(parentPermission.getName());
-            }
+        if (parentPermission != null) {
+            dto.setParentName(parentPermission.getName());
         }
         
         return dto;
     }
     
+    /**
+     * 设置权限类型名称
+     *
+     * @param dto 权限DTO
+     */
+    private void setTypeName(PermissionDTO dto) {
+        PermissionTypeEnum typeEnum = PermissionTypeEnum.getById(dto.getType());
+        if (typeEnum != null) {
+            dto.setTypeName(typeEnum.getName());
+        }
+    }
+    
     /**
      * 构建权限树
      *
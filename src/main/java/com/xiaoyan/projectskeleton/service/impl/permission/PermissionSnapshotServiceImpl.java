@@ -0,0 +1,132 @@
+package com.xiaoyan.projectskeleton.service.impl.permission;
+
+import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
+import com.xiaoyan.projectskeleton.mapper.permission.RolePermissionMapper;
+import com.xiaoyan.projectskeleton.repository.dto.permission.RolePermissionCodeDTO;
+import com.xiaoyan.projectskeleton.service.permission.PermissionSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 角色权限快照服务实现类
+ * 快照整体不可变，重建时构建新快照后一次性替换引用，读取方无需加锁
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PermissionSnapshotServiceImpl implements PermissionSnapshotService {
+    
+    private final RolePermissionMapper rolePermissionMapper;
+    
+    /**
+     * 当前快照
+     */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    /**
+     * 应用启动完成后构建初始快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // 构建失败时保持空快照（拒绝所有权限校验），不影响应用启动
+            log.error("初始化角色权限快照失败: {}", e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public boolean hasPermissions(String roleCode, String[] permissionCodes, boolean requireAll) {
+        // 管理员角色拥有全部权限：未初始化权限数据或误取消管理员权限时，仍可登录后重新分配
+        if (RoleEnum.ADMIN.getCode().equals(roleCode)) {
+            return true;
+        }
+        return snapshot.hasPermissions(roleCode, permissionCodes, requireAll);
+    }
+    
+    @Override
+    public synchronized void refresh() {
+        List<RolePermissionCodeDTO> pairs = rolePermissionMapper.selectAllRolePermissionCodes();
+        
+        // 为每个权限编码分配位序号，并构建角色 -> 权限位集合
+        Map<String, Integer> codeIndex = new HashMap<>();
+        Map<String, BitSet> roleBits = new HashMap<>();
+        for (RolePermissionCodeDTO pair : pairs) {
+            Integer index = codeIndex.computeIfAbsent(pair.getPermissionCode(), code -> codeIndex.size());
+            roleBits.computeIfAbsent(pair.getRoleCode(), role -> new BitSet()).set(index);
+        }
+        
+        snapshot = new Snapshot(codeIndex, roleBits);
+        log.info("角色权限快照已重建，共 {} 个角色，{} 个权限编码", roleBits.size(), codeIndex.size());
+    }
+    
+    @Override
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+    
+    /**
+     * 不可变的角色权限快照
+     */
+    private static final class Snapshot {
+        
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+        
+        /**
+         * 权限编码 -> 位序号
+         */
+        private final Map<String, Integer> codeIndex;
+        
+        /**
+         * 角色编码 -> 权限位集合
+         */
+        private final Map<String, BitSet> roleBits;
+        
+        private Snapshot(Map<String, Integer> codeIndex, Map<String, BitSet> roleBits) {
+            this.codeIndex = codeIndex;
+            this.roleBits = roleBits;
+        }
+        
+        private boolean hasPermissions(String roleCode, String[] permissionCodes, boolean requireAll) {
+            if (permissionCodes.length == 0) {
+                return true;
+            }
+            BitSet bits = roleCode == null ? null : roleBits.get(roleCode);
+            if (bits == null) {
+                return false;
+            }
+            for (String code : permissionCodes) {
+                Integer index = codeIndex.get(code);
+                boolean granted = index != null && bits.get(index);
+                if (requireAll && !granted) {
+                    return false;
+                }
+                if (!requireAll && granted) {
+                    return true;
+                }
+            }
+            return requireAll;
+        }
+    }
+}
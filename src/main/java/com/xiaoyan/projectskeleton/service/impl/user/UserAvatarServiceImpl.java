@@ -0,0 +1,367 @@
+package com.xiaoyan.projectskeleton.service.impl.user;
+
+import com.xiaoyan.projectskeleton.common.config.UserAvatarConfig;
+import com.xiaoyan.projectskeleton.common.exception.BusinessException;
+import com.xiaoyan.projectskeleton.common.exception.CommonErrorCode;
+import com.xiaoyan.projectskeleton.common.exception.UserErrorCode;
+import com.xiaoyan.projectskeleton.mapper.user.UserMapper;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserAvatarUpdateDTO;
+import com.xiaoyan.projectskeleton.service.file.FileService;
+import com.xiaoyan.projectskeleton.service.user.UserAvatarService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 用户头像服务实现类
+ *
+ * 1. 解码前读取图片头检查像素数，解码时只读取中间的正方形区域，并按整数倍抽样到不小于最大缩略图的2倍
+ * 2. 从大到小依次缩放，每个尺寸都由上一个尺寸缩小得到，缩放时每次最多缩小一半以保证画质
+ * 3. 缩略图统一为JPEG，透明背景填充为白色
+ * 4. 解码和编码在固定大小的线程池中执行，限制同时占用的CPU和内存；上传在请求线程中进行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAvatarServiceImpl implements UserAvatarService {
+
+    private final UserAvatarConfig userAvatarConfig;
+    private final FileService fileService;
+    private final UserMapper userMapper;
+
+    /**
+     * 头像目录
+     */
+    private static final String AVATAR_DIRECTORY = "avatars/";
+
+    /**
+     * 原图文件名（不含扩展名）
+     */
+    private static final String ORIGINAL_NAME = "original";
+
+    /**
+     * 缩略图类型
+     */
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    /**
+     * 原图URL格式：分组1为头像目录的URL前缀，分组2为生成的缩略图边长（以下划线分隔）
+     */
+    private static final Pattern ORIGINAL_URL_PATTERN = Pattern.compile(
+            "^(.*/" + AVATAR_DIRECTORY + "[0-9a-f]{32}/)" + ORIGINAL_NAME + "_(\\d+(?:_\\d+)*)(?:\\.[^/]*)?$");
+
+    /**
+     * 头像处理线程池
+     */
+    private ThreadPoolExecutor processPool;
+
+    @PostConstruct
+    public void start() {
+        int concurrency = Math.max(1, userAvatarConfig.getConcurrency());
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 队列已满时拒绝，不让请求线程自己处理，避免突发上传时解码占满内存
+        processPool = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, userAvatarConfig.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-process-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        processPool.shutdownNow();
+    }
+
+    @Override
+    public UserAvatarUpdateDTO storeAvatar(MultipartFile avatarFile) {
+        // 1. 生成缩略图，图片无法解码时不上传任何内容
+        Map<Integer, byte[]> variants = renderAsync(avatarFile);
+
+        // 2. 上传原图和缩略图
+        String directory = AVATAR_DIRECTORY + UUID.randomUUID().toString().replace("-", "") + "/";
+        String extension = StringUtils.defaultString(
+                StringUtils.substringAfterLast(avatarFile.getOriginalFilename(), ".")).toLowerCase(Locale.ROOT);
+        // 原图文件名记录生成的缩略图边长，修改配置后仍能得到已上传头像实际拥有的缩略图
+        String sizes = variants.keySet().stream().sorted().map(String::valueOf).collect(Collectors.joining("_"));
+        String originalName = directory + ORIGINAL_NAME + "_" + sizes + (extension.isEmpty() ? "" : "." + extension);
+        String avatarUrl;
+        try (InputStream inputStream = avatarFile.getInputStream()) {
+            avatarUrl = fileService.uploadObject(originalName, inputStream, avatarFile.getSize(),
+                    avatarFile.getContentType());
+        } catch (IOException e) {
+            throw new BusinessException(UserErrorCode.UPDATE_AVATAR_FAILED, "读取头像文件失败: " + e.getMessage());
+        }
+        try {
+            for (Map.Entry<Integer, byte[]> variant : variants.entrySet()) {
+                byte[] data = variant.getValue();
+                fileService.uploadObject(directory + variant.getKey() + ".jpg", new ByteArrayInputStream(data),
+                        data.length, VARIANT_CONTENT_TYPE);
+            }
+        } catch (RuntimeException e) {
+            deleteAvatar(avatarUrl);
+            throw e;
+        }
+
+        return UserAvatarUpdateDTO.builder()
+                .avatarUrl(avatarUrl)
+                .avatarVariants(getVariantUrls(avatarUrl))
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getVariantUrls(String avatarUrl) {
+        if (avatarUrl == null) {
+            return null;
+        }
+        Matcher matcher = ORIGINAL_URL_PATTERN.matcher(avatarUrl);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Map<String, String> variantUrls = new LinkedHashMap<>();
+        for (String size : matcher.group(2).split("_")) {
+            variantUrls.put(size, matcher.group(1) + size + ".jpg");
+        }
+        return variantUrls;
+    }
+
+    @Override
+    public void deleteAvatar(String avatarUrl) {
+        if (StringUtils.isBlank(avatarUrl) || avatarUrl.contains("default-avatar")
+                || !avatarUrl.contains(AVATAR_DIRECTORY)) {
+            return;
+        }
+        // 从URL中提取对象名称
+        List<String> objectNames = new ArrayList<>();
+        objectNames.add(avatarUrl.substring(avatarUrl.indexOf(AVATAR_DIRECTORY)));
+        Map<String, String> variantUrls = getVariantUrls(avatarUrl);
+        if (variantUrls != null) {
+            for (String variantUrl : variantUrls.values()) {
+                objectNames.add(variantUrl.substring(variantUrl.indexOf(AVATAR_DIRECTORY)));
+            }
+        }
+        try {
+            List<String> failed = fileService.removeUnindexedObjects(objectNames);
+            if (!failed.isEmpty()) {
+                // 删除旧头像失败不影响业务，遗留的对象由孤儿对象清理任务回收
+                log.warn("删除头像失败: {}", failed);
+            }
+        } catch (Exception e) {
+            log.warn("删除头像失败: {}，{}", objectNames, e.getMessage());
+        }
+    }
+
+    @Override
+    public Set<String> findReferencedObjects(Collection<String> objectNames) {
+        Set<String> directories = new HashSet<>();
+        for (String objectName : objectNames) {
+            if (objectName.startsWith(AVATAR_DIRECTORY)) {
+                directories.add(avatarDirectory(objectName));
+            }
+        }
+        if (directories.isEmpty()) {
+            return Set.of();
+        }
+        // 头像URL的前缀可能随配置变化，按URL中的对象名称比较
+        Set<String> referenced = new HashSet<>();
+        for (String avatarUrl : userMapper.selectAvatarsInDirectories(directories)) {
+            referenced.add(avatarUrl.substring(avatarUrl.indexOf(AVATAR_DIRECTORY)));
+            Map<String, String> variantUrls = getVariantUrls(avatarUrl);
+            if (variantUrls != null) {
+                for (String variantUrl : variantUrls.values()) {
+                    referenced.add(variantUrl.substring(variantUrl.indexOf(AVATAR_DIRECTORY)));
+                }
+            }
+        }
+        referenced.retainAll(new HashSet<>(objectNames));
+        return referenced;
+    }
+
+    /**
+     * 取对象名称的前两级路径，与 UserMapper.selectAvatarsInDirectories 的目录计算方式一致
+     */
+    private static String avatarDirectory(String objectName) {
+        int index = objectName.indexOf('/', AVATAR_DIRECTORY.length());
+        return index < 0 ? objectName : objectName.substring(0, index);
+    }
+
+    /**
+     * 在处理线程池中生成缩略图并等待结果
+     */
+    private Map<Integer, byte[]> renderAsync(MultipartFile avatarFile) {
+        Future<Map<Integer, byte[]>> future;
+        try {
+            future = processPool.submit(() -> render(avatarFile));
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException(CommonErrorCode.TOO_MANY_REQUESTS, "头像处理繁忙，请稍后再试");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(UserErrorCode.UPDATE_AVATAR_FAILED, "头像处理被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException) {
+                throw (BusinessException) e.getCause();
+            }
+            log.error("头像处理失败: {}", e.getCause().getMessage(), e.getCause());
+            throw new BusinessException(UserErrorCode.UPDATE_AVATAR_FAILED, "头像处理失败: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * 解码图片并生成各尺寸缩略图
+     *
+     * @param avatarFile 头像文件
+     * @return 边长 -> JPEG内容，按边长从大到小排列
+     */
+    private Map<Integer, byte[]> render(MultipartFile avatarFile) throws IOException {
+        List<Integer> sizes = new ArrayList<>(userAvatarConfig.getSizes());
+        sizes.sort(Comparator.reverseOrder());
+
+        BufferedImage image = decodeSquare(avatarFile, sizes.get(0));
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+        for (Integer size : sizes) {
+            image = scaleDown(image, size);
+            variants.put(size, encodeJpeg(image));
+        }
+        return variants;
+    }
+
+    /**
+     * 解码图片中间的正方形区域，并按整数倍抽样，使结果不小于最大缩略图边长的2倍
+     * 结果为不透明的RGB图片
+     */
+    private BufferedImage decodeSquare(MultipartFile avatarFile, int largestSize) throws IOException {
+        try (InputStream inputStream = avatarFile.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new BusinessException(UserErrorCode.AVATAR_FORMAT_NOT_SUPPORTED);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > userAvatarConfig.getMaxPixels()) {
+                    throw new BusinessException(UserErrorCode.AVATAR_IMAGE_TOO_LARGE,
+                            "头像图片尺寸过大: " + width + "x" + height);
+                }
+
+                int side = Math.min(width, height);
+                int subsampling = Math.max(1, side / (largestSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                // 统一转为RGB，透明部分填充白色
+                BufferedImage rgb = new BufferedImage(decoded.getWidth(), decoded.getHeight(),
+                        BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = rgb.createGraphics();
+                try {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+                    graphics.drawImage(decoded, 0, 0, null);
+                } finally {
+                    graphics.dispose();
+                }
+                return rgb;
+            } catch (BusinessException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                // 文件头可识别但内容损坏
+                log.warn("头像解码失败: {}", e.getMessage());
+                throw new BusinessException(UserErrorCode.AVATAR_FORMAT_NOT_SUPPORTED);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 缩小到指定边长，每次最多缩小一半；图片已不大于该边长时原样返回，不放大
+     */
+    private static BufferedImage scaleDown(BufferedImage image, int size) {
+        BufferedImage current = image;
+        int side = Math.min(current.getWidth(), current.getHeight());
+        while (side > size) {
+            side = Math.max(size, side / 2);
+            BufferedImage next = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, side, side, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * 编码为JPEG
+     */
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(userAvatarConfig.getQuality());
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
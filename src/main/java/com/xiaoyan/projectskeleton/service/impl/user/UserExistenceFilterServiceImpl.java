@@ -0,0 +1,260 @@
+package com.xiaoyan.projectskeleton.service.impl.user;
+
+import com.xiaoyan.projectskeleton.common.config.UserExistenceFilterConfig;
+import com.xiaoyan.projectskeleton.common.util.BloomFilter;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import com.xiaoyan.projectskeleton.mapper.user.UserMapper;
+import com.xiaoyan.projectskeleton.service.user.UserExistenceFilterService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 用户名/邮箱存在性过滤服务实现类
+ *
+ * 1. 应用启动后流式读取用户表构建过滤器，构建完成前所有检查都回退到数据库
+ * 2. 注册事务提交后加入新用户，并通过发布订阅通知其他节点加入
+ * 3. 定期重建，清除已删除的用户，并补上漏收的注册通知
+ *
+ * 数据库使用 utf8mb4_unicode_ci 排序规则，比较时忽略大小写、重音和末尾空格，
+ * 因此加入和查询前先做相同的归一化，保证数据库认为相等的值落在同一位置；
+ * 归一化后仍含非ASCII字符的值无法保证与排序规则一致，查询时直接回退到数据库。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExistenceFilterServiceImpl implements UserExistenceFilterService {
+
+    private final UserExistenceFilterConfig userExistenceFilterConfig;
+    private final UserMapper userMapper;
+    private final RedisUtils redisUtils;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 新用户注册通知频道
+     */
+    private static final String USER_REGISTERED_CHANNEL = "user:registered";
+
+    /**
+     * 组合字符（重音等附加符号）
+     */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * 当前节点标识，用于忽略本节点发出的通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 当前使用的过滤器，构建完成前为null
+     */
+    private volatile Filters filters;
+
+    /**
+     * 正在重建的过滤器，重建期间加入的值同时写入，避免替换后丢失
+     */
+    private volatile Filters rebuilding;
+
+    /**
+     * 定期重建线程
+     */
+    private ScheduledExecutorService rebuildScheduler;
+
+    /**
+     * 订阅新用户注册通知
+     */
+    @PostConstruct
+    public void subscribeRegistration() {
+        redisMessageListenerContainer.addMessageListener(this::onRegisteredMessage,
+                new ChannelTopic(USER_REGISTERED_CHANNEL));
+    }
+
+    /**
+     * 应用启动完成后构建过滤器并开始定期重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!Boolean.TRUE.equals(userExistenceFilterConfig.getEnabled())) {
+            return;
+        }
+        rebuildScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-existence-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = userExistenceFilterConfig.getRebuildIntervalMinutes();
+        if (interval > 0) {
+            rebuildScheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, interval, TimeUnit.MINUTES);
+        } else {
+            rebuildScheduler.execute(this::rebuildQuietly);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuildScheduler != null) {
+            rebuildScheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        String key = normalize(username);
+        return current == null || key == null || current.usernames.mightContain(key);
+    }
+
+    @Override
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        String key = normalize(email);
+        return current == null || key == null || current.emails.mightContain(key);
+    }
+
+    @Override
+    public void addAfterCommit(String username, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addAndPublish(username, email);
+                }
+            });
+        } else {
+            addAndPublish(username, email);
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        if (!Boolean.TRUE.equals(userExistenceFilterConfig.getEnabled())) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        long count = userMapper.selectCount(null);
+        long capacity = Math.max(userExistenceFilterConfig.getExpectedInsertions(), count * 2);
+        Filters next = new Filters(capacity, userExistenceFilterConfig.getFalsePositiveRate());
+        // 先登记再读取数据库：读取开始前提交的注册会被查询到，之后提交的注册会同时写入新过滤器
+        rebuilding = next;
+        try {
+            userMapper.streamUsernamesAndEmails(context -> next.add(context.getResultObject().getUsername(),
+                    context.getResultObject().getEmail()));
+            filters = next;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("用户存在性过滤器构建完成：用户数 {}，位数 {}，哈希函数 {} 个，耗时 {} ms", count,
+                next.usernames.getBitSize(), next.usernames.getHashCount(), System.currentTimeMillis() - startTime);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 构建失败时保留原过滤器（或继续回退到数据库），等待下次重建
+            log.error("构建用户存在性过滤器失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 加入本节点过滤器并通知其他节点
+     */
+    private void addAndPublish(String username, String email) {
+        addLocal(username, email);
+        redisUtils.publish(USER_REGISTERED_CHANNEL, nodeId + "\n" + username + "\n" + email);
+    }
+
+    private void addLocal(String username, String email) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(username, email);
+        }
+        Filters next = rebuilding;
+        if (next != null) {
+            next.add(username, email);
+        }
+    }
+
+    /**
+     * 处理其他节点发出的注册通知
+     *
+     * @param message 通知消息，格式为 节点标识\n用户名\n邮箱
+     * @param pattern 订阅模式
+     */
+    private void onRegisteredMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.parseMessage(message);
+        if (body == null) {
+            return;
+        }
+        String[] parts = body.toString().split("\n", 3);
+        if (parts.length == 3 && !nodeId.equals(parts[0])) {
+            addLocal(parts[1], parts[2]);
+        }
+    }
+
+    /**
+     * 按数据库排序规则归一化：兼容分解后去掉重音，展开 ß、æ、œ，转为小写并去掉末尾空格
+     *
+     * @param value 原始值
+     * @return 归一化后的值；值为null或归一化后仍含非ASCII字符时返回null
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("ß", "ss")
+                .replace("æ", "ae")
+                .replace("œ", "oe")
+                .stripTrailing();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (normalized.charAt(i) > 0x7F) {
+                return null;
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * 用户名和邮箱过滤器
+     */
+    private static final class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(long capacity, double falsePositiveRate) {
+            this.usernames = new BloomFilter(capacity, falsePositiveRate);
+            this.emails = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        private void add(String username, String email) {
+            // 含非ASCII字符的值查询时会回退到数据库，无需加入
+            String usernameKey = normalize(username);
+            if (usernameKey != null) {
+                usernames.put(usernameKey);
+            }
+            String emailKey = normalize(email);
+            if (emailKey != null) {
+                emails.put(emailKey);
+            }
+        }
+    }
+}
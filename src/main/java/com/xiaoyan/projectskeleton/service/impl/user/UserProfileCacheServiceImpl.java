@@ -0,0 +1,313 @@
+package com.xiaoyan.projectskeleton.service.impl.user;
+
+import com.xiaoyan.projectskeleton.common.config.UserProfileCacheConfig;
+import com.xiaoyan.projectskeleton.common.util.RedisBatch;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
+import com.xiaoyan.projectskeleton.service.user.UserProfileCacheService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户资料缓存服务实现类
+ *
+ * 1. 读取顺序：本地缓存 -> Redis -> 数据库，下层命中后回填上层
+ * 2. 同一节点上同一用户的并发加载合并为一次，热点用户被集中访问时只查询一次Redis或数据库
+ * 3. 资料变更提交后递增Redis中的资料版本号、删除Redis缓存并清除本地缓存，再通过发布订阅通知其他节点清除本地缓存
+ * 4. 查询数据库前读取版本号，回填Redis时版本号已变化则放弃写入，避免变更前读到的旧资料在删除缓存后被写回
+ * 5. 本地缓存有效期较短，作为漏收通知时的兜底
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProfileCacheServiceImpl implements UserProfileCacheService {
+
+    private final UserProfileCacheConfig userProfileCacheConfig;
+    private final RedisUtils redisUtils;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 用户资料Redis键前缀
+     */
+    private static final String USER_PROFILE_KEY_PREFIX = "user:profile:";
+
+    /**
+     * 用户资料版本号Redis键前缀，资料变更时递增
+     */
+    private static final String USER_PROFILE_VERSION_KEY_PREFIX = "user:profile:version:";
+
+    /**
+     * 用户资料失效通知频道
+     */
+    private static final String USER_PROFILE_EVICT_CHANNEL = "user:profile:evict";
+
+    /**
+     * 当前节点标识，用于忽略本节点发出的失效通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 用户ID -> 本地缓存条目
+     */
+    private final ConcurrentHashMap<Long, Entry> localCache = new ConcurrentHashMap<>();
+
+    /**
+     * 用户ID -> 正在进行的加载
+     */
+    private final ConcurrentHashMap<Long, CompletableFuture<UserProfileDTO>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存代数，每次清除缓存时递增，避免清除前开始的加载结果在清除后写回缓存
+     */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    /**
+     * 订阅用户资料失效通知
+     */
+    @PostConstruct
+    public void subscribeEviction() {
+        redisMessageListenerContainer.addMessageListener(this::onEvictMessage,
+                new ChannelTopic(USER_PROFILE_EVICT_CHANNEL));
+    }
+
+    @Override
+    public UserProfileDTO get(Long userId, Function<Long, UserProfileDTO> loader) {
+        if (!Boolean.TRUE.equals(userProfileCacheConfig.getEnabled())) {
+            return loader.apply(userId);
+        }
+
+        // 1. 本地缓存
+        Entry entry = localCache.get(userId);
+        if (entry != null) {
+            if (entry.expireTime > System.currentTimeMillis()) {
+                return copyOf(entry.profile);
+            }
+            localCache.remove(userId, entry);
+        }
+
+        // 2. 已有线程在加载时等待其结果
+        CompletableFuture<UserProfileDTO> future = new CompletableFuture<>();
+        CompletableFuture<UserProfileDTO> existing = loading.putIfAbsent(userId, future);
+        if (existing != null) {
+            return copyOf(await(existing));
+        }
+
+        // 3. 由当前线程加载
+        try {
+            UserProfileDTO profile = load(userId, loader);
+            future.complete(profile);
+            return copyOf(profile);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(userId, future);
+        }
+    }
+
+    @Override
+    public void evictAfterCommit(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ids);
+                }
+            });
+        } else {
+            evict(ids);
+        }
+    }
+
+    /**
+     * 从Redis或数据库加载用户资料并回填缓存
+     */
+    private UserProfileDTO load(Long userId, Function<Long, UserProfileDTO> loader) {
+        long generation = cacheGeneration.get();
+        String key = USER_PROFILE_KEY_PREFIX + userId;
+        String versionKey = USER_PROFILE_VERSION_KEY_PREFIX + userId;
+
+        // 资料和版本号在一次往返中读取；Redis不可用时直接查询数据库，且不回填Redis
+        Long version = null;
+        try {
+            List<Object> values = redisUtils.multiGet(List.of(key, versionKey));
+            if (values != null) {
+                if (values.get(0) instanceof UserProfileDTO) {
+                    UserProfileDTO cached = (UserProfileDTO) values.get(0);
+                    putLocal(userId, cached, generation);
+                    return cached;
+                }
+                version = values.get(1) instanceof Number ? ((Number) values.get(1)).longValue() : 0L;
+            }
+        } catch (Exception e) {
+            log.warn("读取用户资料缓存失败: {}，{}", userId, e.getMessage());
+        }
+
+        UserProfileDTO profile = loader.apply(userId);
+        // 加载期间被清除过则不回填，下次读取时重新加载；其他节点上的变更由版本号检查
+        if (cacheGeneration.get() == generation) {
+            if (version != null) {
+                redisUtils.setIfVersionUnchanged(key, profile, userProfileCacheConfig.getRedisExpireSeconds(),
+                        versionKey, version);
+            }
+            putLocal(userId, profile, generation);
+        }
+        return profile;
+    }
+
+    /**
+     * 写入本地缓存
+     */
+    private void putLocal(Long userId, UserProfileDTO profile, long generation) {
+        if (userProfileCacheConfig.getLocalMaxSize() <= 0 || cacheGeneration.get() != generation) {
+            return;
+        }
+        if (localCache.size() >= userProfileCacheConfig.getLocalMaxSize()) {
+            evictLocal();
+        }
+        long expireTime = System.currentTimeMillis() + userProfileCacheConfig.getLocalExpireSeconds() * 1000;
+        localCache.put(userId, new Entry(profile, expireTime));
+    }
+
+    /**
+     * 淘汰本地缓存条目
+     * 先清理已过期的条目，若仍达到上限，再淘汰约十分之一的条目
+     */
+    private void evictLocal() {
+        long now = System.currentTimeMillis();
+        localCache.values().removeIf(entry -> entry.expireTime <= now);
+        int maxSize = userProfileCacheConfig.getLocalMaxSize();
+        if (localCache.size() < maxSize) {
+            return;
+        }
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<Long, Entry>> iterator = localCache.entrySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 清除缓存并通知其他节点
+     * 先递增版本号再删除Redis缓存，变更前开始的加载无法再写回旧数据；
+     * 版本号与资料缓存有效期相同，过期后变更前开始的加载早已结束
+     * 先删除Redis缓存再清除本地缓存，避免本地缓存被清除后又从Redis读到旧数据
+     */
+    private void evict(Set<Long> userIds) {
+        RedisBatch batch = redisUtils.batch();
+        for (Long userId : userIds) {
+            String versionKey = USER_PROFILE_VERSION_KEY_PREFIX + userId;
+            batch.incr(versionKey, 1);
+            batch.expire(versionKey, userProfileCacheConfig.getRedisExpireSeconds());
+            batch.delete(USER_PROFILE_KEY_PREFIX + userId);
+        }
+        if (!batch.execute()) {
+            log.warn("删除用户资料缓存失败: {}", userIds);
+        }
+        evictLocal(userIds);
+        String ids = userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        redisUtils.publish(USER_PROFILE_EVICT_CHANNEL, nodeId + ":" + ids);
+    }
+
+    /**
+     * 清除本地缓存，并使正在进行的加载结果不再回填
+     */
+    private void evictLocal(Collection<Long> userIds) {
+        cacheGeneration.incrementAndGet();
+        for (Long userId : userIds) {
+            localCache.remove(userId);
+            // 之后的读取不再等待清除前开始的加载
+            loading.remove(userId);
+        }
+    }
+
+    /**
+     * 处理其他节点发出的失效通知
+     *
+     * @param message 通知消息，格式为 节点标识:用户ID,用户ID...
+     * @param pattern 订阅模式
+     */
+    private void onEvictMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.parseMessage(message);
+        if (body == null || body.toString().startsWith(nodeId + ":")) {
+            return;
+        }
+        String text = body.toString();
+        List<Long> userIds = new ArrayList<>();
+        for (String id : text.substring(text.indexOf(':') + 1).split(",")) {
+            if (!id.isEmpty()) {
+                userIds.add(Long.valueOf(id));
+            }
+        }
+        log.debug("收到用户资料失效通知: {}", userIds);
+        evictLocal(userIds);
+    }
+
+    /**
+     * 等待其他线程的加载结果，加载失败时抛出相同的异常
+     */
+    private static UserProfileDTO await(CompletableFuture<UserProfileDTO> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 返回副本，避免调用方修改缓存中的对象；缩略图映射一并复制
+     */
+    private static UserProfileDTO copyOf(UserProfileDTO profile) {
+        UserProfileDTO copy = new UserProfileDTO();
+        BeanUtils.copyProperties(profile, copy);
+        if (profile.getAvatarVariants() != null) {
+            copy.setAvatarVariants(new LinkedHashMap<>(profile.getAvatarVariants()));
+        }
+        return copy;
+    }
+
+    /**
+     * 本地缓存条目
+     */
+    private static final class Entry {
+        private final UserProfileDTO profile;
+        private final long expireTime;
+
+        private Entry(UserProfileDTO profile, long expireTime) {
+            this.profile = profile;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.xiaoyan.projectskeleton.service.impl.user;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.xiaoyan.projectskeleton.common.config.JwtConfig;
 import com.xiaoyan.projectskeleton.common.context.UserContext;
+import com.xiaoyan.projectskeleton.common.enums.RoleEnum;
 import com.xiaoyan.projectskeleton.common.enums.UserStatusEnum;
+import com.xiaoyan.projectskeleton.common.event.EmailDeliveryFailedEvent;
 import com.xiaoyan.projectskeleton.common.exception.BusinessException;
 import com.xiaoyan.projectskeleton.common.exception.EmailErrorCode;
 import com.xiaoyan.projectskeleton.common.exception.ExceptionUtils;
@@ -14,7 +18,8 @@ import com.xiaoyan.projectskeleton.common.util.JwtUtils;
 import com.xiaoyan.projectskeleton.mapper.role.RoleMapper;
 import com.xiaoyan.projectskeleton.mapper.user.UserMapper;
 import com.xiaoyan.projectskeleton.mapper.user.UserProfileMapper;
-import com.xiaoyan.projectskeleton.repository.dto.file.FileUploadResponseDTO;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailDeliveryStatusDTO;
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailMessageDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.JwtTokenDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserLoginDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
@@ -23,25 +28,43 @@ import com.xiaoyan.projectskeleton.repository.dto.user.PasswordResetRequestDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.PasswordResetVerifyDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileUpdateDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserAvatarUpdateDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserBatchItemResultDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserBatchResultDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserCursorPageDTO;
 import com.xiaoyan.projectskeleton.repository.entity.role.Role;
 import com.xiaoyan.projectskeleton.repository.entity.user.User;
 import com.xiaoyan.projectskeleton.repository.entity.user.UserProfile;
+import com.xiaoyan.projectskeleton.service.user.UserAvatarService;
+import com.xiaoyan.projectskeleton.service.user.UserExistenceFilterService;
+import com.xiaoyan.projectskeleton.service.user.UserProfileCacheService;
 import com.xiaoyan.projectskeleton.service.user.UserService;
-import com.xiaoyan.projectskeleton.service.EmailService;
-import com.xiaoyan.projectskeleton.service.file.FileService;
+import com.xiaoyan.projectskeleton.service.EmailQueueService;
 import com.xiaoyan.projectskeleton.common.util.EmailTemplateUtil;
+import com.xiaoyan.projectskeleton.common.util.RateLimiter;
 import com.xiaoyan.projectskeleton.common.util.RedisUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -69,13 +92,22 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private JwtConfig jwtConfig;
     
     @Autowired
-    private EmailService emailService;
+    private EmailQueueService emailQueueService;
     
     @Autowired
     private RedisUtils redisUtils;
     
     @Autowired
-    private FileService fileService;
+    private RateLimiter rateLimiter;
+    
+    @Autowired
+    private UserProfileCacheService userProfileCacheService;
+    
+    @Autowired
+    private UserExistenceFilterService userExistenceFilterService;
+    
+    @Autowired
+    private UserAvatarService userAvatarService;
     
     /**
      * 默认角色编码
@@ -106,9 +138,39 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private static final String PASSWORD_RESET_CODE_PREFIX = "password:reset:code:";
     
     /**
-     * 验证码限流Redis前缀
+     * 验证码发送限流键前缀
+     */
+    private static final String PASSWORD_RESET_LIMIT_PREFIX = "password-reset:email:";
+    
+    /**
+     * 邮件业务类型：封禁通知
+     */
+    private static final String EMAIL_BIZ_BAN_NOTIFICATION = "BAN_NOTIFICATION";
+    
+    /**
+     * 邮件业务类型：密码重置验证码
+     */
+    private static final String EMAIL_BIZ_PASSWORD_RESET = "PASSWORD_RESET";
+    
+    /**
+     * 最后登录时间格式
      */
-    private static final String PASSWORD_RESET_LIMIT_PREFIX = "password:reset:limit:";
+    private static final DateTimeFormatter LAST_LOGIN_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    /**
+     * 批量查询时 IN 条件的最大元素个数
+     */
+    private static final int BATCH_QUERY_SIZE = 1000;
+    
+    /**
+     * 游标分页默认每页条数
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    
+    /**
+     * 游标分页最大每页条数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
     
     /**
      * 用户注册
@@ -118,11 +180,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Override
     @Transactional(rollbackFor = Exception.class)
     public User register(UserRegisterDTO registerDTO) {
-        // 1. 校验用户名和邮箱是否已存在
-        ExceptionUtils.assertFalse(checkUsernameExists(registerDTO.getUsername()), 
+        // 1. 校验用户名和邮箱是否已存在（直接查询数据库，不经过过滤器）
+        ExceptionUtils.assertFalse(existsByUsername(registerDTO.getUsername()), 
                 UserErrorCode.USERNAME_ALREADY_EXISTS);
         
-        ExceptionUtils.assertFalse(checkEmailExists(registerDTO.getEmail()), 
+        ExceptionUtils.assertFalse(existsByEmail(registerDTO.getEmail()), 
                 UserErrorCode.EMAIL_ALREADY_EXISTS);
         
         // 2. 校验密码是否一致
@@ -161,6 +223,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 7. 保存用户资料
         userProfileMapper.insert(userProfile);
         
+        // 8. 提交后加入用户名/邮箱过滤器
+        userExistenceFilterService.addAfterCommit(user.getUsername(), user.getEmail());
+        
         return user;
     }
     
@@ -201,6 +266,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 7. 更新最后登录时间
         user.setLastLoginTime(java.time.LocalDateTime.now());
         userMapper.updateById(user);
+        userProfileCacheService.evictAfterCommit(Collections.singletonList(user.getId()));
         
         // 8. 返回JWT令牌
         return JwtTokenDTO.builder()
@@ -229,11 +295,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     
     /**
      * 根据用户ID获取用户资料
+     * 优先读取两级缓存，未命中时从数据库加载
      * @param userId 用户ID
      * @return 用户资料
      */
     @Override
     public UserProfileDTO getUserProfileById(Long userId) {
+        return userProfileCacheService.get(userId, this::loadUserProfile);
+    }
+    
+    /**
+     * 从数据库加载用户资料
+     * @param userId 用户ID
+     * @return 用户资料
+     */
+    private UserProfileDTO loadUserProfile(Long userId) {
         // 1. 获取用户基本信息
         User user = userMapper.selectById(userId);
         ExceptionUtils.assertNotNull(user, UserErrorCode.USER_NOT_EXISTS);
@@ -247,17 +323,70 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         Role role = roleMapper.selectById(user.getRoleId());
         
         // 4. 构建用户资料DTO
+        return buildUserProfileDTO(user, userProfile, role);
+    }
+    
+    /**
+     * 批量组装用户资料
+     * 用户资料按 user_id IN (...) 分批查询，角色按ID一次查询，然后在内存中拼装，
+     * 避免逐个用户调用 getUserProfileById 产生的 N+1 查询
+     * @param users 用户列表
+     * @return 用户资料列表，顺序与传入的用户列表一致
+     */
+    private List<UserProfileDTO> assembleUserProfiles(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // 1. 分批查询用户资料
+        Map<Long, UserProfile> profileMap = new HashMap<>(users.size() * 2);
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        for (int from = 0; from < userIds.size(); from += BATCH_QUERY_SIZE) {
+            List<Long> batchIds = userIds.subList(from, Math.min(from + BATCH_QUERY_SIZE, userIds.size()));
+            LambdaQueryWrapper<UserProfile> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.in(UserProfile::getUserId, batchIds);
+            for (UserProfile userProfile : userProfileMapper.selectList(queryWrapper)) {
+                profileMap.put(userProfile.getUserId(), userProfile);
+            }
+        }
+        
+        // 2. 一次查询所有涉及的角色
+        Set<Long> roleIds = users.stream()
+                .map(User::getRoleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Role> roleMap = roleIds.isEmpty() ? new HashMap<>() :
+                roleMapper.selectByIds(roleIds).stream()
+                        .collect(Collectors.toMap(Role::getId, Function.identity()));
+        
+        // 3. 在内存中拼装
+        List<UserProfileDTO> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            result.add(buildUserProfileDTO(user, profileMap.get(user.getId()), roleMap.get(user.getRoleId())));
+        }
+        return result;
+    }
+    
+    /**
+     * 根据用户、用户资料和角色构建用户资料DTO
+     * @param user 用户
+     * @param userProfile 用户资料，可为空
+     * @param role 角色，可为空
+     * @return 用户资料DTO
+     */
+    private UserProfileDTO buildUserProfileDTO(User user, UserProfile userProfile, Role role) {
         UserProfileDTO profileDTO = new UserProfileDTO();
         profileDTO.setUserId(user.getId());
         profileDTO.setUsername(user.getUsername());
         profileDTO.setEmail(user.getEmail());
         profileDTO.setMobile(user.getMobile());
         profileDTO.setAvatar(user.getAvatar());
+        profileDTO.setAvatarVariants(userAvatarService.getVariantUrls(user.getAvatar()));
         profileDTO.setStatus(user.getStatus());
         
         // 设置最后登录时间
         if (user.getLastLoginTime() != null) {
-            profileDTO.setLastLoginTime(user.getLastLoginTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+            profileDTO.setLastLoginTime(user.getLastLoginTime().format(LAST_LOGIN_TIME_FORMATTER));
         }
         
         // 设置角色信息
@@ -284,23 +413,43 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     
     /**
      * 检查用户名是否已存在
+     * 过滤器判定一定不存在时直接返回，可能存在时再查询数据库
      * @param username 用户名
      * @return 是否存在
      */
     @Override
     public boolean checkUsernameExists(String username) {
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(User::getUsername, username);
-        return userMapper.selectCount(queryWrapper) > 0;
+        return userExistenceFilterService.mightContainUsername(username) && existsByUsername(username);
     }
     
     /**
      * 检查邮箱是否已存在
+     * 过滤器判定一定不存在时直接返回，可能存在时再查询数据库
      * @param email 邮箱
      * @return 是否存在
      */
     @Override
     public boolean checkEmailExists(String email) {
+        return userExistenceFilterService.mightContainEmail(email) && existsByEmail(email);
+    }
+    
+    /**
+     * 查询数据库判断用户名是否已存在
+     * @param username 用户名
+     * @return 是否存在
+     */
+    private boolean existsByUsername(String username) {
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(User::getUsername, username);
+        return userMapper.selectCount(queryWrapper) > 0;
+    }
+    
+    /**
+     * 查询数据库判断邮箱是否已存在
+     * @param email 邮箱
+     * @return 是否存在
+     */
+    private boolean existsByEmail(String email) {
         LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(User::getEmail, email);
         return userMapper.selectCount(queryWrapper) > 0;
@@ -353,6 +502,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 6. 修改用户状态为封禁
         user.setStatus(UserStatusEnum.BANNED.getId());
         userMapper.updateById(user);
+        userProfileCacheService.evictAfterCommit(Collections.singletonList(userId));
         
         // 7. 记录封禁日志
         log.info("用户 {} 被 {} 封禁，原因：{}", user.getUsername(), userContext.getUsername(), reason);
@@ -367,17 +517,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 "系统自动发送，请勿回复"
             );
             
-            // 发送邮件
-            emailService.sendHtmlEmail(
-                null, // 使用系统默认发件人
+            // 加入发送队列，随封禁事务一起提交，提交后异步发送
+            emailQueueService.enqueueHtmlEmail(
                 user.getEmail(),
                 "账号封禁通知",
-                emailContent
+                emailContent,
+                EMAIL_BIZ_BAN_NOTIFICATION,
+                String.valueOf(user.getId())
             );
             
-            log.info("已向用户 {} 发送封禁通知邮件", user.getEmail());
+            log.info("已将用户 {} 的封禁通知邮件加入发送队列", user.getEmail());
         } catch (Exception e) {
-            // 邮件发送失败不影响封禁操作，只记录日志
+            // 邮件入队失败不影响封禁操作，只记录日志
             log.error("向用户 {} 发送封禁通知邮件失败：{}", user.getEmail(), e.getMessage());
         }
     }
@@ -401,6 +552,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 3. 修改用户状态为正常
         user.setStatus(UserStatusEnum.NORMAL.getId());
         userMapper.updateById(user);
+        userProfileCacheService.evictAfterCommit(Collections.singletonList(userId));
         
         // 4. 记录解封日志（如果需要的话，可以在此处添加记录解封日志的代码）
         UserContext userContext = UserContext.getCurrentUser();
@@ -420,13 +572,63 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         queryWrapper.eq(User::getDeleted, 0);
         List<User> userList = userMapper.selectList(queryWrapper);
         
-        // 2. 转换为用户资料DTO
-        if (userList == null || userList.isEmpty()) {
-            return new ArrayList<>();
+        // 2. 批量组装为用户资料DTO
+        return assembleUserProfiles(userList);
+    }
+    
+    /**
+     * 游标分页查询用户列表
+     * 以 id > cursor ORDER BY id 的方式翻页，翻页深度不影响查询代价；
+     * 多查一条用于判断是否还有下一页，且不执行COUNT查询
+     * @param cursor 上一页最后一个用户ID，首页传空
+     * @param size 每页条数
+     * @param status 账号状态，可选
+     * @param roleId 角色ID，可选
+     * @return 分页结果
+     */
+    @Override
+    public UserCursorPageDTO pageUsers(Long cursor, Integer size, Integer status, Long roleId) {
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        
+        // 1. 构建键集查询条件
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.gt(cursor != null, User::getId, cursor)
+                .eq(status != null, User::getStatus, status)
+                .eq(roleId != null, User::getRoleId, roleId)
+                .orderByAsc(User::getId);
+        
+        // 2. 通过分页插件追加 LIMIT，关闭COUNT查询
+        Page<User> page = new Page<>(1, pageSize + 1L, false);
+        List<User> userList = userMapper.selectList(page, queryWrapper);
+        
+        // 3. 判断是否还有下一页
+        boolean hasMore = userList.size() > pageSize;
+        if (hasMore) {
+            userList = userList.subList(0, pageSize);
         }
+        Long nextCursor = hasMore ? userList.get(userList.size() - 1).getId() : null;
         
-        return userList.stream().map(user -> getUserProfileById(user.getId()))
-                .collect(Collectors.toList());
+        return UserCursorPageDTO.builder()
+                .records(assembleUserProfiles(userList))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    /**
+     * 流式遍历用户资料
+     * 一条联表SQL配合MySQL流式结果集逐行回调，内存占用与用户总数无关
+     * @param status 账号状态，可选
+     * @param roleId 角色ID，可选
+     * @param consumer 逐条处理回调
+     */
+    @Override
+    public void streamUsers(Integer status, Long roleId, Consumer<UserProfileDTO> consumer) {
+        userMapper.streamUserProfiles(status, roleId, context -> {
+            UserProfileDTO profileDTO = context.getResultObject();
+            profileDTO.setAvatarVariants(userAvatarService.getVariantUrls(profileDTO.getAvatar()));
+            consumer.accept(profileDTO);
+        });
     }
     
     /**
@@ -459,6 +661,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         
         // 5. 逻辑删除用户（MyBatis-Plus的逻辑删除）
         userMapper.deleteById(userId);
+        userProfileCacheService.evictAfterCommit(Collections.singletonList(userId));
         
         // 6. 记录删除日志
         log.info("用户 {} 被 {} 删除", user.getUsername(), userContext.getUsername());
@@ -486,6 +689,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 2. 设置为正常状态
         user.setStatus(UserStatusEnum.NORMAL.getId());
         userMapper.updateById(user);
+        userProfileCacheService.evictAfterCommit(Collections.singletonList(userId));
         
         // 3. 记录日志
         UserContext userContext = UserContext.getCurrentUser();
@@ -494,12 +698,243 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
     }
     
+    /**
+     * 批量封禁用户
+     * 校验规则与单个封禁一致；状态更新按批次执行，封禁通知邮件批量写入发送队列后异步发送
+     * @param userIds 用户ID列表
+     * @param reason 封禁原因（可选）
+     * @return 每个用户的处理结果
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public UserBatchResultDTO batchBanUsers(List<Long> userIds, String reason) {
+        UserContext userContext = requireCurrentUser();
+        Set<Long> adminRoleIds = getAdminRoleIds();
+        List<User> bannedUsers = new ArrayList<>();
+        
+        UserBatchResultDTO result = executeBatch(userIds, user -> {
+            if (adminRoleIds.contains(user.getRoleId())) {
+                throw new BusinessException(UserErrorCode.OPERATION_NOT_ALLOWED, "不能封禁管理员账号");
+            }
+            if (user.getId().equals(userContext.getUserId())) {
+                throw new BusinessException(UserErrorCode.OPERATION_NOT_ALLOWED, "不能封禁自己的账号");
+            }
+            if (user.getStatus() == UserStatusEnum.BANNED.getId()) {
+                throw new BusinessException(UserErrorCode.ACCOUNT_ALREADY_BANNED, "该用户已经处于封禁状态");
+            }
+        }, users -> {
+            updateUserStatus(users, UserStatusEnum.BANNED.getId());
+            bannedUsers.addAll(users);
+        });
+        log.info("{} 批量封禁用户 {} 个，原因：{}", userContext.getUsername(), bannedUsers.size(), reason);
+        
+        // 封禁通知邮件批量入队，随事务提交后由发送线程异步发送
+        try {
+            List<EmailMessageDTO> messages = new ArrayList<>(bannedUsers.size());
+            for (User user : bannedUsers) {
+                messages.add(EmailMessageDTO.builder()
+                        .to(user.getEmail())
+                        .subject("账号封禁通知")
+                        .content(EmailTemplateUtil.getBanNotificationTemplate(
+                                user.getUsername(), reason, "support@example.com", "系统自动发送，请勿回复"))
+                        .bizType(EMAIL_BIZ_BAN_NOTIFICATION)
+                        .bizKey(String.valueOf(user.getId()))
+                        .build());
+            }
+            emailQueueService.enqueueHtmlEmails(messages);
+        } catch (Exception e) {
+            // 邮件入队失败不影响封禁操作，只记录日志
+            log.error("批量封禁通知邮件入队失败：{}", e.getMessage());
+        }
+        return result;
+    }
+    
+    /**
+     * 批量解封用户
+     * @param userIds 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public UserBatchResultDTO batchUnbanUsers(List<Long> userIds) {
+        UserContext userContext = requireCurrentUser();
+        UserBatchResultDTO result = executeBatch(userIds, user -> {
+            if (user.getStatus() != UserStatusEnum.BANNED.getId()) {
+                throw new BusinessException(UserErrorCode.OPERATION_NOT_ALLOWED, "该用户不处于封禁状态");
+            }
+        }, users -> updateUserStatus(users, UserStatusEnum.NORMAL.getId()));
+        log.info("{} 批量解封用户 {} 个", userContext.getUsername(), result.getSuccessCount());
+        return result;
+    }
+    
+    /**
+     * 批量启用用户
+     * @param userIds 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public UserBatchResultDTO batchEnableUsers(List<Long> userIds) {
+        UserContext userContext = requireCurrentUser();
+        UserBatchResultDTO result = executeBatch(userIds, user -> { },
+                users -> updateUserStatus(users, UserStatusEnum.NORMAL.getId()));
+        log.info("{} 批量启用用户 {} 个", userContext.getUsername(), result.getSuccessCount());
+        return result;
+    }
+    
+    /**
+     * 批量删除用户
+     * @param userIds 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public UserBatchResultDTO batchDeleteUsers(List<Long> userIds) {
+        UserContext userContext = requireCurrentUser();
+        Set<Long> adminRoleIds = getAdminRoleIds();
+        UserBatchResultDTO result = executeBatch(userIds, user -> {
+            if (adminRoleIds.contains(user.getRoleId())) {
+                throw new BusinessException(UserErrorCode.OPERATION_NOT_ALLOWED, "不能删除管理员账号");
+            }
+            if (user.getId().equals(userContext.getUserId())) {
+                throw new BusinessException(UserErrorCode.OPERATION_NOT_ALLOWED, "不能删除自己的账号");
+            }
+        }, users -> {
+            // 逻辑删除用户（MyBatis-Plus的逻辑删除）
+            List<Long> ids = users.stream().map(User::getId).collect(Collectors.toList());
+            LambdaQueryWrapper<User> deleteWrapper = new LambdaQueryWrapper<>();
+            deleteWrapper.in(User::getId, ids);
+            userMapper.delete(deleteWrapper);
+            userProfileCacheService.evictAfterCommit(ids);
+        });
+        log.info("{} 批量删除用户 {} 个", userContext.getUsername(), result.getSuccessCount());
+        return result;
+    }
+    
+    /**
+     * 执行批量操作
+     * 按批次一次查询出该批全部用户，逐个校验后对通过校验的用户执行一次集合操作
+     * @param userIds 用户ID列表，重复和空ID会被忽略
+     * @param validator 单个用户校验，不通过时抛出BusinessException
+     * @param applier 对一批通过校验的用户执行的集合操作
+     * @return 每个用户的处理结果
+     */
+    private UserBatchResultDTO executeBatch(List<Long> userIds, Consumer<User> validator, Consumer<List<User>> applier) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        ids.removeIf(Objects::isNull);
+        Map<Long, UserBatchItemResultDTO> results = new LinkedHashMap<>(ids.size() * 2);
+        
+        for (int from = 0; from < ids.size(); from += BATCH_QUERY_SIZE) {
+            List<Long> batchIds = ids.subList(from, Math.min(from + BATCH_QUERY_SIZE, ids.size()));
+            
+            // 1. 一次查询该批全部用户
+            Map<Long, User> userMap = userMapper.selectByIds(batchIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            
+            // 2. 逐个校验
+            List<User> eligibleUsers = new ArrayList<>(batchIds.size());
+            for (Long userId : batchIds) {
+                User user = userMap.get(userId);
+                if (user == null) {
+                    results.put(userId, failure(userId, UserErrorCode.USER_NOT_EXISTS.getCode(),
+                            UserErrorCode.USER_NOT_EXISTS.getMessage()));
+                    continue;
+                }
+                try {
+                    validator.accept(user);
+                    eligibleUsers.add(user);
+                    results.put(userId, null);
+                } catch (BusinessException e) {
+                    results.put(userId, failure(userId, e.getCode(), e.getMessage()));
+                }
+            }
+            
+            // 3. 对通过校验的用户执行集合操作
+            if (!eligibleUsers.isEmpty()) {
+                applier.accept(eligibleUsers);
+                for (User user : eligibleUsers) {
+                    results.put(user.getId(), UserBatchItemResultDTO.builder()
+                            .userId(user.getId())
+                            .success(true)
+                            .message("操作成功")
+                            .build());
+                }
+            }
+        }
+        
+        int successCount = (int) results.values().stream().filter(item -> Boolean.TRUE.equals(item.getSuccess())).count();
+        return UserBatchResultDTO.builder()
+                .total(results.size())
+                .successCount(successCount)
+                .failureCount(results.size() - successCount)
+                .results(new ArrayList<>(results.values()))
+                .build();
+    }
+    
+    /**
+     * 构建单个用户的失败结果
+     * @param userId 用户ID
+     * @param code 错误码
+     * @param message 错误信息
+     * @return 失败结果
+     */
+    private UserBatchItemResultDTO failure(Long userId, Integer code, String message) {
+        return UserBatchItemResultDTO.builder()
+                .userId(userId)
+                .success(false)
+                .code(code)
+                .message(message)
+                .build();
+    }
+    
+    /**
+     * 以一条UPDATE语句批量修改用户状态
+     * @param users 用户列表
+     * @param status 目标状态
+     */
+    private void updateUserStatus(List<User> users, int status) {
+        List<Long> ids = users.stream().map(User::getId).collect(Collectors.toList());
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(User::getStatus, status)
+                .set(User::getUpdateTime, LocalDateTime.now())
+                .setSql("version = version + 1")
+                .in(User::getId, ids);
+        userMapper.update(updateWrapper);
+        userProfileCacheService.evictAfterCommit(ids);
+    }
+    
+    /**
+     * 获取管理员角色ID集合
+     * @return 管理员角色ID集合
+     */
+    private Set<Long> getAdminRoleIds() {
+        LambdaQueryWrapper<Role> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Role::getCode, RoleEnum.ADMIN.getCode());
+        return roleMapper.selectList(queryWrapper).stream()
+                .map(Role::getId)
+                .collect(Collectors.toSet());
+    }
+    
+    /**
+     * 获取当前操作人，未登录时抛出异常
+     * @return 当前操作人
+     */
+    private UserContext requireCurrentUser() {
+        UserContext userContext = UserContext.getCurrentUser();
+        if (userContext == null) {
+            throw new BusinessException(UserErrorCode.USER_NOT_EXISTS, "用户未登录");
+        }
+        return userContext;
+    }
+    
     /**
      * 发送密码重置验证码
+     * 验证码邮件加入发送队列后立即返回，最终发送失败时由 onEmailDeliveryFailed 清除验证码和发送限制
      * @param requestDTO 密码重置请求
+     * @return 验证码邮件发送状态
      */
     @Override
-    public void sendPasswordResetCode(PasswordResetRequestDTO requestDTO) {
+    public EmailDeliveryStatusDTO sendPasswordResetCode(PasswordResetRequestDTO requestDTO) {
         String email = requestDTO.getEmail();
         
         // 1. 检查邮箱是否存在
@@ -508,9 +943,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         User user = userMapper.selectOne(queryWrapper);
         ExceptionUtils.assertNotNull(user, UserErrorCode.EMAIL_NOT_EXISTS);
         
-        // 2. 检查是否频繁发送验证码
+        // 2. 获取发送许可，检查和计数由一次原子操作完成；许可ID同时作为邮件跟踪ID，用于发送失败时归还许可
+        //    发送间隔是业务规则，关闭接口限流时仍然生效
         String limitKey = PASSWORD_RESET_LIMIT_PREFIX + email;
-        if (Boolean.TRUE.equals(redisUtils.hasKey(limitKey))) {
+        String trackingId = UUID.randomUUID().toString().replace("-", "");
+        if (!rateLimiter.tryAcquireEnforced(limitKey, 1, verificationCodeLimitTime * 1000, trackingId)) {
             throw new BusinessException(UserErrorCode.VERIFICATION_CODE_SEND_TOO_FREQUENTLY);
         }
         
@@ -521,10 +958,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         String codeKey = PASSWORD_RESET_CODE_PREFIX + email;
         redisUtils.set(codeKey, code, verificationCodeExpireTime);
         
-        // 5. 设置发送限制
-        redisUtils.set(limitKey, true, verificationCodeLimitTime);
-        
-        // 6. 发送验证码邮件
+        // 5. 将验证码邮件加入发送队列
+        EmailDeliveryStatusDTO deliveryStatus;
         try {
             String emailContent = EmailTemplateUtil.getPasswordResetCodeTemplate(
                 user.getUsername(),
@@ -533,22 +968,53 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 "系统自动发送，请勿回复"
             );
             
-            emailService.sendHtmlEmail(
-                null, // 使用系统默认发件人
-                email,
-                "密码修改验证码",
-                emailContent
-            );
+            deliveryStatus = emailQueueService.enqueueHtmlEmail(EmailMessageDTO.builder()
+                    .to(email)
+                    .subject("密码修改验证码")
+                    .content(emailContent)
+                    .bizType(EMAIL_BIZ_PASSWORD_RESET)
+                    .bizKey(email)
+                    .trackingId(trackingId)
+                    .build());
             
-            log.info("已向用户 {} 发送密码重置验证码", email);
+            log.info("已将用户 {} 的密码重置验证码邮件加入发送队列", email);
         } catch (Exception e) {
-            // 邮件发送失败，删除Redis中的验证码和限制
+            // 入队失败，删除Redis中的验证码并归还发送许可
             redisUtils.delete(codeKey);
-            redisUtils.delete(limitKey);
+            rateLimiter.release(limitKey, trackingId);
             
             log.error("向用户 {} 发送密码重置验证码失败：{}", email, e.getMessage());
             throw new BusinessException(EmailErrorCode.EMAIL_SEND_FAILED, "验证码发送失败：" + e.getMessage());
         }
+        
+        return deliveryStatus;
+    }
+    
+    /**
+     * 查询密码重置验证码邮件的发送状态
+     * @param trackingId 发送跟踪ID
+     * @return 发送状态
+     */
+    @Override
+    public EmailDeliveryStatusDTO getPasswordResetCodeStatus(String trackingId) {
+        return emailQueueService.getDeliveryStatus(trackingId, EMAIL_BIZ_PASSWORD_RESET);
+    }
+    
+    /**
+     * 处理邮件最终发送失败
+     * 密码重置验证码邮件发送失败时，清除验证码和发送限制，用户可立即重新获取
+     * @param event 邮件发送失败事件
+     */
+    @EventListener
+    public void onEmailDeliveryFailed(EmailDeliveryFailedEvent event) {
+        if (!EMAIL_BIZ_PASSWORD_RESET.equals(event.getBizType())) {
+            return;
+        }
+        // 仅当发送许可仍属于本次发送时才清除验证码，避免误删之后重新获取的验证码
+        if (rateLimiter.release(PASSWORD_RESET_LIMIT_PREFIX + event.getBizKey(), event.getTrackingId())) {
+            redisUtils.delete(PASSWORD_RESET_CODE_PREFIX + event.getBizKey());
+            log.warn("用户 {} 的密码重置验证码邮件发送失败，已清除验证码", event.getBizKey());
+        }
     }
     
     /**
@@ -697,15 +1163,16 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             }
         }
         
-        // 7. 返回更新后的用户资料
+        // 7. 提交后清除缓存，返回从数据库读取的最新资料
+        userProfileCacheService.evictAfterCommit(Collections.singletonList(userId));
         log.info("用户 {} 更新了个人资料", userContext.getUsername());
-        return getUserProfileById(userId);
+        return loadUserProfile(userId);
     }
     
     /**
      * 更新当前登录用户的头像
      * @param avatarFile 头像文件
-     * @return 更新后的头像URL
+     * @return 更新后的头像URL及缩略图URL
      */
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -728,11 +1195,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
         
         try {
-            // 4. 上传头像文件到avatars目录
-            FileUploadResponseDTO uploadResult = fileService.uploadFile(avatarFile, "avatars");
+            // 4. 生成缩略图，与原图一起上传到avatars目录
+            UserAvatarUpdateDTO avatar = userAvatarService.storeAvatar(avatarFile);
             
             // 5. 获取头像URL
-            String avatarUrl = uploadResult.getUrl();
+            String avatarUrl = avatar.getAvatarUrl();
             
             // 6. 更新用户头像
             User user = userMapper.selectById(userId);
@@ -744,23 +1211,13 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             // 8. 更新用户头像URL
             user.setAvatar(avatarUrl);
             userMapper.updateById(user);
+            userProfileCacheService.evictAfterCommit(Collections.singletonList(userId));
             
-            // 9. 如果旧头像存在且不是默认头像，则删除旧头像
-            if (StringUtils.hasText(oldAvatarUrl) && !oldAvatarUrl.contains("default-avatar")) {
-                try {
-                    // 从URL中提取对象名称
-                    String objectName = oldAvatarUrl.substring(oldAvatarUrl.indexOf("avatars/"));
-                    fileService.deleteFile(objectName);
-                } catch (Exception e) {
-                    // 删除旧头像失败不影响业务，只记录日志
-                    log.warn("删除旧头像失败: {}", e.getMessage());
-                }
-            }
+            // 9. 删除旧头像及其缩略图，默认头像不删除
+            userAvatarService.deleteAvatar(oldAvatarUrl);
             
             // 10. 返回更新结果
-            return UserAvatarUpdateDTO.builder()
-                    .avatarUrl(avatarUrl)
-                    .build();
+            return avatar;
             
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -2,6 +2,7 @@ package com.xiaoyan.projectskeleton.service.permission;
 
 import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionCreateDTO;
 import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionDTO;
+import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionTreeCacheDTO;
 import com.xiaoyan.projectskeleton.repository.dto.permission.RolePermissionAssignDTO;
 
 import java.util.List;
@@ -73,4 +74,17 @@ public interface PermissionService {
      * @return 是否取消成功
      */
     boolean removePermissionFromRole(Long roleId, Long permissionId);
-} 
\ No newline at end of file
+    
+    /**
+     * 获取缓存的权限树和权限列表（带版本号）
+     * 缓存不存在时从数据库构建
+     *
+     * @return 权限缓存
+     */
+    PermissionTreeCacheDTO getPermissionTreeCache();
+    
+    /**
+     * 清除本节点的权限树缓存
+     */
+    void evictPermissionCache();
+}
@@ -0,0 +1,29 @@
+package com.xiaoyan.projectskeleton.service.permission;
+
+/**
+ * 角色权限快照服务接口
+ * 在内存中维护角色到权限位集合的不可变快照，权限校验时无需访问数据库或Redis
+ */
+public interface PermissionSnapshotService {
+    
+    /**
+     * 判断角色是否拥有指定权限，管理员角色始终拥有全部权限
+     *
+     * @param roleCode        角色编码
+     * @param permissionCodes 权限编码列表
+     * @param requireAll      是否需要拥有全部权限，false表示拥有任一权限即可
+     * @return 是否拥有
+     */
+    boolean hasPermissions(String roleCode, String[] permissionCodes, boolean requireAll);
+    
+    /**
+     * 立即从数据库重新构建快照
+     */
+    void refresh();
+    
+    /**
+     * 在当前事务提交后重新构建快照
+     * 不在事务中时立即重新构建
+     */
+    void refreshAfterCommit();
+}
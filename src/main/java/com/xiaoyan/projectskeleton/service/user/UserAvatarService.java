@@ -0,0 +1,46 @@
+package com.xiaoyan.projectskeleton.service.user;
+
+import com.xiaoyan.projectskeleton.repository.dto.user.UserAvatarUpdateDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户头像服务接口
+ * 头像原图与各尺寸缩略图存放在同一目录：avatars/{id}/original_{边长_边长...}.{扩展名}、avatars/{id}/{边长}.jpg
+ */
+public interface UserAvatarService {
+    
+    /**
+     * 保存头像：解码一次，生成各尺寸的正方形缩略图，与原图一起上传
+     *
+     * @param avatarFile 头像文件
+     * @return 原图URL和缩略图URL
+     */
+    UserAvatarUpdateDTO storeAvatar(MultipartFile avatarFile);
+    
+    /**
+     * 根据原图URL得到各尺寸缩略图的URL
+     *
+     * @param avatarUrl 原图URL
+     * @return 边长 -> 缩略图URL；没有缩略图的头像（默认头像、旧版头像）返回null
+     */
+    Map<String, String> getVariantUrls(String avatarUrl);
+    
+    /**
+     * 删除头像原图及缩略图，默认头像不删除；删除失败只记录日志
+     *
+     * @param avatarUrl 原图URL
+     */
+    void deleteAvatar(String avatarUrl);
+    
+    /**
+     * 筛选仍被用户头像引用的对象（原图或其缩略图），已删除用户的头像同样视为引用
+     *
+     * @param objectNames 对象名称，不在头像目录中的对象直接忽略
+     * @return 被引用的对象名称
+     */
+    Set<String> findReferencedObjects(Collection<String> objectNames);
+}
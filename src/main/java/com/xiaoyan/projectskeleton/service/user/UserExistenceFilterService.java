@@ -0,0 +1,38 @@
+package com.xiaoyan.projectskeleton.service.user;
+
+/**
+ * 用户名/邮箱存在性过滤服务接口
+ * 在内存中以布隆过滤器保存全部用户名和邮箱，检查结果为"一定不存在"时无需查询数据库
+ */
+public interface UserExistenceFilterService {
+    
+    /**
+     * 判断用户名是否可能已存在
+     *
+     * @param username 用户名
+     * @return false表示一定不存在；true表示可能存在，需查询数据库确认
+     */
+    boolean mightContainUsername(String username);
+    
+    /**
+     * 判断邮箱是否可能已存在
+     *
+     * @param email 邮箱
+     * @return false表示一定不存在；true表示可能存在，需查询数据库确认
+     */
+    boolean mightContainEmail(String email);
+    
+    /**
+     * 在当前事务提交后加入新注册用户的用户名和邮箱，并通知其他节点
+     * 不在事务中时立即加入
+     *
+     * @param username 用户名
+     * @param email    邮箱
+     */
+    void addAfterCommit(String username, String email);
+    
+    /**
+     * 立即从数据库重建过滤器
+     */
+    void rebuild();
+}
@@ -0,0 +1,31 @@
+package com.xiaoyan.projectskeleton.service.user;
+
+import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 用户资料缓存服务接口
+ * 两级缓存：本地缓存在前，Redis在后，均未命中时从数据库加载
+ */
+public interface UserProfileCacheService {
+    
+    /**
+     * 获取用户资料
+     * 同一节点上同一用户同时只有一个线程执行加载，其余线程等待并共享加载结果
+     *
+     * @param userId 用户ID
+     * @param loader 缓存未命中时从数据库加载用户资料，用户不存在时应抛出异常
+     * @return 用户资料副本
+     */
+    UserProfileDTO get(Long userId, Function<Long, UserProfileDTO> loader);
+    
+    /**
+     * 在当前事务提交后清除用户资料缓存，并通知其他节点清除本地缓存
+     * 不在事务中时立即清除。用户信息、状态或角色变更后调用
+     *
+     * @param userIds 用户ID列表
+     */
+    void evictAfterCommit(Collection<Long> userIds);
+}
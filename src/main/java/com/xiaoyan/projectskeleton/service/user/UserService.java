@@ -1,5 +1,6 @@
 package com.xiaoyan.projectskeleton.service.user;
 
+import com.xiaoyan.projectskeleton.repository.dto.email.EmailDeliveryStatusDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.JwtTokenDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserLoginDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileDTO;
@@ -8,10 +9,13 @@ import com.xiaoyan.projectskeleton.repository.dto.user.PasswordResetRequestDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.PasswordResetVerifyDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserProfileUpdateDTO;
 import com.xiaoyan.projectskeleton.repository.dto.user.UserAvatarUpdateDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserBatchResultDTO;
+import com.xiaoyan.projectskeleton.repository.dto.user.UserCursorPageDTO;
 import com.xiaoyan.projectskeleton.repository.entity.user.User;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 用户服务接口
@@ -85,6 +89,24 @@ public interface UserService {
      */
     List<UserProfileDTO> listAllUsers();
     
+    /**
+     * 游标分页查询用户列表（基于用户ID的键集分页）
+     * @param cursor 上一页最后一个用户ID，首页传空
+     * @param size 每页条数
+     * @param status 账号状态，可选
+     * @param roleId 角色ID，可选
+     * @return 分页结果
+     */
+    UserCursorPageDTO pageUsers(Long cursor, Integer size, Integer status, Long roleId);
+    
+    /**
+     * 流式遍历用户资料，逐条回调，不在内存中缓存全部用户
+     * @param status 账号状态，可选
+     * @param roleId 角色ID，可选
+     * @param consumer 逐条处理回调
+     */
+    void streamUsers(Integer status, Long roleId, Consumer<UserProfileDTO> consumer);
+    
     /**
      * 删除用户
      * @param userId 用户ID
@@ -103,11 +125,49 @@ public interface UserService {
      */
     void enableUser(Long userId);
     
+    /**
+     * 批量封禁用户，封禁通知邮件异步发送
+     * @param userIds 用户ID列表
+     * @param reason 封禁原因（可选）
+     * @return 每个用户的处理结果
+     */
+    UserBatchResultDTO batchBanUsers(List<Long> userIds, String reason);
+    
+    /**
+     * 批量解封用户
+     * @param userIds 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    UserBatchResultDTO batchUnbanUsers(List<Long> userIds);
+    
+    /**
+     * 批量启用用户（设置为正常状态）
+     * @param userIds 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    UserBatchResultDTO batchEnableUsers(List<Long> userIds);
+    
+    /**
+     * 批量删除用户（逻辑删除）
+     * @param userIds 用户ID列表
+     * @return 每个用户的处理结果
+     */
+    UserBatchResultDTO batchDeleteUsers(List<Long> userIds);
+    
     /**
      * 发送密码重置验证码
+     * 验证码邮件加入发送队列后立即返回，可通过返回的跟踪ID查询发送结果
      * @param requestDTO 密码重置请求
+     * @return 验证码邮件发送状态
+     */
+    EmailDeliveryStatusDTO sendPasswordResetCode(PasswordResetRequestDTO requestDTO);
+    
+    /**
+     * 查询密码重置验证码邮件的发送状态
+     * @param trackingId 发送跟踪ID
+     * @return 发送状态
      */
-    void sendPasswordResetCode(PasswordResetRequestDTO requestDTO);
+    EmailDeliveryStatusDTO getPasswordResetCodeStatus(String trackingId);
     
     /**
      * 验证验证码并重置密码
@@ -125,7 +185,7 @@ public interface UserService {
     /**
      * 更新当前登录用户的头像
      * @param avatarFile 头像文件
-     * @return 更新后的头像URL
+     * @return 更新后的头像URL及缩略图URL
      */
     UserAvatarUpdateDTO updateCurrentUserAvatar(MultipartFile avatarFile);
 } 
\ No newline at end of file
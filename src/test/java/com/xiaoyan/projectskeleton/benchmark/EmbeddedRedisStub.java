@@ -0,0 +1,261 @@
+package com.xiaoyan.projectskeleton.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基准测试用的内嵌Redis替身
+ * 在本机端口上实现RESP2协议的一个很小的子集（字符串、Hash、Set的常用命令），数据保存在内存中，不处理过期时间。
+ * 每次读取请求后可模拟固定的网络延迟，使往返次数的差异在基准测试中可见。
+ */
+public class EmbeddedRedisStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final long roundTripDelayMicros;
+    private final Map<String, byte[]> strings = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, byte[]>> hashes = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * 启动替身服务
+     *
+     * @param roundTripDelayMicros 每次网络读取后模拟的延迟（微秒），0表示不模拟
+     */
+    public EmbeddedRedisStub(long roundTripDelayMicros) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.roundTripDelayMicros = roundTripDelayMicros;
+        Thread acceptor = new Thread(this::acceptLoop, "redis-stub-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread worker = new Thread(() -> serve(socket), "redis-stub-connection");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (running) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                handle(command, out);
+                // 缓冲区中没有更多请求时（即一次网络读取处理完毕）才刷新并模拟往返延迟
+                if (in.available() == 0) {
+                    out.flush();
+                    simulateDelay();
+                }
+            }
+        } catch (IOException ignored) {
+            // 连接关闭
+        }
+    }
+
+    private void simulateDelay() {
+        if (roundTripDelayMicros > 0) {
+            // 使用park而不是自旋等待，避免在核数较少的机器上挤占客户端线程
+            LockSupport.parkNanos(roundTripDelayMicros * 1000);
+        }
+    }
+
+    private void handle(List<byte[]> command, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "PING":
+                simple(out, "PONG");
+                break;
+            case "CLIENT":
+            case "SELECT":
+                simple(out, "OK");
+                break;
+            case "GET":
+                bulk(out, strings.get(text(command.get(1))));
+                break;
+            case "SET":
+                set(command, out);
+                break;
+            case "SETEX":
+                strings.put(text(command.get(1)), command.get(3));
+                simple(out, "OK");
+                break;
+            case "INCRBY":
+                byte[] updated = strings.compute(text(command.get(1)), (k, v) -> String.valueOf(
+                        (v == null ? 0 : Long.parseLong(text(v))) + Long.parseLong(text(command.get(2))))
+                        .getBytes(StandardCharsets.UTF_8));
+                integer(out, Long.parseLong(text(updated)));
+                break;
+            case "MGET":
+                out.write(("*" + (command.size() - 1) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (int i = 1; i < command.size(); i++) {
+                    bulk(out, strings.get(text(command.get(i))));
+                }
+                break;
+            case "MSET":
+                for (int i = 1; i + 1 < command.size(); i += 2) {
+                    strings.put(text(command.get(i)), command.get(i + 1));
+                }
+                simple(out, "OK");
+                break;
+            case "DEL":
+                long deleted = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    String key = text(command.get(i));
+                    if (strings.remove(key) != null | hashes.remove(key) != null | sets.remove(key) != null) {
+                        deleted++;
+                    }
+                }
+                integer(out, deleted);
+                break;
+            case "EXISTS":
+                String key = text(command.get(1));
+                integer(out, strings.containsKey(key) || hashes.containsKey(key) || sets.containsKey(key) ? 1 : 0);
+                break;
+            case "EXPIRE":
+            case "PEXPIRE":
+                integer(out, 1);
+                break;
+            case "HGET":
+                Map<String, byte[]> hash = hashes.get(text(command.get(1)));
+                bulk(out, hash == null ? null : hash.get(text(command.get(2))));
+                break;
+            case "HSET":
+                Map<String, byte[]> target = hashes.computeIfAbsent(text(command.get(1)), k -> new ConcurrentHashMap<>());
+                long added = 0;
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if (target.put(text(command.get(i)), command.get(i + 1)) == null) {
+                        added++;
+                    }
+                }
+                integer(out, added);
+                break;
+            case "SADD":
+                Set<String> set = sets.computeIfAbsent(text(command.get(1)), k -> ConcurrentHashMap.newKeySet());
+                long count = 0;
+                for (int i = 2; i < command.size(); i++) {
+                    if (set.add(text(command.get(i)))) {
+                        count++;
+                    }
+                }
+                integer(out, count);
+                break;
+            default:
+                out.write(("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.US_ASCII));
+                break;
+        }
+    }
+
+    private void set(List<byte[]> command, OutputStream out) throws IOException {
+        String key = text(command.get(1));
+        boolean nx = false;
+        for (int i = 3; i < command.size(); i++) {
+            if ("NX".equalsIgnoreCase(text(command.get(i)))) {
+                nx = true;
+            }
+        }
+        if (nx) {
+            if (strings.putIfAbsent(key, command.get(2)) != null) {
+                bulk(out, null);
+                return;
+            }
+        } else {
+            strings.put(key, command.get(2));
+        }
+        simple(out, "OK");
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("仅支持数组格式的请求");
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("仅支持批量字符串参数");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] arg = in.readNBytes(length);
+            in.skip(2);
+            args.add(arg);
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new IOException("连接已关闭");
+            }
+            line.write(b);
+        }
+        in.read();
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,79 @@
+package com.xiaoyan.projectskeleton.benchmark;
+
+import com.xiaoyan.projectskeleton.common.config.JwtConfig;
+import com.xiaoyan.projectskeleton.common.context.UserContext;
+import com.xiaoyan.projectskeleton.common.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT校验性能基准测试
+ * 对比拦截器每次请求的Token校验开销：
+ * legacy - 原实现，validate + 三次 getXxx，每次都新建解析器并重新校验签名（共4次）
+ * singleParse - 复用启动时构建的解析器，只进行一次签名校验
+ *
+ * 运行方式：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtUtils jwtUtils;
+    private SecretKey secretKey;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("projectSkeletonSecretKey123456789012345678901234567890");
+        jwtConfig.setAccessTokenExpiration(3600L);
+        jwtUtils = new JwtUtils(jwtConfig);
+        jwtUtils.init();
+        secretKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        token = jwtUtils.generateAccessToken(1L, "admin", "ADMIN");
+    }
+
+    @Benchmark
+    public Object legacy() {
+        // 与改造前 AuthInterceptor 的调用顺序一致
+        parseWithNewParser(token);
+        Long userId = ((Number) parseWithNewParser(token).get("userId")).longValue();
+        String username = parseWithNewParser(token).get("username", String.class);
+        String roleCode = parseWithNewParser(token).get("role", String.class);
+        return new UserContext().setUserId(userId).setUsername(username).setRoleCode(roleCode);
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        return jwtUtils.verifyAccessToken(token);
+    }
+
+    private Claims parseWithNewParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.xiaoyan.projectskeleton.benchmark;
+
+import com.xiaoyan.projectskeleton.common.config.RedisConfig;
+import com.xiaoyan.projectskeleton.common.config.RedisSerializerConfig;
+import com.xiaoyan.projectskeleton.common.util.RedisBatch;
+import com.xiaoyan.projectskeleton.common.util.RedisUtils;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis批量操作性能基准测试
+ * 使用内嵌的Redis替身（每次网络往返模拟固定延迟），对比逐条命令与一次往返的批量命令：
+ * sequentialSet / multiSetWithTtl - 逐条 SET EX 与管道批量 SET EX
+ * sequentialGet / multiGet        - 逐条 GET 与 MGET
+ * sequentialMixed / batchMixed    - 逐条 GET + EXISTS 与 RedisBatch 管道
+ *
+ * 运行方式：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisBatchBenchmark {
+
+    /**
+     * 每次操作的键数量
+     */
+    @Param({"10", "100"})
+    private int keyCount;
+
+    /**
+     * 模拟的单次网络往返延迟（微秒）
+     */
+    @Param({"50"})
+    private long roundTripDelayMicros;
+
+    private EmbeddedRedisStub redisStub;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisUtils redisUtils;
+    private List<String> keys;
+    private Map<String, Object> values;
+
+    @Setup
+    public void setup() throws Exception {
+        // 关闭Lettuce的DEBUG日志，避免日志输出影响测试结果
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        redisStub = new EmbeddedRedisStub(roundTripDelayMicros);
+        // 与应用配置一致使用连接池，管道命令使用池中的独占连接
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", redisStub.getPort()),
+                LettucePoolingClientConfiguration.builder().poolConfig(new GenericObjectPoolConfig<>()).build());
+        RedisConfig.lettucePipeliningFlushPolicyPostProcessor()
+                .postProcessBeforeInitialization(connectionFactory, "redisConnectionFactory");
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisUtils = new RedisUtils(new RedisConfig().redisTemplate(connectionFactory, new RedisSerializerConfig()));
+
+        keys = new ArrayList<>(keyCount);
+        values = new LinkedHashMap<>(keyCount * 2);
+        for (int i = 0; i < keyCount; i++) {
+            String key = "benchmark:user:" + i;
+            keys.add(key);
+            values.put(key, "value-" + i);
+        }
+        redisUtils.multiSet(values);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisStub.close();
+    }
+
+    @Benchmark
+    public Object sequentialSet() {
+        boolean result = true;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            result &= redisUtils.set(entry.getKey(), entry.getValue(), 60);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Object multiSetWithTtl() {
+        return redisUtils.multiSet(values, 60);
+    }
+
+    @Benchmark
+    public Object sequentialGet() {
+        List<Object> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(redisUtils.get(key));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Object multiGet() {
+        return redisUtils.multiGet(keys);
+    }
+
+    @Benchmark
+    public Object sequentialMixed() {
+        List<Object> result = new ArrayList<>(keys.size() * 2);
+        for (String key : keys) {
+            result.add(redisUtils.get(key));
+            result.add(redisUtils.hasKey(key));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Object batchMixed() {
+        RedisBatch batch = redisUtils.batch();
+        List<RedisBatch.Response<?>> responses = new ArrayList<>(keys.size() * 2);
+        for (String key : keys) {
+            responses.add(batch.get(key));
+            responses.add(batch.hasKey(key));
+        }
+        batch.execute();
+        List<Object> result = new ArrayList<>(responses.size());
+        for (RedisBatch.Response<?> response : responses) {
+            result.add(response.get());
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RedisBatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import com.xiaoyan.projectskeleton.common.config.RedisConfig;
+import com.xiaoyan.projectskeleton.common.config.RedisSerializerConfig;
+import com.xiaoyan.projectskeleton.repository.dto.permission.PermissionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 紧凑格式Redis值序列化器测试
+ */
+class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer serializer = RedisConfig.redisValueSerializer(new RedisSerializerConfig());
+
+    @Test
+    void roundTripsScalars() {
+        assertEquals("用户资料", roundTrip("用户资料"));
+        assertEquals("", roundTrip(""));
+        assertEquals(Boolean.TRUE, roundTrip(true));
+        assertEquals(Boolean.FALSE, roundTrip(false));
+        assertArrayEquals(new byte[]{0, 1, (byte) 0xC1}, (byte[]) roundTrip(new byte[]{0, 1, (byte) 0xC1}));
+    }
+
+    @Test
+    void compressesLongStrings() {
+        String text = "缓存内容".repeat(1000);
+        byte[] bytes = serializer.serialize(text);
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertNotEquals(0, bytes[1] & 0x80);
+        assertEquals(text, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void writesIntegersAsDecimalText() {
+        assertArrayEquals("42".getBytes(StandardCharsets.US_ASCII), serializer.serialize(42));
+        assertEquals(42, roundTrip(42));
+        assertEquals(-7, roundTrip(-7L));
+        assertEquals(5_000_000_000L, roundTrip(5_000_000_000L));
+        assertEquals(Long.MAX_VALUE, roundTrip(Long.MAX_VALUE));
+        assertEquals(Long.MIN_VALUE, roundTrip(Long.MIN_VALUE));
+    }
+
+    @Test
+    void parseIntegerRejectsOverflowAndMalformedText() {
+        assertEquals(Long.MAX_VALUE, CompactRedisSerializer.parseInteger(ascii("9223372036854775807")));
+        assertEquals(Long.MIN_VALUE, CompactRedisSerializer.parseInteger(ascii("-9223372036854775808")));
+        assertEquals(0, CompactRedisSerializer.parseInteger(ascii("0")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("9223372036854775808")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("9999999999999999999")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("-9223372036854775809")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("-")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("007")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("1.5")));
+        assertNull(CompactRedisSerializer.parseInteger(ascii("\"1\"")));
+    }
+
+    @Test
+    void readsOverflowingIntegersThroughLegacyReader() {
+        Object value = serializer.deserialize(ascii("9999999999999999999"));
+        assertEquals("9999999999999999999", value.toString());
+    }
+
+    @Test
+    void roundTripsRegisteredDto() {
+        PermissionDTO permission = new PermissionDTO();
+        permission.setId(3L);
+        permission.setName("用户查询");
+        permission.setCode("USER_QUERY");
+        permission.setType(3);
+        permission.setCreateTime(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        PermissionDTO child = new PermissionDTO();
+        child.setId(4L);
+        permission.setChildren(List.of(child));
+
+        byte[] bytes = serializer.serialize(permission);
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(permission, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void readsLegacyFormat() {
+        RedisSerializerConfig legacyConfig = new RedisSerializerConfig();
+        legacyConfig.setWriteMode(CompactRedisSerializer.WriteMode.LEGACY);
+        CompactRedisSerializer legacy = RedisConfig.redisValueSerializer(legacyConfig);
+
+        PermissionDTO permission = new PermissionDTO();
+        permission.setId(1L);
+        permission.setCode("PERMISSION_QUERY");
+        assertEquals(permission, serializer.deserialize(legacy.serialize(permission)));
+        assertEquals("text", serializer.deserialize(legacy.serialize("text")));
+        assertEquals(12, serializer.deserialize(legacy.serialize(12)));
+    }
+
+    @Test
+    void fallsBackToLegacyFormatForUnregisteredTypes() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("count", 3);
+        map.put("name", "value");
+        assertEquals(map, roundTrip(map));
+        assertEquals(1.5, roundTrip(1.5));
+        assertNull(roundTrip(null));
+    }
+
+    private Object roundTrip(Object value) {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,64 @@
+package com.xiaoyan.projectskeleton.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 预编译HTML模板测试
+ */
+class HtmlTemplateTest {
+
+    @Test
+    void escapesTextAndAttributes() {
+        HtmlTemplate template = HtmlTemplate.compile("<p title=\"${attr:title}\">${name}</p>", "name", "title");
+        assertEquals("<p title=\"&quot;a&#39;&amp;b&quot;\">&lt;b&gt;Tom &amp; \"Jerry\"&lt;/b&gt;</p>",
+                template.render("<b>Tom & \"Jerry\"</b>", "\"a'&b\""));
+    }
+
+    @Test
+    void replacesUnsafeUrls() {
+        HtmlTemplate template = HtmlTemplate.compile("<a href=\"${url:link}\">", "link");
+        assertEquals("<a href=\"https://example.com/?a=1&amp;b=2\">", template.render("https://example.com/?a=1&b=2"));
+        assertEquals("<a href=\"/reset\">", template.render("/reset"));
+        assertEquals("<a href=\"mailto:a@b.com\">", template.render("mailto:a@b.com"));
+        assertEquals("<a href=\"#\">", template.render("javascript:alert(1)"));
+        assertEquals("<a href=\"#\">", template.render("//evil.com"));
+    }
+
+    @Test
+    void writesRawFragmentsWithoutEscaping() {
+        HtmlTemplate item = HtmlTemplate.compile("<li>${text}</li>", "text");
+        HtmlTemplate list = HtmlTemplate.compile("<ul>${raw:items}</ul>", "items");
+        assertEquals("<ul><li>a&lt;b</li></ul>", list.render(item.bind("a<b")));
+        assertEquals("<ul><br></ul>", list.render("<br>"));
+    }
+
+    @Test
+    void keepsMissingNamedParameters() {
+        HtmlTemplate template = HtmlTemplate.compile("${greeting}, ${name}!");
+        assertArrayEquals(new String[]{"greeting", "name"}, template.getParamNames());
+        assertEquals("Hi, ${name}!", template.render(Map.of("greeting", "Hi")));
+        assertEquals("Hi, !", template.render("Hi", null));
+    }
+
+    @Test
+    void reusesParameterForRepeatedPlaceholders() {
+        HtmlTemplate template = HtmlTemplate.compile("${code}-${code}");
+        assertEquals(1, template.getParamNames().length);
+        assertEquals("1&lt;2-1&lt;2", template.render("1<2"));
+    }
+
+    @Test
+    void rejectsInvalidTemplatesAndArguments() {
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("${name"));
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("${other}", "name"));
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("${unknown:name}"));
+        HtmlTemplate template = HtmlTemplate.compile("${a}${b}");
+        assertThrows(IllegalArgumentException.class, () -> template.render("only one"));
+    }
+}
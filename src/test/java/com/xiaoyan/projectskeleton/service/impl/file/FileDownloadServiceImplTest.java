@@ -0,0 +1,69 @@
+package com.xiaoyan.projectskeleton.service.impl.file;
+
+import com.xiaoyan.projectskeleton.common.config.FileDownloadConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 文件下载服务的 Range、ETag 解析和公开前缀判断测试
+ */
+class FileDownloadServiceImplTest {
+
+    @Test
+    void parsesSatisfiableRanges() {
+        assertArrayEquals(new long[]{0, 99}, FileDownloadServiceImpl.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{500, 999}, FileDownloadServiceImpl.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[]{900, 999}, FileDownloadServiceImpl.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, FileDownloadServiceImpl.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[]{990, 999}, FileDownloadServiceImpl.parseRange("bytes=990-5000", 1000));
+        assertArrayEquals(new long[]{5, 5}, FileDownloadServiceImpl.parseRange("bytes= 5-5 ", 1000));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertEquals(0, FileDownloadServiceImpl.parseRange("bytes=1000-", 1000).length);
+        assertEquals(0, FileDownloadServiceImpl.parseRange("bytes=2000-3000", 1000).length);
+        assertEquals(0, FileDownloadServiceImpl.parseRange("bytes=-0", 1000).length);
+        assertEquals(0, FileDownloadServiceImpl.parseRange("bytes=-10", 0).length);
+        assertEquals(0, FileDownloadServiceImpl.parseRange("bytes=0-", 0).length);
+    }
+
+    @Test
+    void ignoresMissingOrMalformedRanges() {
+        assertNull(FileDownloadServiceImpl.parseRange(null, 1000));
+        assertNull(FileDownloadServiceImpl.parseRange("items=0-1", 1000));
+        assertNull(FileDownloadServiceImpl.parseRange("bytes=0-1,5-6", 1000));
+        assertNull(FileDownloadServiceImpl.parseRange("bytes=5", 1000));
+        assertNull(FileDownloadServiceImpl.parseRange("bytes=5-2", 1000));
+        assertNull(FileDownloadServiceImpl.parseRange("bytes=a-b", 1000));
+        assertNull(FileDownloadServiceImpl.parseRange("bytes=-", 1000));
+    }
+
+    @Test
+    void matchesEtagsWeakly() {
+        String etag = "\"abc\"";
+        assertTrue(FileDownloadServiceImpl.etagMatches("\"abc\"", etag));
+        assertTrue(FileDownloadServiceImpl.etagMatches("W/\"abc\"", etag));
+        assertTrue(FileDownloadServiceImpl.etagMatches("\"x\", \"abc\"", etag));
+        assertTrue(FileDownloadServiceImpl.etagMatches("*", etag));
+        assertFalse(FileDownloadServiceImpl.etagMatches(null, etag));
+        assertFalse(FileDownloadServiceImpl.etagMatches("\"abcd\"", etag));
+    }
+
+    @Test
+    void allowsOnlyPublicPrefixes() {
+        FileDownloadServiceImpl service = new FileDownloadServiceImpl(null, null, new FileDownloadConfig(), null, null);
+        assertTrue(service.isPublic("avatars/1/a.png"));
+        assertTrue(service.isPublic("public/20250101/a.jpg"));
+        assertFalse(service.isPublic("20250101/a.jpg"));
+        assertFalse(service.isPublic("presigned/a.jpg"));
+        assertFalse(service.isPublic("public/../secret/a.jpg"));
+        assertFalse(service.isPublic("avatars/./a.png"));
+        assertFalse(service.isPublic(""));
+    }
+}